@@ -0,0 +1,147 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.benchmark;
+
+import io.vavr.collection.Seq;
+import io.vavr.collection.Vector;
+import io.vavr.control.Option;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.babzel.tools.opennlp.conllu.parser.ConlluParser;
+import org.babzel.tools.opennlp.conllu.parser.ConlluSentence;
+import org.babzel.tools.opennlp.conllu.parser.ConlluSymbolTable;
+import org.babzel.tools.opennlp.conllu.parser.ConlluWordLine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConlluParserBenchmark {
+    private static final int SENTENCE_COUNT = 1000;
+    private static final String[] FORMS = {"the", "house", "was", "built", "in", "Kraków", "by", "workers", "of", "a", "small", "company", ",", "."};
+    private static final String[] POS_TAGS = {"DET", "NOUN", "AUX", "VERB", "ADP", "PROPN", "ADJ", "PUNCT"};
+
+    private final ConlluParser parser = new ConlluParser();
+    private final BaselineConlluParser baselineParser = new BaselineConlluParser();
+    private Seq<Seq<String>> sentences;
+
+    @Setup
+    public void setUp() {
+        // the same sentences for every run, shaped like universal dependencies conllu files
+        var random = new Random(42);
+        sentences = Vector.range(0, SENTENCE_COUNT).map(i -> createSentence(i, random));
+    }
+
+    private Seq<String> createSentence(int sentenceId, Random random) {
+        var wordCount = 5 + random.nextInt(25);
+        var lines = Vector.of(
+                String.format("# sent_id = s%d", sentenceId),
+                "# text = " + Vector.range(0, wordCount).map(i -> FORMS[random.nextInt(FORMS.length)]).mkString(" "));
+        for (int id = 1; id <= wordCount; id++) {
+            if (id < wordCount && random.nextInt(10) == 0) {
+                // compound word followed by its sub-words
+                lines = lines.append(String.format("%d-%d\tdel\t_\t_\t_\t_\t_\t_\t_\t_", id, id + 1));
+            }
+            var form = FORMS[random.nextInt(FORMS.length)];
+            var posTag = POS_TAGS[random.nextInt(POS_TAGS.length)];
+            lines = lines.append(String.format("%d\t%s\t%s\t%s\t_\tCase=Nom|Number=Sing\t%d\tnsubj\t_\t_", id, form, form.toLowerCase(), posTag, id - 1));
+        }
+        return lines;
+    }
+
+    @Benchmark
+    public Seq<ConlluSentence> parseBaseline() {
+        return sentences.map(baselineParser::parse);
+    }
+
+    @Benchmark
+    public Seq<ConlluSentence> parse() {
+        var symbols = new ConlluSymbolTable();
+        return sentences.map(lines -> parser.parse(lines, symbols));
+    }
+
+    private static class BaselineConlluParser {
+        // regex splitting parser with two passes over the lines, as it was before scanning by index
+        public ConlluSentence parse(Seq<String> lines) {
+            String sentenceText = lines
+                    .map(this::parseSentenceText)
+                    .filter(Option::isDefined)
+                    .map(Option::get)
+                    .getOrElse("");
+            Seq<ConlluWordLine> words = lines
+                    .map(this::parseWordLine)
+                    .filter(Option::isDefined)
+                    .map(Option::get);
+
+            return new ConlluSentence(sentenceText, words.foldLeft(Vector.empty(), this::combineWord));
+        }
+
+        private Option<String> parseSentenceText(String line) {
+            // # text = <sentenceText>
+            if (line.startsWith("#")) {
+                String[] fragments = line.substring(1).split("=", 2);
+                if (fragments.length == 2 && fragments[0].trim().equals("text")) {
+                    return Option.of(fragments[1].trim());
+                }
+            }
+            return Option.none();
+        }
+
+        private Option<ConlluWordLine> parseWordLine(String line) {
+            String[] fragments = line.split("\\t");
+            if (fragments.length >= 4 && fragments[0].matches("[0-9]+")) {
+                // single word line: <id> <form> <lemma> <posTag>
+                return Option.of(new ConlluWordLine(
+                        Integer.parseInt(fragments[0]),
+                        fragments[1],
+                        fragments[2],
+                        fragments[3]));
+            } else if (fragments.length >= 2 && fragments[0].matches("[0-9]+\\-[0-9]+")) {
+                // compound word line: <startId>-<endId> <form>
+                String[] ids = fragments[0].split("\\-");
+                return Option.of(new ConlluWordLine(
+                        Integer.parseInt(ids[0]),
+                        Integer.parseInt(ids[1]),
+                        fragments[1],
+                        Vector.empty()));
+            }
+            return Option.none();
+        }
+
+        private Seq<ConlluWordLine> combineWord(Seq<ConlluWordLine> words, ConlluWordLine word) {
+            if (words.isEmpty()) {
+                return Vector.of(word);
+            }
+            ConlluWordLine lastWord = words.last();
+            if (lastWord.isCompound() && !word.isCompound() && lastWord.getStartId() <= word.getStartId() && word.getStartId() <= lastWord.getEndId()) {
+                // last word is compound and current word should be added as sub-word
+                return words.update(words.size() - 1, new ConlluWordLine(lastWord.getStartId(), lastWord.getEndId(), lastWord.getForm(), lastWord.getSubWords().append(word)));
+            } else {
+                return words.append(word);
+            }
+        }
+    }
+}
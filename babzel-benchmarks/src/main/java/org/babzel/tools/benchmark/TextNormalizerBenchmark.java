@@ -0,0 +1,115 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.benchmark;
+
+import io.vavr.collection.Seq;
+import io.vavr.collection.Vector;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import lombok.SneakyThrows;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.charfilter.MappingCharFilterFactory;
+import org.apache.lucene.analysis.custom.CustomAnalyzer;
+import org.apache.lucene.analysis.icu.ICUNormalizer2CharFilterFactory;
+import org.apache.lucene.analysis.pattern.PatternReplaceCharFilterFactory;
+import org.apache.lucene.analysis.standard.StandardTokenizerFactory;
+import org.babzel.tools.util.LuceneTextNormalizer;
+import org.babzel.tools.util.SimpleTextNormalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextNormalizerBenchmark {
+    private static final int SENTENCE_COUNT = 1000;
+    private static final String LANGUAGE = "en";
+    private static final String TEXT_SEPARATOR = "\n";
+    // mostly lower case ascii words, as in conllu corpora, with some capitalized and non ascii ones
+    private static final String[] WORDS = {
+        "the", "house", "was", "built", "in", "by", "workers", "of", "a", "small", "company", ",", ".",
+        "The", "London", "NATO", "Kraków", "żółć", "Straße", "naïve", "ﬁne", "Ελλάδα", "Москва"
+    };
+
+    private final SimpleTextNormalizer simpleNormalizer = new SimpleTextNormalizer();
+    private final LuceneTextNormalizer luceneNormalizer = new LuceneTextNormalizer();
+    private final Analyzer luceneAnalyzer = createAnalyzer();
+    private Seq<Seq<String>> sentences;
+
+    @SneakyThrows
+    private Analyzer createAnalyzer() {
+        // char filters chain used by lucene normalizer before it was replaced by direct icu normalization
+        return CustomAnalyzer.builder()
+                .addCharFilter(ICUNormalizer2CharFilterFactory.class, "name", "nfkc_cf", "mode", "compose")
+                .addCharFilter(ICUNormalizer2CharFilterFactory.class, "name", "nfc", "mode", "decompose")
+                .addCharFilter(MappingCharFilterFactory.class, "mapping", "org/babzel/tools/util/fold-to-ascii.txt")
+                .addCharFilter(PatternReplaceCharFilterFactory.class, "pattern", "\\p{InCombiningDiacriticalMarks}", "replacement", "")
+                .withTokenizer(StandardTokenizerFactory.class)
+                .build();
+    }
+
+    @Setup
+    public void setUp() {
+        // the same sentences for every run, every sentence is normalized as a sequence of its tokens
+        var random = new Random(42);
+        sentences = Vector.range(0, SENTENCE_COUNT)
+                .map(i -> Vector.range(0, 5 + random.nextInt(25)).map(j -> WORDS[random.nextInt(WORDS.length)]));
+    }
+
+    @Benchmark
+    public Seq<Seq<String>> simpleBaseline() {
+        return sentences.map(texts -> texts.map(text -> text.toLowerCase(Locale.ENGLISH)));
+    }
+
+    @Benchmark
+    public Seq<Seq<String>> simple() {
+        return sentences.map(texts -> texts.map(text -> simpleNormalizer.normalizeText(text, LANGUAGE)));
+    }
+
+    @Benchmark
+    public Seq<Seq<String>> luceneAnalyzerPerText() {
+        return sentences.map(texts -> texts.map(text -> luceneAnalyzer.normalize("", text).utf8ToString()));
+    }
+
+    @Benchmark
+    public Seq<Seq<String>> luceneAnalyzerBatch() {
+        return sentences.map(texts -> splitTexts(luceneAnalyzer.normalize("", texts.mkString(TEXT_SEPARATOR)).utf8ToString()));
+    }
+
+    @Benchmark
+    public Seq<Seq<String>> lucenePerText() {
+        return sentences.map(texts -> texts.map(text -> luceneNormalizer.normalizeText(text, LANGUAGE)));
+    }
+
+    @Benchmark
+    public Seq<Seq<String>> luceneBatch() {
+        return sentences.map(texts -> splitTexts(luceneNormalizer.normalizeText(texts.mkString(TEXT_SEPARATOR), LANGUAGE)));
+    }
+
+    private Seq<String> splitTexts(String normalizedTexts) {
+        return Vector.of(normalizedTexts.split(TEXT_SEPARATOR, -1));
+    }
+}
@@ -13,47 +13,142 @@
  */
 package org.babzel.tools.util;
 
+import com.ibm.icu.text.Normalizer2;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
 import lombok.SneakyThrows;
-import org.apache.lucene.analysis.Analyzer;
-import org.apache.lucene.analysis.charfilter.MappingCharFilterFactory;
-import org.apache.lucene.analysis.custom.CustomAnalyzer;
-import org.apache.lucene.analysis.icu.ICUNormalizer2CharFilterFactory;
-import org.apache.lucene.analysis.pattern.PatternReplaceCharFilterFactory;
-import org.apache.lucene.analysis.standard.StandardTokenizerFactory;
 import org.springframework.stereotype.Component;
 
 @Component
 public class LuceneTextNormalizer implements TextNormalizer {
-    private final Analyzer analyzer = createAnalyzer();
+    private static final String MAPPING_RESOURCE = "org/babzel/tools/util/fold-to-ascii.txt";
+    private static final Pattern MAPPING_PATTERN = Pattern.compile("\"(.*)\"\\s*=>\\s*\"(.*)\"\\s*$");
+    // buffers which grew over this size are not kept for the next text
+    private static final int MAX_KEPT_BUFFER_SIZE = 64 * 1024;
 
-    @SneakyThrows
-    private Analyzer createAnalyzer() {
-        var builder = CustomAnalyzer.builder();
-        builder = appendCharFilters(builder);
-        builder = appendTokenizer(builder);
-        return builder.build();
-    }
+    // lowercase
+    private final Normalizer2 caseFoldNormalizer = Normalizer2.getInstance(null, "nfkc_cf", Normalizer2.Mode.COMPOSE);
+    // normalize, not perfect, some characters and ligatures are not handled
+    private final Normalizer2 decomposeNormalizer = Normalizer2.getInstance(null, "nfc", Normalizer2.Mode.DECOMPOSE);
+    // normalize remaining characters and ligatures, every mapped character has its replacement at its index
+    private final String[] mappings = readMappings();
+    // every thread uses its own buffers, normalizers and mappings are immutable and shared
+    private final ThreadLocal<NormalizationBuffers> buffers = ThreadLocal.withInitial(NormalizationBuffers::new);
 
     @SneakyThrows
-    private CustomAnalyzer.Builder appendCharFilters(CustomAnalyzer.Builder builder) {
-        return builder
-                // lowercase
-                .addCharFilter(ICUNormalizer2CharFilterFactory.class, "name", "nfkc_cf", "mode", "compose")
-                // normalize, not perfect, some characters and ligatures are not handled
-                .addCharFilter(ICUNormalizer2CharFilterFactory.class, "name", "nfc", "mode", "decompose")
-                // normalize remaining characters and ligatures
-                .addCharFilter(MappingCharFilterFactory.class, "mapping", "org/babzel/tools/util/fold-to-ascii.txt")
-                // strip accents
-                .addCharFilter(PatternReplaceCharFilterFactory.class, "pattern", "\\p{InCombiningDiacriticalMarks}", "replacement", "");
+    private String[] readMappings() {
+        // the same format as mapping files of lucene mapping char filter, every key is a single character
+        var mappings = new String[Character.MAX_VALUE + 1];
+        try (var reader = new BufferedReader(new InputStreamReader(getClass().getClassLoader().getResourceAsStream(MAPPING_RESOURCE), StandardCharsets.UTF_8))) {
+            for (var line = reader.readLine(); line != null; line = reader.readLine()) {
+                var trimmedLine = line.trim();
+                if (trimmedLine.isEmpty() || trimmedLine.startsWith("#")) {
+                    continue;
+                }
+                var matcher = MAPPING_PATTERN.matcher(trimmedLine);
+                if (!matcher.matches()) {
+                    throw new IllegalStateException(String.format("Invalid mapping: '%s'", line));
+                }
+                var key = unescape(matcher.group(1));
+                if (key.length() != 1) {
+                    throw new IllegalStateException(String.format("Mapping key is not a single character: '%s'", line));
+                }
+                mappings[key.charAt(0)] = unescape(matcher.group(2));
+            }
+        }
+        return mappings;
     }
 
-    @SneakyThrows
-    private CustomAnalyzer.Builder appendTokenizer(CustomAnalyzer.Builder builder) {
-        return builder.withTokenizer(StandardTokenizerFactory.class);
+    private String unescape(String str) {
+        var result = new StringBuilder();
+        for (int i = 0; i < str.length(); i++) {
+            var c = str.charAt(i);
+            if (c == '\\' && i + 1 < str.length()) {
+                c = str.charAt(++i);
+                switch (c) {
+                    case 'n':
+                        c = '\n';
+                        break;
+                    case 't':
+                        c = '\t';
+                        break;
+                    case 'r':
+                        c = '\r';
+                        break;
+                    case 'b':
+                        c = '\b';
+                        break;
+                    case 'f':
+                        c = '\f';
+                        break;
+                    case 'u':
+                        c = (char) Integer.parseInt(str, i + 1, i + 5, 16);
+                        i += 4;
+                        break;
+                    default:
+                        // escaped character stands for itself
+                        break;
+                }
+            }
+            result.append(c);
+        }
+        return result.toString();
     }
 
     @Override
     public String normalizeText(String text, String language) {
-        return analyzer.normalize("", text).utf8ToString();
+        var textBuffers = buffers.get();
+        var caseFolded = caseFoldNormalizer.normalize(text, textBuffers.clear(textBuffers.caseFolded));
+        var decomposed = decomposeNormalizer.normalize(caseFolded, textBuffers.clear(textBuffers.decomposed));
+        var result = textBuffers.clear(textBuffers.result);
+        for (int i = 0; i < decomposed.length(); i++) {
+            var c = decomposed.charAt(i);
+            var mapping = mappings[c];
+            if (mapping == null) {
+                appendStripped(result, c);
+            } else {
+                for (int j = 0; j < mapping.length(); j++) {
+                    appendStripped(result, mapping.charAt(j));
+                }
+            }
+        }
+        return toValidUnicode(result);
+    }
+
+    private void appendStripped(StringBuilder result, char c) {
+        // strip accents, combining diacritical marks block
+        if (c < '\u0300' || c > '\u036f') {
+            result.append(c);
+        }
+    }
+
+    private String toValidUnicode(StringBuilder result) {
+        // unpaired surrogates are replaced, the same as by utf-8 encoding of normalized terms
+        for (int i = 0; i < result.length(); i++) {
+            var c = result.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < result.length() && Character.isLowSurrogate(result.charAt(i + 1))) {
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                result.setCharAt(i, '\ufffd');
+            }
+        }
+        return result.toString();
+    }
+
+    private static class NormalizationBuffers {
+        private final StringBuilder caseFolded = new StringBuilder();
+        private final StringBuilder decomposed = new StringBuilder();
+        private final StringBuilder result = new StringBuilder();
+
+        public StringBuilder clear(StringBuilder buffer) {
+            if (buffer.capacity() > MAX_KEPT_BUFFER_SIZE) {
+                buffer.setLength(0);
+                buffer.trimToSize();
+            }
+            buffer.setLength(0);
+            return buffer;
+        }
     }
 }
@@ -13,7 +13,16 @@
  */
 package org.babzel.tools.util;
 
+import io.vavr.collection.Vector;
+import java.util.Random;
+import java.util.function.Supplier;
 import static org.assertj.core.api.Assertions.assertThat;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.charfilter.MappingCharFilterFactory;
+import org.apache.lucene.analysis.custom.CustomAnalyzer;
+import org.apache.lucene.analysis.icu.ICUNormalizer2CharFilterFactory;
+import org.apache.lucene.analysis.pattern.PatternReplaceCharFilterFactory;
+import org.apache.lucene.analysis.standard.StandardTokenizerFactory;
 import org.junit.jupiter.api.Test;
 
 public class LuceneTextNormalizerTest {
@@ -23,4 +32,56 @@ public class LuceneTextNormalizerTest {
     public void normalizeText() {
         assertThat(normalizer.normalizeText("x-Æ-Ꜵ-ąęŁł-ÄØÖ", "lx")).isEqualTo("x-ae-ao-aell-aoo");
     }
+
+    @Test
+    public void normalizeText_SameAsAnalyzerChain() throws Exception {
+        // reference implementation, the char filter chain of lucene analyzer
+        var analyzer = createReferenceAnalyzer();
+        var texts = Vector.<String>empty();
+        // every single code point
+        for (int codePoint = 0; codePoint <= 0x1ffff; codePoint++) {
+            texts = texts.append(new String(Character.toChars(codePoint)));
+        }
+        // combining marks in different contexts
+        for (char c = 'A'; c <= 'z'; c++) {
+            texts = texts.append(c + "́").append(c + "̈́").append("́" + c).append(c + "̧́" + c);
+        }
+        // random mixture of scripts, ligatures, marks and unpaired surrogates
+        var random = new Random(1234);
+        var alphabet = "aZ09 -.ÆꜴąęŁłÄØÖßẞİıΣσςﬁﬂǄǅǆ½²№ℌ़́̈ͅकำｱｶﾞ가各𐀀𐐨𐏿";
+        for (int i = 0; i < 10000; i++) {
+            var text = new StringBuilder();
+            for (int j = random.nextInt(20); j >= 0; j--) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            texts = texts.append(text.toString());
+        }
+
+        for (var text : texts) {
+            assertThat(normalizer.normalizeText(text, "lx"))
+                    .as("text: '%s'", text)
+                    .isEqualTo(analyzer.normalize("", text).utf8ToString());
+        }
+    }
+
+    @Test
+    public void normalizeText_Concurrently() {
+        var texts = Vector.range(0, 2000).map(i -> String.format("Wörd-%d-ĄĘ-Æ-%s", i, "x".repeat(i % 50)));
+        var expected = texts.map(text -> normalizer.normalizeText(text, "lx"));
+        var executor = new ParallelExecutor(() -> 4);
+
+        var results = executor.executeAll(Vector.<Supplier<Boolean>>fill(8, () -> () -> texts.map(text -> normalizer.normalizeText(text, "lx")).equals(expected)));
+
+        assertThat(results).containsOnly(true);
+    }
+
+    private Analyzer createReferenceAnalyzer() throws Exception {
+        return CustomAnalyzer.builder()
+                .addCharFilter(ICUNormalizer2CharFilterFactory.class, "name", "nfkc_cf", "mode", "compose")
+                .addCharFilter(ICUNormalizer2CharFilterFactory.class, "name", "nfc", "mode", "decompose")
+                .addCharFilter(MappingCharFilterFactory.class, "mapping", "org/babzel/tools/util/fold-to-ascii.txt")
+                .addCharFilter(PatternReplaceCharFilterFactory.class, "pattern", "\\p{InCombiningDiacriticalMarks}", "replacement", "")
+                .withTokenizer(StandardTokenizerFactory.class)
+                .build();
+    }
 }
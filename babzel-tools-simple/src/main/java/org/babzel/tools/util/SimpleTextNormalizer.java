@@ -20,6 +20,7 @@ import org.springframework.stereotype.Component;
 public class SimpleTextNormalizer implements TextNormalizer {
     @Override
     public String normalizeText(String text, String language) {
+        // unchanged latin-1 texts are returned as they are by the jdk, without a copy
         return text.toLowerCase(Locale.ENGLISH);
     }
 }
@@ -13,6 +13,8 @@
  */
 package org.babzel.tools.util;
 
+import io.vavr.collection.Vector;
+import java.util.Locale;
 import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.Test;
 
@@ -23,4 +25,14 @@ public class SimpleTextNormalizerTest {
     public void normalizeText() {
         assertThat(normalizer.normalizeText("x-Æ-Ꜵ-ąęŁł-ÄØÖ", "lx")).isEqualTo("x-æ-ꜵ-ąęłł-äøö");
     }
+
+    @Test
+    public void normalizeText_SameAsLowerCase() {
+        var texts = Vector.of("", "a", "Z", "@[`{", "lower case text.", "Mixed Case Text", "UPPER-CASE 123",
+                "İstanbul", "ΟΔΟΣ ΟΔΟΣ.", "Straße", "x-Æ-Ꜵ-ąęŁł-ÄØÖ", "ASCII then Ąccent", "\u0130", "A\u0307", "𐐀𐐨");
+
+        for (var text : texts) {
+            assertThat(normalizer.normalizeText(text, "lx")).isEqualTo(text.toLowerCase(Locale.ENGLISH));
+        }
+    }
 }
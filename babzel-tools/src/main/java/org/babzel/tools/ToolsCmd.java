@@ -13,10 +13,16 @@
  */
 package org.babzel.tools;
 
+import io.vavr.collection.HashMap;
+import io.vavr.collection.Map;
+import io.vavr.collection.Seq;
+import io.vavr.collection.Vector;
 import io.vavr.control.Option;
+import io.vavr.control.Try;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.nio.file.Files;
+import java.util.regex.Pattern;
 import lombok.SneakyThrows;
 import opennlp.tools.lemmatizer.Lemmatizer;
 import opennlp.tools.lemmatizer.LemmatizerME;
@@ -30,6 +36,7 @@ import opennlp.tools.sentdetect.SentenceModel;
 import opennlp.tools.tokenize.Tokenizer;
 import opennlp.tools.tokenize.TokenizerME;
 import opennlp.tools.tokenize.TokenizerModel;
+import org.babzel.tools.opennlp.model.ModelType;
 import org.babzel.tools.opennlp.model.util.ModelPersister;
 import org.babzel.tools.opennlp.unidep.UniDepConlluModelProcessor;
 import org.babzel.tools.opennlp.unidep.util.UniDepConlluModelFileSupplier;
@@ -39,15 +46,32 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 
 public class ToolsCmd {
+    private static final Map<String, String> OPTION_PROPERTIES = HashMap.of(
+            "--threads", ToolsConfig.TRAINING_THREADS_PROPERTY,
+            "--task-memory", ToolsConfig.TRAINING_TASK_MEMORY_PROPERTY,
+            "--normalizer-cache-size", ToolsConfig.NORMALIZER_CACHE_SIZE_PROPERTY,
+            "--conversion-threads", ToolsConfig.CONVERSION_THREADS_PROPERTY,
+            "--sample-memory", ToolsConfig.SAMPLE_MEMORY_PROPERTY);
+    private static final String TRAINING_PROFILE_OPTION = "--training-profile";
+    private static final Pattern TRAINING_PARAMETER_OPTION_PATTERN = Pattern.compile(String.format("--((%s)\\.[A-Z_]+\\.[A-Za-z]+)",
+            Vector.of(ModelType.SENTENCE, ModelType.TOKENIZER, ModelType.POS, ModelType.LEMMATIZER).mkString("|")));
+
     public static void main(String[] args) {
+        var allArgs = args != null ? Vector.of(args) : Vector.<String>empty();
+        var options = allArgs.filter(arg -> arg.startsWith("--"));
+        var positionalArgs = allArgs.filter(arg -> !arg.startsWith("--"));
+        // options are applied before the context is created, some beans read them when they are created
+        var optionsApplied = applyOptions(options);
         try ( var ctx = new AnnotationConfigApplicationContext(ToolsConfig.class)) {
-            if (args != null && (args.length == 2 || args.length == 3)) {
-                var cmd = args[0];
-                var language = args[1];
-                var workDir = args.length == 3 ? args[2] : "";
+            if ((positionalArgs.size() == 2 || positionalArgs.size() == 3) && optionsApplied) {
+                var cmd = positionalArgs.get(0);
+                var language = positionalArgs.get(1);
+                var workDir = positionalArgs.size() == 3 ? positionalArgs.get(2) : "";
                 System.setProperty(ToolsConfig.WORK_DIRECTORY_PROPERTY, workDir);
                 if ("train".equals(cmd)) {
                     trainModels(ctx, language);
+                } else if ("train-all".equals(cmd)) {
+                    trainAllModels(ctx, language);
                 } else if ("verify".equals(cmd)) {
                     verifyModels(ctx, language);
                 } else {
@@ -59,15 +83,72 @@ public class ToolsCmd {
         }
     }
 
+    private static boolean applyOptions(Seq<String> options) {
+        // options are passed as system properties
+        for (var option : options) {
+            var keyValue = option.split("=", 2);
+            var propertyOpt = getOptionProperty(keyValue);
+            if (propertyOpt.isEmpty()) {
+                System.out.println(String.format("Invalid option: '%s'", option));
+                return false;
+            }
+            System.setProperty(propertyOpt.get(), keyValue[1]);
+        }
+        return true;
+    }
+
+    private static Option<String> getOptionProperty(String[] keyValue) {
+        if (keyValue.length != 2) {
+            return Option.none();
+        }
+        if (TRAINING_PROFILE_OPTION.equals(keyValue[0])) {
+            return !keyValue[1].isEmpty() ? Option.some(ToolsConfig.TRAINING_PROFILE_PROPERTY) : Option.none();
+        }
+        // training parameters are passed as profile entries: --<model-type>.<algorithm>.<parameter>=<number>
+        var profileMatcher = TRAINING_PARAMETER_OPTION_PATTERN.matcher(keyValue[0]);
+        if (profileMatcher.matches()) {
+            return isNonNegativeNumber(keyValue[1]) ? Option.some(ToolsConfig.TRAINING_PROFILE_PROPERTY + "." + profileMatcher.group(1)) : Option.none();
+        }
+        return OPTION_PROPERTIES.get(keyValue[0]).filter(property -> isPositiveNumber(keyValue[1]));
+    }
+
+    private static boolean isPositiveNumber(String value) {
+        return Try.of(() -> Integer.parseInt(value)).filter(number -> number > 0).isSuccess();
+    }
+
+    private static boolean isNonNegativeNumber(String value) {
+        return Try.of(() -> Integer.parseInt(value)).filter(number -> number >= 0).isSuccess();
+    }
+
     private static void printHelp(ApplicationContext ctx) {
         var rootDir = ctx.getBean(RootDirectorySupplier.class).getRootDirectory();
-        System.out.println("Usage: <command> <two-letter-language-code> [<work-directory>]");
+        System.out.println("Usage: [<options>] <command> <two-letter-language-code> [<work-directory>]");
         System.out.println("  <command> can be one of:");
         System.out.println("    train - train language models");
+        System.out.println("    train-all - train models of several languages, language codes are separated by comma");
         System.out.println("    verify - interactive verification of trained models");
         System.out.println("  <two-letter-language-code> - in example 'en', 'es', 'zh' etc");
         System.out.println("  <work-directory> - root of directory where models will be generated");
         System.out.println("    default value: " + rootDir);
+        System.out.println("  <options> can be:");
+        System.out.println("    --threads=<number> - maximum number of models trained at the same time");
+        System.out.println("      default value: " + Runtime.getRuntime().availableProcessors());
+        System.out.println("    --task-memory=<megabytes> - memory reserved for training of a single model");
+        System.out.println("      concurrent training is limited to fit into maximum heap size");
+        System.out.println("      default value: " + ToolsConfig.DEFAULT_TRAINING_TASK_MEMORY);
+        System.out.println("    --normalizer-cache-size=<number> - maximum number of normalized words kept in memory");
+        System.out.println("      default value: " + ToolsConfig.DEFAULT_NORMALIZER_CACHE_SIZE);
+        System.out.println("    --conversion-threads=<number> - number of threads converting sentences to training samples");
+        System.out.println("      value 1 converts sentences sequentially, samples are in the same order regardless of this value");
+        System.out.println("      default value: " + Runtime.getRuntime().availableProcessors());
+        System.out.println("    --sample-memory=<megabytes> - memory for compressed training samples of a single model");
+        System.out.println("      samples exceeding it are spilled to a temporary file next to the model");
+        System.out.println("      default value: " + ToolsConfig.DEFAULT_SAMPLE_MEMORY);
+        System.out.println("    --training-profile=<file> - properties file with training parameters of model types and algorithms");
+        System.out.println("      keys are <model-type>.<algorithm>.<parameter>, in example: tokenizer.MAXENT_QN.Threads=16");
+        System.out.println("      model types: sentence, tokenizer, pos, lemmatizer; parameters: Threads, Iterations, Cutoff");
+        System.out.println("    --<model-type>.<algorithm>.<parameter>=<number> - training parameter overriding the profile file");
+        System.out.println("      default values: Threads=<processors>/<threads>, Iterations=100, Cutoff=5");
     }
 
     private static void trainModels(ApplicationContext ctx, String language) {
@@ -75,6 +156,14 @@ public class ToolsCmd {
         processor.processUniDepConlluModel(language);
     }
 
+    private static void trainAllModels(ApplicationContext ctx, String languages) {
+        var processor = ctx.getBean(UniDepConlluModelProcessor.class);
+        var failedLanguages = processor.processUniDepConlluModels(Vector.of(languages.split(",")).map(String::trim).filter(language -> !language.isEmpty()).distinct());
+        if (!failedLanguages.isEmpty()) {
+            throw new IllegalStateException(String.format("Training failed for languages: %s", failedLanguages.mkString(", ")));
+        }
+    }
+
     @SneakyThrows
     private static void verifyModels(ApplicationContext ctx, String language) {
         var textNormalizer = ctx.getBean(TextNormalizer.class);
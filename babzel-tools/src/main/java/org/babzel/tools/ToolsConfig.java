@@ -13,18 +13,39 @@
  */
 package org.babzel.tools;
 
+import io.vavr.Lazy;
 import io.vavr.collection.HashMap;
+import io.vavr.collection.Map;
+import io.vavr.collection.Vector;
 import io.vavr.control.Option;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
 import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Properties;
 import lombok.SneakyThrows;
+import org.babzel.tools.opennlp.model.train.TrainingProfileSupplier;
+import org.babzel.tools.opennlp.model.util.SampleMemorySupplier;
+import org.babzel.tools.util.CachingTextNormalizer;
+import org.babzel.tools.util.ConversionParallelismSupplier;
+import org.babzel.tools.util.LanguageParallelismSupplier;
+import org.babzel.tools.util.ParallelismSupplier;
 import org.babzel.tools.util.RootDirectorySupplier;
+import org.babzel.tools.util.TextNormalizer;
 import org.babzel.tools.util.WebClient;
 import org.babzel.tools.util.WebResponse;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
@@ -33,6 +54,15 @@ import org.springframework.context.annotation.Configuration;
 @ComponentScan(basePackageClasses = ToolsConfig.class)
 public class ToolsConfig {
     public static final String WORK_DIRECTORY_PROPERTY = "work.directory";
+    public static final String TRAINING_THREADS_PROPERTY = "training.threads";
+    public static final String TRAINING_TASK_MEMORY_PROPERTY = "training.task.memory";
+    public static final long DEFAULT_TRAINING_TASK_MEMORY = 2048;
+    public static final String NORMALIZER_CACHE_SIZE_PROPERTY = "normalizer.cache.size";
+    public static final int DEFAULT_NORMALIZER_CACHE_SIZE = 200000;
+    public static final String CONVERSION_THREADS_PROPERTY = "conversion.threads";
+    public static final String SAMPLE_MEMORY_PROPERTY = "sample.memory";
+    public static final long DEFAULT_SAMPLE_MEMORY = 512;
+    public static final String TRAINING_PROFILE_PROPERTY = "training.profile";
 
     @Bean
     public WebClient webClient() {
@@ -49,6 +79,53 @@ public class ToolsConfig {
                 return new WebResponse(response.request().uri().toURL(), HashMap.ofAll(response.headers().map()).mapValues(vl -> vl.get(0)), Option.some(response.body()));
             }
 
+            @Override
+            @SneakyThrows
+            public WebResponse makeGetRequest(URL url, long rangeStart, Path outputPath) {
+                var requestBuilder = HttpRequest.newBuilder().GET().uri(url.toURI());
+                if (rangeStart > 0 && Files.exists(outputPath)) {
+                    // partial content is sent only if the resource has not been modified since it was partially downloaded
+                    // last modified time of the output path is the last modified time of the resource
+                    var outputLastModified = Files.getLastModifiedTime(outputPath).toInstant().atZone(ZoneOffset.UTC);
+                    requestBuilder
+                            .header("Range", String.format("bytes=%d-", rangeStart))
+                            .header("If-Range", DateTimeFormatter.RFC_1123_DATE_TIME.format(outputLastModified));
+                }
+                var response = httpClient.send(requestBuilder.build(), HttpResponse.BodyHandlers.ofInputStream());
+                var headers = HashMap.ofAll(response.headers().map()).mapValues(vl -> vl.get(0));
+                var partialContent = response.statusCode() == 206;
+                try (var in = response.body()) {
+                    if (response.statusCode() == 416 && rangeStart > 0) {
+                        // range does not match the resource anymore, download it from the beginning
+                        return makeGetRequest(url, 0, outputPath);
+                    }
+                    if (response.statusCode() != 200 && !partialContent) {
+                        throw new IOException(String.format("Cannot download '%s', status: %d", url, response.statusCode()));
+                    }
+                    if (partialContent && !headers.get("content-range").exists(range -> range.startsWith(String.format("bytes %d-", rangeStart)))) {
+                        throw new IOException(String.format("Cannot download '%s', unexpected range: %s", url, headers.get("content-range").getOrElse("")));
+                    }
+                    writeBody(in, outputPath, partialContent, headers.get("last-modified"));
+                }
+                return new WebResponse(response.request().uri().toURL(), headers, Option.none());
+            }
+
+            @SneakyThrows
+            private void writeBody(InputStream in, Path outputPath, boolean append, Option<String> lastModifiedHeader) {
+                try (var out = Files.newOutputStream(outputPath,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE,
+                        append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING)) {
+                    in.transferTo(out);
+                } finally {
+                    // keep last modified time of the resource also for interrupted downloads, so they can be resumed
+                    for (var lastModified : lastModifiedHeader) {
+                        var lastModifiedMillis = ZonedDateTime.parse(lastModified, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+                        Files.setLastModifiedTime(outputPath, FileTime.fromMillis(lastModifiedMillis));
+                    }
+                }
+            }
+
             @Override
             @SneakyThrows
             public WebResponse makeHeadRequest(URL url) {
@@ -69,4 +146,80 @@ public class ToolsConfig {
             return rootDirectory.toAbsolutePath().normalize();
         };
     }
+
+    @Bean
+    public ParallelismSupplier parallelismSupplier() {
+        return () -> {
+            // number of concurrent training tasks, limited by threads and by memory available for every task
+            var threads = Integer.getInteger(TRAINING_THREADS_PROPERTY, Runtime.getRuntime().availableProcessors());
+            var taskMemoryMegabytes = Long.getLong(TRAINING_TASK_MEMORY_PROPERTY, DEFAULT_TRAINING_TASK_MEMORY);
+            var memoryPermits = Runtime.getRuntime().maxMemory() / (Math.max(1, taskMemoryMegabytes) * 1024 * 1024);
+            return (int) Math.max(1, Math.min(threads, memoryPermits));
+        };
+    }
+
+    @Bean
+    public LanguageParallelismSupplier languageParallelismSupplier() {
+        return corpusSize -> {
+            // number of languages trained at the same time, every language keeps its corpus and samples of its four models
+            // in memory while at least one of its models is trained, conllu file size is an upper estimate of the corpus
+            var taskMemoryMegabytes = Long.getLong(TRAINING_TASK_MEMORY_PROPERTY, DEFAULT_TRAINING_TASK_MEMORY);
+            var languageMemory = Math.max(1, taskMemoryMegabytes) * 1024 * 1024 + corpusSize + 4 * sampleMemorySupplier().getSampleMemory();
+            var memoryLanguages = Runtime.getRuntime().maxMemory() / Math.max(1, languageMemory);
+            return (int) Math.max(1, Math.min(parallelismSupplier().getParallelism(), memoryLanguages));
+        };
+    }
+
+    @Bean
+    public ConversionParallelismSupplier conversionParallelismSupplier() {
+        // number of threads converting sentences to samples, single thread converts them sequentially
+        return () -> Integer.getInteger(CONVERSION_THREADS_PROPERTY, Runtime.getRuntime().availableProcessors());
+    }
+
+    @Bean
+    public SampleMemorySupplier sampleMemorySupplier() {
+        // compressed samples above this size are spilled to a file next to the model
+        return () -> Long.getLong(SAMPLE_MEMORY_PROPERTY, DEFAULT_SAMPLE_MEMORY) * 1024 * 1024;
+    }
+
+    @Bean
+    public TrainingProfileSupplier trainingProfileSupplier() {
+        // profile file is read once, its entries are overridden by system properties prefixed with the profile property name
+        var profile = Lazy.of(() -> {
+            var fileProfile = readTrainingProfile(System.getProperty(TRAINING_PROFILE_PROPERTY, ""));
+            var prefix = TRAINING_PROFILE_PROPERTY + ".";
+            var propertyProfile = Vector.ofAll(System.getProperties().stringPropertyNames())
+                    .filter(name -> name.startsWith(prefix))
+                    .toMap(name -> name.substring(prefix.length()), System::getProperty);
+            return fileProfile.merge(propertyProfile, (fileValue, propertyValue) -> propertyValue);
+        });
+        return profile::get;
+    }
+
+    @SneakyThrows
+    private static Map<String, String> readTrainingProfile(String profileFileName) {
+        if (profileFileName.isEmpty()) {
+            return HashMap.empty();
+        }
+        var properties = new Properties();
+        try (var reader = Files.newBufferedReader(Path.of(profileFileName), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return Vector.ofAll(properties.stringPropertyNames()).toMap(name -> name, properties::getProperty);
+    }
+
+    @Bean
+    public static BeanPostProcessor textNormalizerCachePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // every text normalizer is wrapped by a bounded cache, the same words are normalized over and over
+                if (bean instanceof TextNormalizer && !(bean instanceof CachingTextNormalizer)) {
+                    var cacheSize = Integer.getInteger(NORMALIZER_CACHE_SIZE_PROPERTY, DEFAULT_NORMALIZER_CACHE_SIZE);
+                    return new CachingTextNormalizer((TextNormalizer) bean, cacheSize);
+                }
+                return bean;
+            }
+        };
+    }
 }
@@ -17,8 +17,9 @@ import lombok.NonNull;
 import opennlp.tools.lemmatizer.LemmaSample;
 import opennlp.tools.lemmatizer.LemmatizerModel;
 import org.babzel.tools.opennlp.conllu.convert.ConlluLemmaSamplesConverter;
-import org.babzel.tools.opennlp.conllu.parser.ConlluSentencesFactory;
 import org.babzel.tools.opennlp.model.LemmatizerModelProcessor;
+import org.babzel.tools.opennlp.model.util.SampleStoreFactory;
+import org.babzel.tools.util.FileDigester;
 import org.babzel.tools.util.FileUpToDateChecker;
 import org.springframework.stereotype.Component;
 
@@ -26,9 +27,10 @@ import org.springframework.stereotype.Component;
 public class ConlluLemmatizerModelProcessor extends ConlluModelProcessor<LemmatizerModel, LemmaSample> {
     public ConlluLemmatizerModelProcessor(
             @NonNull FileUpToDateChecker checker,
-            @NonNull ConlluSentencesFactory sentencesFactory,
             @NonNull ConlluLemmaSamplesConverter converter,
-            @NonNull LemmatizerModelProcessor modelProcessor) {
-        super(checker, sentencesFactory, converter, modelProcessor);
+            @NonNull LemmatizerModelProcessor modelProcessor,
+            @NonNull FileDigester digester,
+            @NonNull SampleStoreFactory storeFactory) {
+        super(checker, converter, modelProcessor, digester, storeFactory);
     }
 }
@@ -13,7 +13,9 @@
  */
 package org.babzel.tools.opennlp.conllu;
 
+import io.vavr.Lazy;
 import io.vavr.collection.Seq;
+import io.vavr.collection.Vector;
 import java.io.Serializable;
 import java.nio.file.Path;
 import lombok.NonNull;
@@ -21,8 +23,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.apachecommons.CommonsLog;
 import opennlp.tools.util.model.BaseModel;
 import org.babzel.tools.opennlp.conllu.convert.ConlluSamplesConverter;
-import org.babzel.tools.opennlp.conllu.parser.ConlluSentencesFactory;
+import org.babzel.tools.opennlp.conllu.corpus.ConlluCorpus;
+import org.babzel.tools.opennlp.conllu.util.ConlluRejectionStatistics;
 import org.babzel.tools.opennlp.model.ModelProcessor;
+import org.babzel.tools.opennlp.model.util.SampleStoreFactory;
+import org.babzel.tools.util.FileDigester;
 import org.babzel.tools.util.FileUpToDateChecker;
 
 @RequiredArgsConstructor
@@ -31,30 +36,63 @@ public class ConlluModelProcessor<M extends BaseModel, S extends Serializable> {
     @NonNull
     private final FileUpToDateChecker checker;
     @NonNull
-    private final ConlluSentencesFactory sentencesFactory;
-    @NonNull
     private final ConlluSamplesConverter<S> converter;
     @NonNull
     private final ModelProcessor<M, S> modelProcessor;
+    @NonNull
+    private final FileDigester digester;
+    @NonNull
+    private final SampleStoreFactory storeFactory;
 
     public void processConlluModel(
             @NonNull Path conlluPath,
+            @NonNull Lazy<ConlluCorpus> corpus,
+            @NonNull Lazy<String> corpusDigest,
             @NonNull Seq<String> algorithms,
             @NonNull String language,
             @NonNull Path modelPath,
             @NonNull Path reportPath) {
-        if (!checker.isUpToDate(modelPath, conlluPath) || !checker.isUpToDate(reportPath, conlluPath)) {
+        // model is retrained only when some input changed: conllu content, normalization, transformers, algorithms or training parameters
+        var inputDigest = digester.digestStrings(Vector.of(corpusDigest.get(), converter.getClass().getName())
+                .appendAll(modelProcessor.getProcessingInputs(algorithms, language)));
+        if (!checker.isUpToDate(modelPath, inputDigest) || !checker.isUpToDate(reportPath, inputDigest)) {
             log.info(String.format("Processing model, language: '%s', conllu file: '%s'", language, conlluPath));
-            var sentences = sentencesFactory.createSentences(conlluPath, language);
-            var totalSentenceCount = sentences.size();
-            var samples = converter.convert(sentences, language);
-            var correctSentenceCount = samples.size();
-            log.info(String.format("Sentences total: %d, correct: %d, correct percent: %.02f%%", totalSentenceCount, correctSentenceCount, 100.0 * correctSentenceCount / totalSentenceCount));
-            modelProcessor.processModel(samples, algorithms, language, modelPath, reportPath);
+            // corpus is read only when some model has to be processed
+            // sentences rejected by transformers are not part of the corpus, they are counted as rejected
+            var rejections = corpus.get().getTransformerRejections();
+            var totalSentenceCount = corpus.get().size() + rejections.getRejectedCount();
+            // samples are converted once, they are written to a store while they are converted
+            // store keeps them in memory within a budget and spills bigger ones to a file which is read on every pass
+            try (var samples = storeFactory.createStore(converter.convertLazily(corpus.get().iterator(), language, rejections), getSpillPath(modelPath))) {
+                log.info(String.format("Samples: %d, %s", samples.size(), samples.isSpilled() ? "spilled to file" : String.format("kept in memory: %d bytes", samples.getMemorySize())));
+                var correctSentenceCount = totalSentenceCount - rejections.getRejectedCount();
+                log.info(String.format("Sentences total: %d, correct: %d, correct percent: %.02f%%", totalSentenceCount, correctSentenceCount, 100.0 * correctSentenceCount / totalSentenceCount));
+                rejections.getRejectionCounts().forEach((rule, count) -> log.info(String.format("Sentences rejected by %s: %d", rule, count)));
+                var rejectionDetails = getRejectionDetails(totalSentenceCount, correctSentenceCount, rejections);
+                if (modelProcessor.processModel(samples, rejectionDetails, algorithms, language, modelPath, reportPath)) {
+                    checker.markUpToDate(modelPath, inputDigest);
+                    checker.markUpToDate(reportPath, inputDigest);
+                } else {
+                    // model of former inputs is not kept, it would be published as a model of current inputs
+                    checker.deleteOutput(modelPath);
+                    checker.deleteOutput(reportPath);
+                }
+            }
         } else {
             log.info(String.format("Skip processing model, language: '%s', conllu file: '%s'", language, conlluPath));
             log.info(String.format("Model file: '%s' is up to date", modelPath));
             log.info(String.format("Evaluation report file: '%s' is up to date", reportPath));
         }
     }
+
+    private Path getSpillPath(Path modelPath) {
+        return modelPath.resolveSibling(modelPath.getFileName() + ".samples.part");
+    }
+
+    private String getRejectionDetails(int totalSentenceCount, int correctSentenceCount, ConlluRejectionStatistics rejections) {
+        var counts = Vector.of(String.format("Sentences-Total=%d", totalSentenceCount), String.format("Sentences-Correct=%d", correctSentenceCount))
+                .appendAll(rejections.getRejectionCounts().map(count -> String.format("Rejected-By-%s=%d", count._1, count._2)));
+        var samples = rejections.getRejectionSamples().flatMap(ruleSamples -> ruleSamples._2.map(text -> String.format("%s: %s", ruleSamples._1, text)));
+        return counts.append("").appendAll(samples).mkString("\n");
+    }
 }
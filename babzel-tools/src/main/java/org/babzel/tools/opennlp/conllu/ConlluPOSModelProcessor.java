@@ -17,8 +17,9 @@ import lombok.NonNull;
 import opennlp.tools.postag.POSModel;
 import opennlp.tools.postag.POSSample;
 import org.babzel.tools.opennlp.conllu.convert.ConlluPOSSamplesConverter;
-import org.babzel.tools.opennlp.conllu.parser.ConlluSentencesFactory;
 import org.babzel.tools.opennlp.model.POSModelProcessor;
+import org.babzel.tools.opennlp.model.util.SampleStoreFactory;
+import org.babzel.tools.util.FileDigester;
 import org.babzel.tools.util.FileUpToDateChecker;
 import org.springframework.stereotype.Component;
 
@@ -26,9 +27,10 @@ import org.springframework.stereotype.Component;
 public class ConlluPOSModelProcessor extends ConlluModelProcessor<POSModel, POSSample> {
     public ConlluPOSModelProcessor(
             @NonNull FileUpToDateChecker checker,
-            @NonNull ConlluSentencesFactory sentencesFactory,
             @NonNull ConlluPOSSamplesConverter converter,
-            @NonNull POSModelProcessor modelProcessor) {
-        super(checker, sentencesFactory, converter, modelProcessor);
+            @NonNull POSModelProcessor modelProcessor,
+            @NonNull FileDigester digester,
+            @NonNull SampleStoreFactory storeFactory) {
+        super(checker, converter, modelProcessor, digester, storeFactory);
     }
 }
@@ -13,6 +13,9 @@
  */
 package org.babzel.tools.opennlp.conllu;
 
+import java.util.HashSet;
+import java.util.Set;
+
 public enum ConlluPOSTag {
     // open class words
     ADJ, // adjective,
@@ -33,5 +36,17 @@ public enum ConlluPOSTag {
     // other
     PUNCT, // punctuation
     SYM, // symbol
-    X // other
+    X; // other
+
+    private static final Set<String> POS_TAG_NAMES = new HashSet<>();
+
+    static {
+        for (var posTag : values()) {
+            POS_TAG_NAMES.add(posTag.name());
+        }
+    }
+
+    public static boolean isPOSTag(String name) {
+        return POS_TAG_NAMES.contains(name);
+    }
 }
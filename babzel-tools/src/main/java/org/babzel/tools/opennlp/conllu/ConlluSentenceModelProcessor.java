@@ -17,8 +17,9 @@ import lombok.NonNull;
 import opennlp.tools.sentdetect.SentenceModel;
 import opennlp.tools.sentdetect.SentenceSample;
 import org.babzel.tools.opennlp.conllu.convert.ConlluSentenceSamplesConverter;
-import org.babzel.tools.opennlp.conllu.parser.ConlluSentencesFactory;
 import org.babzel.tools.opennlp.model.SentenceModelProcessor;
+import org.babzel.tools.opennlp.model.util.SampleStoreFactory;
+import org.babzel.tools.util.FileDigester;
 import org.babzel.tools.util.FileUpToDateChecker;
 import org.springframework.stereotype.Component;
 
@@ -26,9 +27,10 @@ import org.springframework.stereotype.Component;
 public class ConlluSentenceModelProcessor extends ConlluModelProcessor<SentenceModel, SentenceSample> {
     public ConlluSentenceModelProcessor(
             @NonNull FileUpToDateChecker checker,
-            @NonNull ConlluSentencesFactory sentencesFactory,
             @NonNull ConlluSentenceSamplesConverter converter,
-            @NonNull SentenceModelProcessor modelProcessor) {
-        super(checker, sentencesFactory, converter, modelProcessor);
+            @NonNull SentenceModelProcessor modelProcessor,
+            @NonNull FileDigester digester,
+            @NonNull SampleStoreFactory storeFactory) {
+        super(checker, converter, modelProcessor, digester, storeFactory);
     }
 }
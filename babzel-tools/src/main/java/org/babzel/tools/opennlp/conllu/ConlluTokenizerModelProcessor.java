@@ -17,8 +17,9 @@ import lombok.NonNull;
 import opennlp.tools.tokenize.TokenSample;
 import opennlp.tools.tokenize.TokenizerModel;
 import org.babzel.tools.opennlp.conllu.convert.ConlluTokenSamplesConverter;
-import org.babzel.tools.opennlp.conllu.parser.ConlluSentencesFactory;
 import org.babzel.tools.opennlp.model.TokenizerModelProcessor;
+import org.babzel.tools.opennlp.model.util.SampleStoreFactory;
+import org.babzel.tools.util.FileDigester;
 import org.babzel.tools.util.FileUpToDateChecker;
 import org.springframework.stereotype.Component;
 
@@ -26,9 +27,10 @@ import org.springframework.stereotype.Component;
 public class ConlluTokenizerModelProcessor extends ConlluModelProcessor<TokenizerModel, TokenSample> {
     public ConlluTokenizerModelProcessor(
             @NonNull FileUpToDateChecker checker,
-            @NonNull ConlluSentencesFactory sentencesFactory,
             @NonNull ConlluTokenSamplesConverter converter,
-            @NonNull TokenizerModelProcessor modelProcessor) {
-        super(checker, sentencesFactory, converter, modelProcessor);
+            @NonNull TokenizerModelProcessor modelProcessor,
+            @NonNull FileDigester digester,
+            @NonNull SampleStoreFactory storeFactory) {
+        super(checker, converter, modelProcessor, digester, storeFactory);
     }
 }
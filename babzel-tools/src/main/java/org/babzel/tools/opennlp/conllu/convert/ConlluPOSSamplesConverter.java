@@ -15,31 +15,30 @@ package org.babzel.tools.opennlp.conllu.convert;
 
 import io.vavr.Tuple;
 import io.vavr.Tuple2;
+import io.vavr.collection.Iterator;
 import io.vavr.collection.Seq;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import opennlp.tools.postag.POSSample;
 import org.babzel.tools.opennlp.conllu.parser.ConlluSentence;
 import org.babzel.tools.opennlp.conllu.parser.ConlluWordLine;
-import org.babzel.tools.opennlp.conllu.util.ConlluNormalizer;
+import org.babzel.tools.opennlp.conllu.util.ConlluRejectionStatistics;
 import org.babzel.tools.opennlp.conllu.util.ConlluValidator;
+import org.babzel.tools.util.ParallelMapper;
 import org.springframework.stereotype.Component;
 
 @Component
 @RequiredArgsConstructor
 public class ConlluPOSSamplesConverter implements ConlluSamplesConverter<POSSample> {
-    @NonNull
-    private final ConlluNormalizer normalizer;
     @NonNull
     private final ConlluValidator validator;
+    @NonNull
+    private final ParallelMapper mapper;
 
     @Override
-    public Seq<POSSample> convert(@NonNull Seq<ConlluSentence> sentences, @NonNull String language) {
-        return sentences
-                .map(sentence -> normalizer.normalizeSentence(sentence, language))
-                .filter(validator::isValidForLemmatization)
-                .map(ConlluSentence::flattenWords)
-                .map(this::convert);
+    public Iterator<POSSample> convertLazily(@NonNull Iterator<ConlluSentence> sentences, @NonNull String language, @NonNull ConlluRejectionStatistics rejections) {
+        return rejections.collectAccepted(mapper.mapLazily(sentences, sentence -> validator.validateForLemmatization(sentence)
+                .map(validSentence -> convert(validSentence.flattenWords()))));
     }
 
     private POSSample convert(ConlluSentence sentence) {
@@ -13,10 +13,20 @@
  */
 package org.babzel.tools.opennlp.conllu.convert;
 
+import io.vavr.collection.Iterator;
 import io.vavr.collection.Seq;
+import io.vavr.collection.Traversable;
 import java.io.Serializable;
 import org.babzel.tools.opennlp.conllu.parser.ConlluSentence;
+import org.babzel.tools.opennlp.conllu.util.ConlluRejectionStatistics;
 
 public interface ConlluSamplesConverter<S extends Serializable> {
-    public Seq<S> convert(Seq<ConlluSentence> sentences, String language);
+    // rejected sentences are recorded in rejections
+    public default Seq<S> convert(Traversable<ConlluSentence> sentences, String language, ConlluRejectionStatistics rejections) {
+        return convertLazily(sentences.iterator(), language, rejections).toVector();
+    }
+
+    // samples are converted by chunks while they are iterated, rejected sentences are recorded in rejections at the same time
+    // only a bounded part of sentences and samples is kept in memory, samples are the same as samples returned by convert
+    public Iterator<S> convertLazily(Iterator<ConlluSentence> sentences, String language, ConlluRejectionStatistics rejections);
 }
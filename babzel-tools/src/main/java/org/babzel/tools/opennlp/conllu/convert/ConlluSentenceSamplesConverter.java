@@ -13,34 +13,35 @@
  */
 package org.babzel.tools.opennlp.conllu.convert;
 
-import io.vavr.collection.Seq;
+import io.vavr.collection.Iterator;
+import io.vavr.collection.Traversable;
 import io.vavr.collection.Vector;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import opennlp.tools.sentdetect.SentenceSample;
 import opennlp.tools.util.Span;
 import org.babzel.tools.opennlp.conllu.parser.ConlluSentence;
-import org.babzel.tools.opennlp.conllu.util.ConlluNormalizer;
+import org.babzel.tools.opennlp.conllu.util.ConlluRejectionStatistics;
 import org.babzel.tools.opennlp.conllu.util.ConlluValidator;
+import org.babzel.tools.util.ParallelMapper;
 import org.springframework.stereotype.Component;
 
 @Component
 @RequiredArgsConstructor
 public class ConlluSentenceSamplesConverter implements ConlluSamplesConverter<SentenceSample> {
-    @NonNull
-    private final ConlluNormalizer normalizer;
     @NonNull
     private final ConlluValidator validator;
+    @NonNull
+    private final ParallelMapper mapper;
 
     @Override
-    public Seq<SentenceSample> convert(@NonNull Seq<ConlluSentence> sentences, @NonNull String language) {
-        var normalizedSentences = sentences.map(sentence -> normalizer.normalizeSentence(sentence, language));
-        var validatedSentences = normalizedSentences.filter(validator::isValidForTokenization);
-        var groupedSentences = Vector.ofAll(validatedSentences.sliding(10, 10));
-        return groupedSentences.map(this::convert);
+    public Iterator<SentenceSample> convertLazily(@NonNull Iterator<ConlluSentence> sentences, @NonNull String language, @NonNull ConlluRejectionStatistics rejections) {
+        var validatedSentences = rejections.collectAccepted(mapper.mapLazily(sentences, validator::validateForTokenization));
+        var groupedSentences = validatedSentences.sliding(10, 10);
+        return mapper.mapLazily(groupedSentences, this::convert);
     }
 
-    private SentenceSample convert(Seq<ConlluSentence> sentences) {
+    private SentenceSample convert(Traversable<ConlluSentence> sentences) {
         return sentences.foldLeft(new SentenceSample(""), this::convert);
     }
 
@@ -13,6 +13,7 @@
  */
 package org.babzel.tools.opennlp.conllu.convert;
 
+import io.vavr.collection.Iterator;
 import io.vavr.collection.Seq;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
@@ -20,25 +21,23 @@ import opennlp.tools.tokenize.TokenSample;
 import opennlp.tools.util.Span;
 import org.babzel.tools.opennlp.conllu.parser.ConlluSentence;
 import org.babzel.tools.opennlp.conllu.parser.ConlluWordLine;
-import org.babzel.tools.opennlp.conllu.util.ConlluNormalizer;
+import org.babzel.tools.opennlp.conllu.util.ConlluRejectionStatistics;
 import org.babzel.tools.opennlp.conllu.util.ConlluValidator;
+import org.babzel.tools.util.ParallelMapper;
 import org.springframework.stereotype.Component;
 
 @Component
 @RequiredArgsConstructor
 public class ConlluTokenSamplesConverter implements ConlluSamplesConverter<TokenSample> {
-    @NonNull
-    private final ConlluNormalizer normalizer;
     @NonNull
     private final ConlluValidator validator;
+    @NonNull
+    private final ParallelMapper mapper;
 
     @Override
-    public Seq<TokenSample> convert(@NonNull Seq<ConlluSentence> sentences, @NonNull String language) {
-        return sentences
-                .map(sentence -> normalizer.normalizeSentence(sentence, language))
-                .filter(validator::isValidForTokenization)
-                .map(ConlluSentence::flattenWords)
-                .map(this::convert);
+    public Iterator<TokenSample> convertLazily(@NonNull Iterator<ConlluSentence> sentences, @NonNull String language, @NonNull ConlluRejectionStatistics rejections) {
+        return rejections.collectAccepted(mapper.mapLazily(sentences, sentence -> validator.validateForTokenization(sentence)
+                .map(validSentence -> convert(validSentence.flattenWords()))));
     }
 
     private TokenSample convert(ConlluSentence sentence) {
@@ -0,0 +1,108 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.opennlp.conllu.corpus;
+
+import io.vavr.collection.Iterator;
+import io.vavr.collection.Seq;
+import io.vavr.collection.Vector;
+import lombok.NonNull;
+import org.babzel.tools.opennlp.conllu.parser.ConlluSentence;
+import org.babzel.tools.opennlp.conllu.parser.ConlluWordLine;
+import org.babzel.tools.opennlp.conllu.util.ConlluRejectionStatistics;
+
+public class ConlluCorpus {
+    // columnar, read only storage of parsed sentences
+    // words of all sentences are stored as rows of primitive columns, a compound word row is followed by rows of its sub-words
+    // forms, lemmas and pos tags are interned and stored as symbol ids
+    // sentences are decoded on demand
+    private final String[] symbols;
+    private final String[] texts;
+    // index of the first word row of every sentence, the last element is the total row count
+    private final int[] sentenceOffsets;
+    private final int[] startIds;
+    private final int[] endIds;
+    private final int[] forms;
+    private final int[] lemmas;
+    private final int[] posTags;
+    // number of rows occupied by the word including all of its sub-words
+    private final int[] spans;
+    // sentences rejected by transformers are not stored
+    private final ConlluRejectionStatistics transformerRejections;
+
+    ConlluCorpus(
+            @NonNull String[] symbols,
+            @NonNull String[] texts,
+            @NonNull int[] sentenceOffsets,
+            @NonNull int[] startIds,
+            @NonNull int[] endIds,
+            @NonNull int[] forms,
+            @NonNull int[] lemmas,
+            @NonNull int[] posTags,
+            @NonNull int[] spans,
+            @NonNull ConlluRejectionStatistics transformerRejections) {
+        this.symbols = symbols;
+        this.texts = texts;
+        this.sentenceOffsets = sentenceOffsets;
+        this.startIds = startIds;
+        this.endIds = endIds;
+        this.forms = forms;
+        this.lemmas = lemmas;
+        this.posTags = posTags;
+        this.spans = spans;
+        this.transformerRejections = transformerRejections;
+    }
+
+    public int size() {
+        return texts.length;
+    }
+
+    public int wordCount() {
+        return startIds.length;
+    }
+
+    public int symbolCount() {
+        return symbols.length;
+    }
+
+    public ConlluRejectionStatistics getTransformerRejections() {
+        // every caller gets its own copy, it may add rejections of its own
+        var rejections = new ConlluRejectionStatistics();
+        rejections.addAll(transformerRejections);
+        return rejections;
+    }
+
+    public ConlluSentence get(int index) {
+        return new ConlluSentence(texts[index], decodeWords(sentenceOffsets[index], sentenceOffsets[index + 1]));
+    }
+
+    public Iterator<ConlluSentence> iterator() {
+        return Iterator.range(0, size()).map(this::get);
+    }
+
+    private Seq<ConlluWordLine> decodeWords(int startRow, int endRow) {
+        var words = Vector.<ConlluWordLine>empty();
+        for (int row = startRow; row < endRow; row += spans[row]) {
+            words = words.append(decodeWord(row));
+        }
+        return words;
+    }
+
+    private ConlluWordLine decodeWord(int row) {
+        if (startIds[row] != endIds[row]) {
+            return new ConlluWordLine(startIds[row], endIds[row], symbols[forms[row]], decodeWords(row + 1, row + spans[row]));
+        } else {
+            return new ConlluWordLine(startIds[row], symbols[forms[row]], symbols[lemmas[row]], symbols[posTags[row]]);
+        }
+    }
+}
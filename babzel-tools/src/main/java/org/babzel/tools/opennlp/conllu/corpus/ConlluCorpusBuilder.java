@@ -0,0 +1,126 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.opennlp.conllu.corpus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import lombok.NonNull;
+import org.babzel.tools.opennlp.conllu.parser.ConlluSentence;
+import org.babzel.tools.opennlp.conllu.parser.ConlluSymbolTable;
+import org.babzel.tools.opennlp.conllu.parser.ConlluWordLine;
+import org.babzel.tools.opennlp.conllu.util.ConlluRejectionStatistics;
+
+public class ConlluCorpusBuilder {
+    private final ConlluSymbolTable symbols;
+    private final ArrayList<String> texts = new ArrayList<>();
+    private final IntColumn sentenceOffsets = new IntColumn();
+    private final IntColumn startIds = new IntColumn();
+    private final IntColumn endIds = new IntColumn();
+    private final IntColumn forms = new IntColumn();
+    private final IntColumn lemmas = new IntColumn();
+    private final IntColumn posTags = new IntColumn();
+    private final IntColumn spans = new IntColumn();
+
+    public ConlluCorpusBuilder() {
+        this(new ConlluSymbolTable());
+    }
+
+    public ConlluCorpusBuilder(@NonNull ConlluSymbolTable symbols) {
+        this.symbols = symbols;
+    }
+
+    public ConlluCorpusBuilder add(@NonNull ConlluSentence sentence) {
+        texts.add(sentence.getText());
+        sentenceOffsets.add(startIds.size());
+        sentence.getWords().forEach(this::addWord);
+        return this;
+    }
+
+    public ConlluCorpus build() {
+        return build(new ConlluRejectionStatistics());
+    }
+
+    public ConlluCorpus build(@NonNull ConlluRejectionStatistics transformerRejections) {
+        // the last offset marks the end of the last sentence
+        var offsets = Arrays.copyOf(sentenceOffsets.toArray(), sentenceOffsets.size() + 1);
+        offsets[sentenceOffsets.size()] = startIds.size();
+        // only symbols referenced by rows are kept, raw forms replaced by normalization are dropped together with the table
+        var symbolIds = new int[symbols.size()];
+        Arrays.fill(symbolIds, -1);
+        var corpusSymbols = new ArrayList<String>();
+        var formIds = renumberSymbols(forms.toArray(), symbolIds, corpusSymbols);
+        var lemmaIds = renumberSymbols(lemmas.toArray(), symbolIds, corpusSymbols);
+        var posTagIds = renumberSymbols(posTags.toArray(), symbolIds, corpusSymbols);
+        return new ConlluCorpus(
+                corpusSymbols.toArray(String[]::new),
+                texts.toArray(String[]::new),
+                offsets,
+                startIds.toArray(),
+                endIds.toArray(),
+                formIds,
+                lemmaIds,
+                posTagIds,
+                spans.toArray(),
+                transformerRejections);
+    }
+
+    private int[] renumberSymbols(int[] ids, int[] symbolIds, ArrayList<String> corpusSymbols) {
+        // symbol table ids are replaced by dense ids of referenced symbols in order of first use
+        for (int row = 0; row < ids.length; row++) {
+            int id = ids[row];
+            if (symbolIds[id] < 0) {
+                symbolIds[id] = corpusSymbols.size();
+                corpusSymbols.add(symbols.getSymbol(id));
+            }
+            ids[row] = symbolIds[id];
+        }
+        return ids;
+    }
+
+    private void addWord(ConlluWordLine word) {
+        int row = startIds.size();
+        startIds.add(word.getStartId());
+        endIds.add(word.getEndId());
+        forms.add(symbols.getId(word.getForm()));
+        lemmas.add(symbols.getId(word.getLemma()));
+        posTags.add(symbols.getId(word.getPosTag()));
+        spans.add(1);
+        word.getSubWords().forEach(this::addWord);
+        spans.set(row, startIds.size() - row);
+    }
+
+    private static class IntColumn {
+        private int[] values = new int[1024];
+        private int size;
+
+        public void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        public void set(int index, int value) {
+            values[index] = value;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
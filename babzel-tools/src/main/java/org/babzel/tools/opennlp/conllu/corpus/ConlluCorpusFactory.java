@@ -0,0 +1,63 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.opennlp.conllu.corpus;
+
+import io.vavr.collection.Vector;
+import java.nio.file.Path;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.apachecommons.CommonsLog;
+import org.babzel.tools.opennlp.conllu.parser.ConlluSentencesFactory;
+import org.babzel.tools.opennlp.conllu.parser.ConlluSymbolTable;
+import org.babzel.tools.opennlp.conllu.transformer.ConlluTransformers;
+import org.babzel.tools.opennlp.conllu.util.ConlluNormalizer;
+import org.babzel.tools.opennlp.conllu.util.ConlluRejectionStatistics;
+import org.babzel.tools.util.FileDigester;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@CommonsLog
+public class ConlluCorpusFactory {
+    @NonNull
+    private final ConlluSentencesFactory sentencesFactory;
+    @NonNull
+    private final ConlluNormalizer normalizer;
+    @NonNull
+    private final ConlluTransformers transformers;
+    @NonNull
+    private final FileDigester digester;
+
+    public ConlluCorpus createCorpus(@NonNull Path conlluPath, @NonNull String language) {
+        // sentences are parsed, transformed and normalized once
+        // the corpus is shared by all model processors of a language
+        log.info(String.format("Reading corpus, language: '%s', conllu file: '%s'", language, conlluPath));
+        // one symbol table is shared by the parser, the normalizer and the corpus
+        var symbols = new ConlluSymbolTable();
+        var transformerRejections = new ConlluRejectionStatistics();
+        var corpus = sentencesFactory.readSentences(conlluPath, language, symbols, transformerRejections, sentences -> sentences
+                .map(sentence -> normalizer.normalizeSentence(sentence, language, symbols))
+                .foldLeft(new ConlluCorpusBuilder(symbols), ConlluCorpusBuilder::add)
+                .build(transformerRejections));
+        log.info(String.format("Corpus sentences: %d, words: %d, symbols: %d, rejected by transformers: %d", corpus.size(), corpus.wordCount(), corpus.symbolCount(), transformerRejections.getRejectedCount()));
+        normalizer.getNormalizerStatistics().forEach(statistics -> log.info(String.format("Text normalizer %s", statistics)));
+        return corpus;
+    }
+
+    public String getCorpusDigest(@NonNull Path conlluPath, @NonNull String language) {
+        // corpus depends on the conllu file content, the text normalizer and the transformers applied to the language
+        return digester.digestStrings(Vector.of(digester.getFileDigest(conlluPath), normalizer.getNormalizerName())
+                .appendAll(transformers.getTransformerNames(language)));
+    }
+}
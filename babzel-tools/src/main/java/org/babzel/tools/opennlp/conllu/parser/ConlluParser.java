@@ -16,71 +16,154 @@ package org.babzel.tools.opennlp.conllu.parser;
 import io.vavr.collection.Seq;
 import io.vavr.collection.Vector;
 import io.vavr.control.Option;
+import java.util.ArrayList;
 import lombok.NonNull;
 import org.springframework.stereotype.Component;
 
 @Component
 public class ConlluParser {
     public ConlluSentence parse(@NonNull Seq<String> lines) {
-        String sentenceText = lines
-                .map(this::parseSentenceText)
-                .filter(Option::isDefined)
-                .map(Option::get)
-                .getOrElse("");
-        Seq<ConlluWordLine> words = lines
-                .map(this::parseWordLine)
-                .filter(Option::isDefined)
-                .map(Option::get);
+        return parse(lines, new ConlluSymbolTable());
+    }
+
+    public ConlluSentence parse(@NonNull Seq<String> lines, @NonNull ConlluSymbolTable symbols) {
+        // single pass over the lines, fields are located by index without regex or splitting
+        Option<String> sentenceText = Option.none();
+        var words = new WordsBuilder();
+        for (String line : lines) {
+            if (line.startsWith("#")) {
+                if (sentenceText.isEmpty()) {
+                    sentenceText = parseSentenceText(line);
+                }
+            } else {
+                parseWordLine(line, symbols).forEach(words::add);
+            }
+        }
 
-        return new ConlluSentence(sentenceText, postProcessWords(words));
+        return new ConlluSentence(sentenceText.getOrElse(""), words.build());
     }
 
     private Option<String> parseSentenceText(String line) {
         // # text = <sentenceText>
-        if (line.startsWith("#")) {
-            String[] fragments = line.substring(1).split("=", 2);
-            if (fragments.length == 2 && fragments[0].trim().equals("text")) {
-                return Option.of(fragments[1].trim());
+        int separator = line.indexOf('=', 1);
+        if (separator >= 0) {
+            int keyStart = skipWhitespaceForward(line, 1, separator);
+            int keyEnd = skipWhitespaceBackward(line, keyStart, separator);
+            if (keyEnd - keyStart == 4 && line.startsWith("text", keyStart)) {
+                int valueStart = skipWhitespaceForward(line, separator + 1, line.length());
+                int valueEnd = skipWhitespaceBackward(line, valueStart, line.length());
+                return Option.of(line.substring(valueStart, valueEnd));
             }
         }
         return Option.none();
     }
 
-    private Option<ConlluWordLine> parseWordLine(String line) {
-        String[] fragments = line.split("\\t");
-        if (fragments.length >= 4 && fragments[0].matches("[0-9]+")) {
+    private Option<ConlluWordLine> parseWordLine(String line, ConlluSymbolTable symbols) {
+        int idEnd = line.indexOf('\t');
+        if (idEnd < 0) {
+            return Option.none();
+        }
+        if (isNumber(line, 0, idEnd)) {
             // single word line: <id> <form> <lemma> <posTag>
-            return Option.of(new ConlluWordLine(
-                    Integer.parseInt(fragments[0]),
-                    fragments[1],
-                    fragments[2],
-                    fragments[3]));
-        } else if (fragments.length >= 2 && fragments[0].matches("[0-9]+\\-[0-9]+")) {
+            int formEnd = line.indexOf('\t', idEnd + 1);
+            int lemmaEnd = formEnd >= 0 ? line.indexOf('\t', formEnd + 1) : -1;
+            if (lemmaEnd >= 0 && hasContent(line, lemmaEnd + 1)) {
+                return Option.of(new ConlluWordLine(
+                        Integer.parseInt(line, 0, idEnd, 10),
+                        symbols.intern(line, idEnd + 1, formEnd),
+                        symbols.intern(line, formEnd + 1, lemmaEnd),
+                        symbols.intern(line, lemmaEnd + 1, fieldEnd(line, lemmaEnd + 1))));
+            }
+            return Option.none();
+        }
+        int idSeparator = line.indexOf('-');
+        if (idSeparator >= 0 && idSeparator < idEnd
+                && isNumber(line, 0, idSeparator) && isNumber(line, idSeparator + 1, idEnd)
+                && hasContent(line, idEnd + 1)) {
             // compound word line: <startId>-<endId> <form>
-            String[] ids = fragments[0].split("\\-");
             return Option.of(new ConlluWordLine(
-                    Integer.parseInt(ids[0]),
-                    Integer.parseInt(ids[1]),
-                    fragments[1],
+                    Integer.parseInt(line, 0, idSeparator, 10),
+                    Integer.parseInt(line, idSeparator + 1, idEnd, 10),
+                    symbols.intern(line, idEnd + 1, fieldEnd(line, idEnd + 1)),
                     Vector.empty()));
         }
         return Option.none();
     }
 
-    private Seq<ConlluWordLine> postProcessWords(Seq<ConlluWordLine> words) {
-        return words.foldLeft(Vector.empty(), this::combineWord);
+    private boolean isNumber(String line, int start, int end) {
+        if (start >= end) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
     }
 
-    private Seq<ConlluWordLine> combineWord(Seq<ConlluWordLine> words, ConlluWordLine word) {
-        if (words.isEmpty()) {
-            return Vector.of(word);
+    private boolean hasContent(String line, int start) {
+        // trailing empty fields are not counted as present fields
+        for (int i = start; i < line.length(); i++) {
+            if (line.charAt(i) != '\t') {
+                return true;
+            }
         }
-        ConlluWordLine lastWord = words.last();
-        if (lastWord.isCompound() && !word.isCompound() && lastWord.getStartId() <= word.getStartId() && word.getStartId() <= lastWord.getEndId()) {
-            // last word is compound and current word should be added as sub-word
-            return words.update(words.size() - 1, new ConlluWordLine(lastWord.getStartId(), lastWord.getEndId(), lastWord.getForm(), lastWord.getSubWords().append(word)));
-        } else {
-            return words.append(word);
+        return false;
+    }
+
+    private int fieldEnd(String line, int start) {
+        int end = line.indexOf('\t', start);
+        return end >= 0 ? end : line.length();
+    }
+
+    private int skipWhitespaceForward(String line, int start, int end) {
+        while (start < end && line.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private int skipWhitespaceBackward(String line, int start, int end) {
+        while (end > start && line.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private static class WordsBuilder {
+        // words are collected in mutable buffers and frozen once per sentence
+        private final ArrayList<ConlluWordLine> words = new ArrayList<>();
+        private final ArrayList<ConlluWordLine> subWords = new ArrayList<>();
+        private ConlluWordLine compoundWord;
+
+        public void add(ConlluWordLine word) {
+            if (compoundWord != null && !word.isCompound() && compoundWord.getStartId() <= word.getStartId() && word.getStartId() <= compoundWord.getEndId()) {
+                // last word is compound and current word should be added as sub-word
+                subWords.add(word);
+            } else {
+                closeCompoundWord();
+                if (word.isCompound()) {
+                    compoundWord = word;
+                    word.getSubWords().forEach(subWords::add);
+                } else {
+                    words.add(word);
+                }
+            }
+        }
+
+        public Seq<ConlluWordLine> build() {
+            closeCompoundWord();
+            return Vector.ofAll(words);
+        }
+
+        private void closeCompoundWord() {
+            if (compoundWord != null) {
+                words.add(new ConlluWordLine(compoundWord.getStartId(), compoundWord.getEndId(), compoundWord.getForm(), Vector.ofAll(subWords)));
+                compoundWord = null;
+                subWords.clear();
+            }
         }
     }
 }
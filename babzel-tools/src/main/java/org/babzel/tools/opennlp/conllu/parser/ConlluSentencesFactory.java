@@ -13,15 +13,21 @@
  */
 package org.babzel.tools.opennlp.conllu.parser;
 
+import io.vavr.collection.Iterator;
 import io.vavr.collection.Seq;
 import io.vavr.collection.Vector;
+import io.vavr.control.Option;
+import java.io.BufferedReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.function.Function;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import org.babzel.tools.opennlp.conllu.transformer.ConlluTransformers;
+import org.babzel.tools.opennlp.conllu.util.ConlluRejectionStatistics;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -33,12 +39,36 @@ public class ConlluSentencesFactory {
     private final ConlluTransformers transformers;
 
     @SneakyThrows
-    public Seq<ConlluSentence> createSentences(@NonNull Path conlluPath, @NonNull String language) {
-        Seq<String> lineSeq = Vector.ofAll(Files.readAllLines(conlluPath, StandardCharsets.UTF_8));
-        Seq<Seq<String>> groupedSeq = Vector.ofAll(lineSeq.slideBy(line -> line.isEmpty()));
-        Seq<Seq<String>> paragraphSeq = groupedSeq.filter(lines -> !lines.forAll(line -> line.isEmpty()));
-        Seq<ConlluSentence> parsedSeq = paragraphSeq.map(parser::parse);
-        Seq<ConlluSentence> transformedSeq = parsedSeq.map(s -> transformers.transformSentence(s, language));
-        return transformedSeq;
+    public <T> T readSentences(
+            @NonNull Path conlluPath,
+            @NonNull String language,
+            @NonNull ConlluSymbolTable symbols,
+            @NonNull ConlluRejectionStatistics rejections,
+            @NonNull Function<Iterator<ConlluSentence>, T> sentencesProcessor) {
+        // sentences are read lazily, paragraph by paragraph
+        // the whole file is never kept in memory, the iterator is valid only inside sentencesProcessor
+        // sentences rejected by transformers are skipped and recorded in rejections
+        try (var reader = Files.newBufferedReader(conlluPath, StandardCharsets.UTF_8)) {
+            Iterator<ConlluSentence> sentences = Iterator.continually(() -> readParagraph(reader))
+                    .takeWhile(Option::isDefined)
+                    .map(Option::get)
+                    .map(lines -> parser.parse(lines, symbols))
+                    .flatMap(sentence -> transformers.transformSentence(sentence, language, rejections));
+            return sentencesProcessor.apply(sentences);
+        }
+    }
+
+    @SneakyThrows
+    private Option<Seq<String>> readParagraph(BufferedReader reader) {
+        // paragraph is a sequence of non empty lines separated by one or more empty lines
+        var lines = new ArrayList<String>();
+        for (var line = reader.readLine(); line != null; line = reader.readLine()) {
+            if (!line.isEmpty()) {
+                lines.add(line);
+            } else if (!lines.isEmpty()) {
+                break;
+            }
+        }
+        return !lines.isEmpty() ? Option.some(Vector.ofAll(lines)) : Option.none();
     }
 }
@@ -0,0 +1,114 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.opennlp.conllu.parser;
+
+import java.util.Arrays;
+import lombok.NonNull;
+import org.babzel.tools.opennlp.conllu.ConlluPOSTag;
+
+public class ConlluSymbolTable {
+    // per corpus dictionary of forms, lemmas and pos tags, not thread safe
+    // equal symbols share one string instance and one id
+    // pos tags are pre-seeded with enum constant names, so valid pos tags are the enum names themselves
+    private String[] symbols = new String[1024];
+    private int size;
+    // open addressing hash table of symbol ids, -1 marks an empty slot
+    private int[] slots = newSlots(2048);
+
+    public ConlluSymbolTable() {
+        for (var posTag : ConlluPOSTag.values()) {
+            intern(posTag.name());
+        }
+    }
+
+    public String intern(@NonNull String symbol) {
+        return symbols[getId(symbol, 0, symbol.length())];
+    }
+
+    public String intern(@NonNull String text, int start, int end) {
+        // no substring is created when the symbol is already known
+        return symbols[getId(text, start, end)];
+    }
+
+    public int getId(@NonNull String symbol) {
+        return getId(symbol, 0, symbol.length());
+    }
+
+    public int getId(@NonNull String text, int start, int end) {
+        int hash = hash(text, start, end);
+        int mask = slots.length - 1;
+        for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+            int id = slots[slot];
+            if (id < 0) {
+                return add(text.substring(start, end), slot);
+            }
+            var symbol = symbols[id];
+            if (symbol.length() == end - start && symbol.regionMatches(0, text, start, end - start)) {
+                return id;
+            }
+        }
+    }
+
+    public String getSymbol(int id) {
+        return symbols[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String[] toArray() {
+        return Arrays.copyOf(symbols, size);
+    }
+
+    private int add(String symbol, int slot) {
+        if (size == symbols.length) {
+            symbols = Arrays.copyOf(symbols, size * 2);
+        }
+        int id = size++;
+        symbols[id] = symbol;
+        slots[slot] = id;
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    private void rehash() {
+        slots = newSlots(slots.length * 2);
+        int mask = slots.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hash(symbols[id], 0, symbols[id].length()) & mask;
+            while (slots[slot] >= 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id;
+        }
+    }
+
+    private static int[] newSlots(int length) {
+        var slots = new int[length];
+        Arrays.fill(slots, -1);
+        return slots;
+    }
+
+    private static int hash(String text, int start, int end) {
+        // same as String.hashCode of the region, spread to use higher bits as well
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
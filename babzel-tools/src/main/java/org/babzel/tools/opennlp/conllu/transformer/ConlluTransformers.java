@@ -15,8 +15,11 @@ package org.babzel.tools.opennlp.conllu.transformer;
 
 import io.vavr.collection.Seq;
 import io.vavr.collection.Vector;
+import io.vavr.control.Option;
 import lombok.NonNull;
 import org.babzel.tools.opennlp.conllu.parser.ConlluSentence;
+import org.babzel.tools.opennlp.conllu.util.ConlluRejection;
+import org.babzel.tools.opennlp.conllu.util.ConlluRejectionStatistics;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -27,15 +30,28 @@ public class ConlluTransformers {
         this.transformers = Vector.of(transformers);
     }
 
-    public ConlluSentence transformSentence(@NonNull ConlluSentence sentence, @NonNull String language) {
+    public Option<ConlluSentence> transformSentence(@NonNull ConlluSentence sentence, @NonNull String language, @NonNull ConlluRejectionStatistics rejections) {
+        // transformer rejects a sentence by removing all of its words, rejected sentence is not transformed any further
         return transformers.foldLeft(
-                sentence,
-                (prevSentence, transformer) -> applyTransformer(prevSentence, transformer, language));
+                Option.some(sentence),
+                (prevSentenceOpt, transformer) -> prevSentenceOpt.flatMap(prevSentence -> applyTransformer(prevSentence, transformer, language, rejections)));
     }
 
-    private ConlluSentence applyTransformer(ConlluSentence sentence, ConlluTransformer transformer, String language) {
-        return transformer.supportsLanguage(language)
-                ? transformer.transform(sentence, language)
-                : sentence;
+    public Seq<String> getTransformerNames(@NonNull String language) {
+        return transformers
+                .filter(transformer -> transformer.supportsLanguage(language))
+                .map(transformer -> transformer.getClass().getName());
+    }
+
+    private Option<ConlluSentence> applyTransformer(ConlluSentence sentence, ConlluTransformer transformer, String language, ConlluRejectionStatistics rejections) {
+        if (!transformer.supportsLanguage(language)) {
+            return Option.some(sentence);
+        }
+        var transformedSentence = transformer.transform(sentence, language);
+        if (transformedSentence.getWords().isEmpty() && !sentence.getWords().isEmpty()) {
+            rejections.reject(new ConlluRejection(transformer.getClass().getSimpleName(), sentence.getText()));
+            return Option.none();
+        }
+        return Option.some(transformedSentence);
     }
 }
@@ -14,10 +14,12 @@
 package org.babzel.tools.opennlp.conllu.util;
 
 import io.vavr.collection.Seq;
+import io.vavr.control.Option;
 import java.util.function.Function;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import org.babzel.tools.opennlp.conllu.parser.ConlluSentence;
+import org.babzel.tools.opennlp.conllu.parser.ConlluSymbolTable;
 import org.babzel.tools.opennlp.conllu.parser.ConlluWordLine;
 import org.babzel.tools.util.TextNormalizer;
 import org.springframework.stereotype.Component;
@@ -28,21 +30,27 @@ public class ConlluNormalizer {
     @NonNull
     private final TextNormalizer textNormalizer;
 
-    public ConlluSentence normalizeSentence(@NonNull ConlluSentence sentence, @NonNull String language) {
-        return normalize(sentence, text -> textNormalizer.normalizeText(text, language));
+    public ConlluSentence normalizeSentence(@NonNull ConlluSentence sentence, @NonNull String language, @NonNull ConlluSymbolTable symbols) {
+        Function<String, String> textConverter = text -> textNormalizer.normalizeText(text, language);
+        // normalized word fields are interned, so repeated words do not keep their own copies
+        return new ConlluSentence(textConverter.apply(sentence.getText()), normalize(sentence.getWords(), textConverter.andThen(symbols::intern), symbols));
     }
 
-    private ConlluSentence normalize(ConlluSentence sentence, Function<String, String> textConverter) {
-        return new ConlluSentence(textConverter.apply(sentence.getText()), normalize(sentence.getWords(), textConverter));
+    public String getNormalizerName() {
+        return textNormalizer.getName();
     }
 
-    private Seq<ConlluWordLine> normalize(Seq<ConlluWordLine> words, Function<String, String> textConverter) {
-        return words.map(word -> normalize(word, textConverter));
+    public Option<String> getNormalizerStatistics() {
+        return textNormalizer.getStatistics();
     }
 
-    private ConlluWordLine normalize(ConlluWordLine word, Function<String, String> textConverter) {
+    private Seq<ConlluWordLine> normalize(Seq<ConlluWordLine> words, Function<String, String> textConverter, ConlluSymbolTable symbols) {
+        return words.map(word -> normalize(word, textConverter, symbols));
+    }
+
+    private ConlluWordLine normalize(ConlluWordLine word, Function<String, String> textConverter, ConlluSymbolTable symbols) {
         return word.isCompound()
-                ? new ConlluWordLine(word.getStartId(), word.getEndId(), textConverter.apply(word.getForm()), normalize(word.getSubWords(), textConverter))
-                : new ConlluWordLine(word.getStartId(), textConverter.apply(word.getForm()), textConverter.apply(word.getLemma()), word.getPosTag());
+                ? new ConlluWordLine(word.getStartId(), word.getEndId(), textConverter.apply(word.getForm()), normalize(word.getSubWords(), textConverter, symbols))
+                : new ConlluWordLine(word.getStartId(), textConverter.apply(word.getForm()), textConverter.apply(word.getLemma()), symbols.intern(word.getPosTag()));
     }
 }
@@ -0,0 +1,23 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.opennlp.conllu.util;
+
+// reasons are declared in the order they are checked, the first failing one is reported
+public enum ConlluRejectionReason {
+    EMPTY,
+    INVALID_FORM,
+    TEXT_NOT_EQUAL_TO_FORMS,
+    INVALID_LEMMA,
+    INVALID_POS_TAG
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.opennlp.conllu.util;
+
+import io.vavr.collection.Iterator;
+import io.vavr.collection.Seq;
+import io.vavr.collection.SortedMap;
+import io.vavr.collection.TreeMap;
+import io.vavr.collection.Vector;
+import io.vavr.control.Either;
+import lombok.NonNull;
+
+public class ConlluRejectionStatistics {
+    public static final int MAX_SAMPLES_PER_RULE = 5;
+
+    // rejections are counted per rule, the first rejected sentences of every rule are kept as samples
+    private SortedMap<String, Integer> counts = TreeMap.empty();
+    private SortedMap<String, Seq<String>> samples = TreeMap.empty();
+
+    public synchronized void reject(@NonNull ConlluRejection rejection) {
+        var rule = rejection.getRule();
+        counts = counts.put(rule, counts.get(rule).getOrElse(0) + 1);
+        var ruleSamples = samples.get(rule).getOrElse(Vector.empty());
+        if (ruleSamples.size() < MAX_SAMPLES_PER_RULE) {
+            samples = samples.put(rule, ruleSamples.append(rejection.getText()));
+        }
+    }
+
+    public <T> Seq<T> collectAccepted(@NonNull Seq<Either<ConlluRejection, T>> results) {
+        return collectAccepted(results.iterator()).toVector();
+    }
+
+    public <T> Iterator<T> collectAccepted(@NonNull Iterator<Either<ConlluRejection, T>> results) {
+        // rejections are recorded in the order of results, so samples do not depend on the number of threads
+        // they are recorded while accepted results are iterated
+        return results
+                .peek(result -> result.orElseRun(this::reject))
+                .filter(Either::isRight)
+                .map(Either::get);
+    }
+
+    public synchronized void addAll(@NonNull ConlluRejectionStatistics statistics) {
+        var otherCounts = statistics.getRejectionCounts();
+        var otherSamples = statistics.getRejectionSamples();
+        counts = otherCounts.foldLeft(counts, (acc, count) -> acc.put(count._1, acc.get(count._1).getOrElse(0) + count._2));
+        samples = otherSamples.foldLeft(samples, (acc, ruleSamples) -> acc.put(ruleSamples._1,
+                acc.get(ruleSamples._1).getOrElse(Vector.empty()).appendAll(ruleSamples._2).take(MAX_SAMPLES_PER_RULE)));
+    }
+
+    public synchronized int getRejectedCount() {
+        return counts.values().sum().intValue();
+    }
+
+    public synchronized SortedMap<String, Integer> getRejectionCounts() {
+        return counts;
+    }
+
+    public synchronized SortedMap<String, Seq<String>> getRejectionSamples() {
+        return samples;
+    }
+}
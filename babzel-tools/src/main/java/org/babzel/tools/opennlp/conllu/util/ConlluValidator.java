@@ -13,6 +13,8 @@
  */
 package org.babzel.tools.opennlp.conllu.util;
 
+import io.vavr.control.Either;
+import io.vavr.control.Option;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import org.babzel.tools.opennlp.conllu.parser.ConlluSentence;
@@ -25,10 +27,32 @@ public class ConlluValidator {
     private final ConlluValidatorHelper helper;
 
     public boolean isValidForTokenization(@NonNull ConlluSentence sentence) {
-        return helper.notEmpty(sentence) && helper.formsValid(sentence) && helper.textEqualsConcatenatedForms(sentence);
+        return getTokenizationRejection(sentence).isEmpty();
     }
 
     public boolean isValidForLemmatization(@NonNull ConlluSentence sentence) {
-        return isValidForTokenization(sentence) && helper.lemmasValid(sentence) && helper.posTagsValid(sentence);
+        return getLemmatizationRejection(sentence).isEmpty();
+    }
+
+    public Either<ConlluRejection, ConlluSentence> validateForTokenization(@NonNull ConlluSentence sentence) {
+        return toEither(sentence, getTokenizationRejection(sentence));
+    }
+
+    public Either<ConlluRejection, ConlluSentence> validateForLemmatization(@NonNull ConlluSentence sentence) {
+        return toEither(sentence, getLemmatizationRejection(sentence));
+    }
+
+    public Option<ConlluRejectionReason> getTokenizationRejection(@NonNull ConlluSentence sentence) {
+        return helper.validateForTokenization(sentence);
+    }
+
+    public Option<ConlluRejectionReason> getLemmatizationRejection(@NonNull ConlluSentence sentence) {
+        return helper.validateForLemmatization(sentence);
+    }
+
+    private Either<ConlluRejection, ConlluSentence> toEither(ConlluSentence sentence, Option<ConlluRejectionReason> rejectionReasonOpt) {
+        return rejectionReasonOpt.isDefined()
+                ? Either.left(new ConlluRejection(rejectionReasonOpt.get().name(), sentence.getText()))
+                : Either.right(sentence);
     }
 }
@@ -13,9 +13,7 @@
  */
 package org.babzel.tools.opennlp.conllu.util;
 
-import io.vavr.collection.HashSet;
 import io.vavr.collection.Seq;
-import io.vavr.collection.Set;
 import io.vavr.collection.Vector;
 import io.vavr.control.Option;
 import lombok.NonNull;
@@ -27,8 +25,6 @@ import org.springframework.stereotype.Component;
 
 @Component
 public class ConlluValidatorHelper {
-    private static final Set<String> POS_TAGS = HashSet.of(ConlluPOSTag.values()).map(ConlluPOSTag::name);
-
     public boolean notEmpty(@NonNull ConlluSentence sentence) {
         return !sentence.getText().isBlank() && !sentence.getWords().isEmpty();
     }
@@ -72,7 +68,7 @@ public class ConlluValidatorHelper {
     }
 
     private boolean posTagValid(String posTag) {
-        return POS_TAGS.contains(posTag);
+        return ConlluPOSTag.isPOSTag(posTag);
     }
 
     public boolean textEqualsConcatenatedForms(@NonNull ConlluSentence sentence) {
@@ -107,4 +103,63 @@ public class ConlluValidatorHelper {
     private boolean isAdjacentOrSeparatedBySingleSpace(String text, int previousEndIdx, int currentStartIdx) {
         return previousEndIdx == currentStartIdx || previousEndIdx + 1 == currentStartIdx && text.charAt(previousEndIdx) == ' ';
     }
+
+    public Option<ConlluRejectionReason> validateForTokenization(@NonNull ConlluSentence sentence) {
+        return validate(sentence, false);
+    }
+
+    public Option<ConlluRejectionReason> validateForLemmatization(@NonNull ConlluSentence sentence) {
+        return validate(sentence, true);
+    }
+
+    private Option<ConlluRejectionReason> validate(ConlluSentence sentence, boolean lemmatization) {
+        // all rules are checked by a single pass over words, without intermediate collections
+        // result is the same as checking rules one by one in the order of rejection reasons
+        if (!notEmpty(sentence)) {
+            return Option.some(ConlluRejectionReason.EMPTY);
+        }
+        var text = sentence.getText();
+        var textEqual = true;
+        var lemmasValid = true;
+        var posTagsValid = true;
+        var coveredStart = 0;
+        var coveredEnd = 0;
+        for (var word : sentence.getWords()) {
+            var form = word.getForm();
+            if (!formValid(form)) {
+                return Option.some(ConlluRejectionReason.INVALID_FORM);
+            }
+            if (textEqual) {
+                var currentStartIdx = text.indexOf(form, coveredEnd);
+                if (currentStartIdx < 0 || !isAdjacentOrSeparatedBySingleSpace(text, coveredEnd, currentStartIdx)) {
+                    textEqual = false;
+                } else {
+                    coveredStart = coveredEnd == 0 ? currentStartIdx : coveredStart;
+                    coveredEnd = currentStartIdx + form.length();
+                }
+            }
+            if (word.isCompound()) {
+                for (var subWord : word.getSubWords()) {
+                    if (!formValid(subWord.getForm())) {
+                        return Option.some(ConlluRejectionReason.INVALID_FORM);
+                    }
+                    lemmasValid = lemmasValid && (!lemmatization || lemmaValid(subWord.getLemma()));
+                    posTagsValid = posTagsValid && (!lemmatization || posTagValid(subWord.getPosTag()));
+                }
+            } else {
+                lemmasValid = lemmasValid && (!lemmatization || lemmaValid(word.getLemma()));
+                posTagsValid = posTagsValid && (!lemmatization || posTagValid(word.getPosTag()));
+            }
+        }
+        if (!textEqual || coveredStart != 0 || coveredEnd != text.length()) {
+            return Option.some(ConlluRejectionReason.TEXT_NOT_EQUAL_TO_FORMS);
+        }
+        if (!lemmasValid) {
+            return Option.some(ConlluRejectionReason.INVALID_LEMMA);
+        }
+        if (!posTagsValid) {
+            return Option.some(ConlluRejectionReason.INVALID_POS_TAG);
+        }
+        return Option.none();
+    }
 }
@@ -21,6 +21,7 @@ import org.babzel.tools.opennlp.model.train.LemmatizerModelTrainer;
 import org.babzel.tools.opennlp.model.util.EvalReportPersister;
 import org.babzel.tools.opennlp.model.util.ModelPersister;
 import org.babzel.tools.opennlp.model.util.SampleSplitter;
+import org.babzel.tools.util.ParallelExecutor;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -30,7 +31,8 @@ public class LemmatizerModelProcessor extends ModelProcessor<LemmatizerModel, Le
             @NonNull LemmatizerModelTrainer trainer,
             @NonNull LemmatizerModelEvaluator evaluator,
             @NonNull ModelPersister modelPersister,
-            @NonNull EvalReportPersister evalReportPersister) {
-        super(splitter, trainer, evaluator, modelPersister, evalReportPersister);
+            @NonNull EvalReportPersister evalReportPersister,
+            @NonNull ParallelExecutor executor) {
+        super(splitter, trainer, evaluator, modelPersister, evalReportPersister, executor);
     }
 }
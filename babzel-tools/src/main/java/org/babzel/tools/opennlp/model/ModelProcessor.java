@@ -17,18 +17,26 @@ import io.vavr.Tuple;
 import io.vavr.Tuple2;
 import io.vavr.Tuple4;
 import io.vavr.collection.Seq;
+import io.vavr.collection.TreeMap;
+import io.vavr.collection.Vector;
 import io.vavr.control.Option;
 import java.io.Serializable;
 import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.apachecommons.CommonsLog;
+import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.model.BaseModel;
+import org.babzel.tools.opennlp.model.train.DataIndexerCache;
 import org.babzel.tools.opennlp.model.train.ModelEvaluator;
 import org.babzel.tools.opennlp.model.train.ModelTrainer;
 import org.babzel.tools.opennlp.model.util.EvalReportPersister;
 import org.babzel.tools.opennlp.model.util.ModelPersister;
+import org.babzel.tools.opennlp.model.util.SampleSource;
 import org.babzel.tools.opennlp.model.util.SampleSplitter;
+import org.babzel.tools.util.ParallelExecutor;
 
 @RequiredArgsConstructor
 @CommonsLog
@@ -43,9 +51,12 @@ public class ModelProcessor<M extends BaseModel, S extends Serializable> {
     private final ModelPersister modelPersister;
     @NonNull
     private final EvalReportPersister evalReportPersister;
+    @NonNull
+    private final ParallelExecutor executor;
 
-    public void processModel(
-            @NonNull Seq<S> samples,
+    public boolean processModel(
+            @NonNull SampleSource<S> samples,
+            @NonNull String rejectionDetails,
             @NonNull Seq<String> algorithms,
             @NonNull String language,
             @NonNull Path modelPath,
@@ -53,41 +64,76 @@ public class ModelProcessor<M extends BaseModel, S extends Serializable> {
         var splittedSamples = splitter.splitSamples(samples);
         var trainSamples = splittedSamples._1;
         var evalSamples = splittedSamples._2;
-        var bestModelInfoOpt = trainEvaluateBestModel(algorithms, language, trainSamples, evalSamples);
+        // events are indexed once for all algorithms with the same indexing setup
+        var indexers = new DataIndexerCache();
+        var bestModelInfoOpt = trainEvaluateBestModel(algorithms, language, trainSamples, evalSamples, indexers);
         if (bestModelInfoOpt.isDefined()) {
             var algorithm = bestModelInfoOpt.get()._1;
             var model = bestModelInfoOpt.get()._2;
             var evaluationScore = bestModelInfoOpt.get()._3;
             var misclassifiedDetails = bestModelInfoOpt.get()._4;
             writeModel(model, modelPath);
-            writeEvalReportPath(evaluationScore, trainSamples.size(), evalSamples.size(), algorithm, model, misclassifiedDetails, reportPath);
+            writeEvalReportPath(evaluationScore, trainSamples.size(), evalSamples.size(), algorithm, model, rejectionDetails, misclassifiedDetails, reportPath);
+            return true;
         } else {
             log.info("Insufficient training data to compute model");
+            return false;
         }
     }
 
-    private Option<Tuple4<String, M, Double, String>> trainEvaluateBestModel(Seq<String> algorithms, String language, Seq<S> trainSamples, Seq<S> evalSamples) {
-        var bestModelInfoOpt = Option.<Tuple4<String, M, Double, String>>none();
-        for (var algorithm : algorithms) {
-            var modelOpt = trainModel(algorithm, language, trainSamples);
-            if (modelOpt.isDefined()) {
-                var evaluationInfo = evaluateModel(algorithm, language, modelOpt.get(), evalSamples);
-                var evaluationScore = evaluationInfo._1;
-                var misclassifiedDetails = evaluationInfo._2;
-                if (bestModelInfoOpt.isEmpty() || evaluationScore > bestModelInfoOpt.get()._3) {
-                    bestModelInfoOpt = Option.some(Tuple.of(algorithm, modelOpt.get(), evaluationScore, misclassifiedDetails));
-                }
-            }
+    public Seq<String> getProcessingInputs(@NonNull Seq<String> algorithms, @NonNull String language) {
+        // everything apart from samples which affects the model and the evaluation report
+        return Vector.of(splitter.getClass().getName(), trainer.getClass().getName(), evaluator.getClass().getName())
+                .appendAll(algorithms.map(algorithm -> getParametersDescription(trainer.getTrainingParameters(algorithm, language))));
+    }
+
+    private String getParametersDescription(TrainingParameters params) {
+        // number of threads depends on the machine, it does not change the trained model
+        return TreeMap.ofAll(params.getObjectSettings())
+                .filterKeys(key -> !key.equals(TrainingParameters.THREADS_PARAM))
+                .map(setting -> String.format("%s=%s", setting._1, setting._2))
+                .mkString(", ");
+    }
+
+    private Option<Tuple4<String, M, Double, String>> trainEvaluateBestModel(Seq<String> algorithms, String language, SampleSource<S> trainSamples, SampleSource<S> evalSamples, DataIndexerCache indexers) {
+        // algorithms are trained concurrently, a model is kept only as long as it is the best one
+        var bestModelInfo = new AtomicReference<Option<Tuple4<String, M, Double, String>>>(Option.none());
+        executor.executeAll(algorithms.<Supplier<Boolean>>map(algorithm -> () -> {
+            var modelInfoOpt = executor.executeWithPermit(() -> trainEvaluateModel(algorithm, language, trainSamples, evalSamples, indexers));
+            modelInfoOpt.forEach(modelInfo -> bestModelInfo.accumulateAndGet(Option.some(modelInfo), (best, candidate) -> chooseBetterModel(algorithms, best, candidate)));
+            return modelInfoOpt.isDefined();
+        }), executor.getParallelism());
+        return bestModelInfo.get();
+    }
+
+    private Option<Tuple4<String, M, Double, String>> trainEvaluateModel(String algorithm, String language, SampleSource<S> trainSamples, SampleSource<S> evalSamples, DataIndexerCache indexers) {
+        return trainModel(algorithm, language, trainSamples, indexers).map(model -> {
+            var evaluationInfo = evaluateModel(algorithm, language, model, evalSamples);
+            var evaluationScore = evaluationInfo._1;
+            var misclassifiedDetails = evaluationInfo._2;
+            return Tuple.of(algorithm, model, evaluationScore, misclassifiedDetails);
+        });
+    }
+
+    private Option<Tuple4<String, M, Double, String>> chooseBetterModel(Seq<String> algorithms, Option<Tuple4<String, M, Double, String>> bestModelInfoOpt, Option<Tuple4<String, M, Double, String>> modelInfoOpt) {
+        // higher score wins, on equal scores the algorithm listed first wins, so the result does not depend on completion order
+        if (bestModelInfoOpt.isEmpty()) {
+            return modelInfoOpt;
+        }
+        var bestScore = bestModelInfoOpt.get()._3;
+        var score = modelInfoOpt.get()._3;
+        if (score > bestScore || score.equals(bestScore) && algorithms.indexOf(modelInfoOpt.get()._1) < algorithms.indexOf(bestModelInfoOpt.get()._1)) {
+            return modelInfoOpt;
         }
         return bestModelInfoOpt;
     }
 
-    private Option<M> trainModel(String algorithm, String language, Seq<S> trainSamples) {
+    private Option<M> trainModel(String algorithm, String language, SampleSource<S> trainSamples, DataIndexerCache indexers) {
         log.info(String.format("Training model, language: '%s', trainer: '%s', algorithm: '%s'", language, trainer.getClass().getSimpleName(), algorithm));
-        return trainer.trainModel(algorithm, language, trainSamples);
+        return trainer.trainModel(algorithm, language, trainSamples, indexers);
     }
 
-    private Tuple2<Double, String> evaluateModel(String algorithm, String language, M model, Seq<S> evalSamples) {
+    private Tuple2<Double, String> evaluateModel(String algorithm, String language, M model, SampleSource<S> evalSamples) {
         log.info(String.format("Evaluating model, language: '%s', evaluator: '%s', algorithm: '%s'", language, evaluator.getClass().getSimpleName(), algorithm));
         var evaluationInfo = evaluator.evaluateModel(model, evalSamples);
         log.info(String.format("Evaluation score: %s", evaluationInfo._1));
@@ -99,8 +145,8 @@ public class ModelProcessor<M extends BaseModel, S extends Serializable> {
         modelPersister.writeModel(model, modelPath);
     }
 
-    private void writeEvalReportPath(double evaluationScore, int trainSamplesSize, int evalSamplesSize, String algorithm, M model, String misclassifiedDetails, Path reportPath) {
+    private void writeEvalReportPath(double evaluationScore, int trainSamplesSize, int evalSamplesSize, String algorithm, M model, String rejectionDetails, String misclassifiedDetails, Path reportPath) {
         log.info(String.format("Writing evaluation report to file: '%s'", reportPath));
-        evalReportPersister.writeEvaluationReport(evaluationScore, trainSamplesSize, evalSamplesSize, algorithm, model, misclassifiedDetails, reportPath);
+        evalReportPersister.writeEvaluationReport(evaluationScore, trainSamplesSize, evalSamplesSize, algorithm, model, rejectionDetails, misclassifiedDetails, reportPath);
     }
 }
@@ -0,0 +1,71 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.opennlp.model.train;
+
+import io.vavr.Lazy;
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import io.vavr.Tuple3;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import opennlp.tools.ml.AbstractEventTrainer;
+import opennlp.tools.ml.AbstractTrainer;
+import opennlp.tools.ml.TrainerFactory;
+import opennlp.tools.ml.model.AbstractDataIndexer;
+import opennlp.tools.ml.model.DataIndexer;
+import opennlp.tools.ml.model.Event;
+import opennlp.tools.ml.model.HashSumEventStream;
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.TrainingParameters;
+
+public class DataIndexerCache {
+    private static final String EVENT_HASH_ENTRY = "Training-Eventhash";
+
+    // events are generated and indexed once for every distinct indexing setup: sort and merge, cutoff and indexer type
+    // indexed events are only read by trainers, so algorithms trained concurrently share them
+    private final Map<Tuple3<Boolean, Integer, String>, Lazy<Tuple2<DataIndexer, String>>> indexers = new ConcurrentHashMap<>();
+
+    public MaxentModel trainModel(@NonNull TrainingParameters params, @NonNull Map<String, String> manifestInfoEntries, @NonNull Supplier<ObjectStream<Event>> events) throws IOException {
+        // the same as EventTrainer.train(events), apart from indexing which is shared
+        var trainer = TrainerFactory.getEventTrainer(params, manifestInfoEntries);
+        if (!(trainer instanceof AbstractEventTrainer)) {
+            return trainer.train(events.get());
+        }
+        var eventTrainer = (AbstractEventTrainer) trainer;
+        // parameters set by the trainer before indexing
+        params.put(AbstractDataIndexer.SORT_PARAM, eventTrainer.isSortAndMerge());
+        if (params.getIntParameter(AbstractTrainer.CUTOFF_PARAM, -1) == -1) {
+            params.put(AbstractTrainer.CUTOFF_PARAM, AbstractTrainer.CUTOFF_DEFAULT);
+        }
+        var key = Tuple.of(
+                eventTrainer.isSortAndMerge(),
+                params.getIntParameter(AbstractTrainer.CUTOFF_PARAM, AbstractTrainer.CUTOFF_DEFAULT),
+                params.getStringParameter(AbstractEventTrainer.DATA_INDEXER_PARAM, AbstractEventTrainer.DATA_INDEXER_TWO_PASS_VALUE));
+        var indexer = indexers.computeIfAbsent(key, k -> Lazy.of(() -> index(eventTrainer, events.get()))).get();
+        manifestInfoEntries.put(EVENT_HASH_ENTRY, indexer._2);
+        return eventTrainer.train(indexer._1);
+    }
+
+    @SneakyThrows
+    private Tuple2<DataIndexer, String> index(AbstractEventTrainer trainer, ObjectStream<Event> events) {
+        var hashSumEvents = new HashSumEventStream(events);
+        var indexer = trainer.getDataIndexer(hashSumEvents);
+        return Tuple.of(indexer, hashSumEvents.calculateHashSum().toString(16));
+    }
+}
@@ -15,7 +15,6 @@ package org.babzel.tools.opennlp.model.train;
 
 import io.vavr.Tuple;
 import io.vavr.Tuple2;
-import io.vavr.collection.Seq;
 import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
 import lombok.NonNull;
@@ -25,19 +24,20 @@ import opennlp.tools.lemmatizer.LemmaSample;
 import opennlp.tools.lemmatizer.LemmatizerEvaluator;
 import opennlp.tools.lemmatizer.LemmatizerME;
 import opennlp.tools.lemmatizer.LemmatizerModel;
-import org.babzel.tools.opennlp.model.util.SeqObjectStream;
+import org.babzel.tools.opennlp.model.util.SampleObjectStream;
+import org.babzel.tools.opennlp.model.util.SampleSource;
 import org.springframework.stereotype.Component;
 
 @Component
 public class LemmatizerModelEvaluator implements ModelEvaluator<LemmatizerModel, LemmaSample> {
     @Override
     @SneakyThrows
-    public Tuple2<Double, String> evaluateModel(@NonNull LemmatizerModel model, @NonNull Seq<LemmaSample> samples) {
+    public Tuple2<Double, String> evaluateModel(@NonNull LemmatizerModel model, @NonNull SampleSource<LemmaSample> samples) {
         var misclassified = new ByteArrayOutputStream();
         var evaluator = new LemmatizerEvaluator(
                 new LemmatizerME(model),
                 new LemmaEvaluationErrorListener(misclassified));
-        evaluator.evaluate(new SeqObjectStream<>(samples));
+        evaluator.evaluate(new SampleObjectStream<>(samples));
         return Tuple.of(evaluator.getWordAccuracy(), new String(misclassified.toByteArray(), StandardCharsets.UTF_8));
     }
 }
@@ -13,31 +13,54 @@
  */
 package org.babzel.tools.opennlp.model.train;
 
-import io.vavr.collection.Seq;
 import io.vavr.control.Option;
+import java.util.HashMap;
 import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import opennlp.tools.lemmatizer.LemmaSample;
+import opennlp.tools.lemmatizer.LemmaSampleEventStream;
 import opennlp.tools.lemmatizer.LemmatizerFactory;
 import opennlp.tools.lemmatizer.LemmatizerME;
 import opennlp.tools.lemmatizer.LemmatizerModel;
+import opennlp.tools.ml.BeamSearch;
+import opennlp.tools.ml.TrainerFactory;
+import opennlp.tools.ml.TrainerFactory.TrainerType;
 import opennlp.tools.util.InsufficientTrainingDataException;
 import opennlp.tools.util.TrainingParameters;
-import org.babzel.tools.opennlp.model.util.SeqObjectStream;
+import org.babzel.tools.opennlp.model.ModelType;
+import org.babzel.tools.opennlp.model.util.SampleObjectStream;
+import org.babzel.tools.opennlp.model.util.SampleSource;
 import org.springframework.stereotype.Component;
 
 @Component
+@RequiredArgsConstructor
 public class LemmatizerModelTrainer implements ModelTrainer<LemmatizerModel, LemmaSample> {
+    @NonNull
+    private final TrainingParametersFactory parametersFactory;
+
+    @Override
+    public TrainingParameters getTrainingParameters(@NonNull String algorithm, @NonNull String language) {
+        return parametersFactory.createTrainingParameters(ModelType.LEMMATIZER, algorithm);
+    }
+
     @Override
     @SneakyThrows
-    public Option<LemmatizerModel> trainModel(@NonNull String algorithm, @NonNull String language, @NonNull Seq<LemmaSample> samples) {
+    public Option<LemmatizerModel> trainModel(@NonNull String algorithm, @NonNull String language, @NonNull SampleSource<LemmaSample> samples, @NonNull DataIndexerCache indexers) {
         try {
-            var params = TrainingParameters.defaultParams();
-            params.put(TrainingParameters.ALGORITHM_PARAM, algorithm);
-            var model = LemmatizerME.train(language,
-                    new SeqObjectStream<>(samples),
-                    params,
-                    new LemmatizerFactory());
+            var params = getTrainingParameters(algorithm, language);
+            var factory = new LemmatizerFactory();
+            if (!TrainerType.EVENT_MODEL_TRAINER.equals(TrainerFactory.getTrainerType(params))) {
+                // sequence trainers do not index events
+                return Option.some(LemmatizerME.train(language, new SampleObjectStream<>(samples), params, factory));
+            }
+            // the same as LemmatizerME.train, apart from indexing of events which is shared
+            var beamSize = params.getIntParameter(BeamSearch.BEAM_SIZE_PARAMETER, LemmatizerME.DEFAULT_BEAM_SIZE);
+            var manifestInfoEntries = new HashMap<String, String>();
+            var maxentModel = indexers.trainModel(params, manifestInfoEntries, () -> new LemmaSampleEventStream(
+                    new SampleObjectStream<>(samples),
+                    factory.getContextGenerator()));
+            var model = new LemmatizerModel(language, maxentModel, beamSize, manifestInfoEntries, factory);
             return Option.some(model);
         } catch (InsufficientTrainingDataException e) {
             return Option.none();
@@ -14,10 +14,10 @@
 package org.babzel.tools.opennlp.model.train;
 
 import io.vavr.Tuple2;
-import io.vavr.collection.Seq;
 import java.io.Serializable;
 import opennlp.tools.util.model.BaseModel;
+import org.babzel.tools.opennlp.model.util.SampleSource;
 
 public interface ModelEvaluator<M extends BaseModel, S extends Serializable> {
-    public Tuple2<Double, String> evaluateModel(M model, Seq<S> samples);
+    public Tuple2<Double, String> evaluateModel(M model, SampleSource<S> samples);
 }
@@ -13,11 +13,19 @@
  */
 package org.babzel.tools.opennlp.model.train;
 
-import io.vavr.collection.Seq;
 import io.vavr.control.Option;
 import java.io.Serializable;
+import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.model.BaseModel;
+import org.babzel.tools.opennlp.model.util.SampleSource;
 
 public interface ModelTrainer<M extends BaseModel, S extends Serializable> {
-    public Option<M> trainModel(String algorithm, String language, Seq<S> samples);
+    public default Option<M> trainModel(String algorithm, String language, SampleSource<S> samples) {
+        return trainModel(algorithm, language, samples, new DataIndexerCache());
+    }
+
+    // events indexed for one algorithm are reused by other algorithms trained on the same samples with the same cache
+    public Option<M> trainModel(String algorithm, String language, SampleSource<S> samples, DataIndexerCache indexers);
+
+    public TrainingParameters getTrainingParameters(String algorithm, String language);
 }
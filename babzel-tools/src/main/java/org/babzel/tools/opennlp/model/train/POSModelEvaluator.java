@@ -15,7 +15,6 @@ package org.babzel.tools.opennlp.model.train;
 
 import io.vavr.Tuple;
 import io.vavr.Tuple2;
-import io.vavr.collection.Seq;
 import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
 import lombok.NonNull;
@@ -25,19 +24,20 @@ import opennlp.tools.postag.POSEvaluator;
 import opennlp.tools.postag.POSModel;
 import opennlp.tools.postag.POSSample;
 import opennlp.tools.postag.POSTaggerME;
-import org.babzel.tools.opennlp.model.util.SeqObjectStream;
+import org.babzel.tools.opennlp.model.util.SampleObjectStream;
+import org.babzel.tools.opennlp.model.util.SampleSource;
 import org.springframework.stereotype.Component;
 
 @Component
 public class POSModelEvaluator implements ModelEvaluator<POSModel, POSSample> {
     @Override
     @SneakyThrows
-    public Tuple2<Double, String> evaluateModel(@NonNull POSModel model, @NonNull Seq<POSSample> samples) {
+    public Tuple2<Double, String> evaluateModel(@NonNull POSModel model, @NonNull SampleSource<POSSample> samples) {
         var misclassified = new ByteArrayOutputStream();
         var evaluator = new POSEvaluator(
                 new POSTaggerME(model),
                 new POSEvaluationErrorListener(misclassified));
-        evaluator.evaluate(new SeqObjectStream<>(samples));
+        evaluator.evaluate(new SampleObjectStream<>(samples));
         return Tuple.of(evaluator.getWordAccuracy(), new String(misclassified.toByteArray(), StandardCharsets.UTF_8));
     }
 }
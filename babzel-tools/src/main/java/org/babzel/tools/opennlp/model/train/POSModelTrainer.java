@@ -13,32 +13,54 @@
  */
 package org.babzel.tools.opennlp.model.train;
 
-import io.vavr.collection.Seq;
 import io.vavr.control.Option;
+import java.util.HashMap;
 import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
+import opennlp.tools.ml.BeamSearch;
+import opennlp.tools.ml.TrainerFactory;
+import opennlp.tools.ml.TrainerFactory.TrainerType;
 import opennlp.tools.postag.POSModel;
 import opennlp.tools.postag.POSSample;
+import opennlp.tools.postag.POSSampleEventStream;
 import opennlp.tools.postag.POSTaggerFactory;
 import opennlp.tools.postag.POSTaggerME;
 import opennlp.tools.util.InsufficientTrainingDataException;
 import opennlp.tools.util.TrainingParameters;
-import org.babzel.tools.opennlp.model.util.SeqObjectStream;
+import org.babzel.tools.opennlp.model.ModelType;
+import org.babzel.tools.opennlp.model.util.SampleObjectStream;
+import org.babzel.tools.opennlp.model.util.SampleSource;
 import org.springframework.stereotype.Component;
 
 @Component
+@RequiredArgsConstructor
 public class POSModelTrainer implements ModelTrainer<POSModel, POSSample> {
+    @NonNull
+    private final TrainingParametersFactory parametersFactory;
+
+    @Override
+    public TrainingParameters getTrainingParameters(@NonNull String algorithm, @NonNull String language) {
+        return parametersFactory.createTrainingParameters(ModelType.POS, algorithm);
+    }
+
     @Override
     @SneakyThrows
-    public Option<POSModel> trainModel(@NonNull String algorithm, @NonNull String language, @NonNull Seq<POSSample> samples) {
+    public Option<POSModel> trainModel(@NonNull String algorithm, @NonNull String language, @NonNull SampleSource<POSSample> samples, @NonNull DataIndexerCache indexers) {
         try {
-            var params = TrainingParameters.defaultParams();
-            params.put(TrainingParameters.ALGORITHM_PARAM, algorithm);
-            var model = POSTaggerME.train(
-                    language,
-                    new SeqObjectStream<>(samples),
-                    params,
-                    new POSTaggerFactory());
+            var params = getTrainingParameters(algorithm, language);
+            var factory = new POSTaggerFactory();
+            if (!TrainerType.EVENT_MODEL_TRAINER.equals(TrainerFactory.getTrainerType(params))) {
+                // sequence trainers do not index events
+                return Option.some(POSTaggerME.train(language, new SampleObjectStream<>(samples), params, factory));
+            }
+            // the same as POSTaggerME.train, apart from indexing of events which is shared
+            var beamSize = params.getIntParameter(BeamSearch.BEAM_SIZE_PARAMETER, POSTaggerME.DEFAULT_BEAM_SIZE);
+            var manifestInfoEntries = new HashMap<String, String>();
+            var maxentModel = indexers.trainModel(params, manifestInfoEntries, () -> new POSSampleEventStream(
+                    new SampleObjectStream<>(samples),
+                    factory.getPOSContextGenerator()));
+            var model = new POSModel(language, maxentModel, beamSize, manifestInfoEntries, factory);
             return Option.some(model);
         } catch (InsufficientTrainingDataException e) {
             return Option.none();
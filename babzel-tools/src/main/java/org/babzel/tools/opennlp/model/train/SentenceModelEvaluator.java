@@ -15,7 +15,6 @@ package org.babzel.tools.opennlp.model.train;
 
 import io.vavr.Tuple;
 import io.vavr.Tuple2;
-import io.vavr.collection.Seq;
 import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
 import lombok.NonNull;
@@ -25,19 +24,20 @@ import opennlp.tools.sentdetect.SentenceDetectorEvaluator;
 import opennlp.tools.sentdetect.SentenceDetectorME;
 import opennlp.tools.sentdetect.SentenceModel;
 import opennlp.tools.sentdetect.SentenceSample;
-import org.babzel.tools.opennlp.model.util.SeqObjectStream;
+import org.babzel.tools.opennlp.model.util.SampleObjectStream;
+import org.babzel.tools.opennlp.model.util.SampleSource;
 import org.springframework.stereotype.Component;
 
 @Component
 public class SentenceModelEvaluator implements ModelEvaluator<SentenceModel, SentenceSample> {
     @Override
     @SneakyThrows
-    public Tuple2<Double, String> evaluateModel(@NonNull SentenceModel model, @NonNull Seq<SentenceSample> samples) {
+    public Tuple2<Double, String> evaluateModel(@NonNull SentenceModel model, @NonNull SampleSource<SentenceSample> samples) {
         var misclassified = new ByteArrayOutputStream();
         var evaluator = new SentenceDetectorEvaluator(
                 new SentenceDetectorME(model),
                 new SentenceEvaluationErrorListener(misclassified));
-        evaluator.evaluate(new SeqObjectStream<>(samples));
+        evaluator.evaluate(new SampleObjectStream<>(samples));
         return Tuple.of(evaluator.getFMeasure().getFMeasure(), new String(misclassified.toByteArray(), StandardCharsets.UTF_8));
     }
 }
@@ -13,19 +13,21 @@
  */
 package org.babzel.tools.opennlp.model.train;
 
-import io.vavr.collection.Seq;
 import io.vavr.control.Option;
+import java.util.HashMap;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
+import opennlp.tools.sentdetect.SDEventStream;
 import opennlp.tools.sentdetect.SentenceDetectorFactory;
-import opennlp.tools.sentdetect.SentenceDetectorME;
 import opennlp.tools.sentdetect.SentenceModel;
 import opennlp.tools.sentdetect.SentenceSample;
 import opennlp.tools.util.InsufficientTrainingDataException;
 import opennlp.tools.util.TrainingParameters;
+import org.babzel.tools.opennlp.model.ModelType;
 import org.babzel.tools.opennlp.model.util.EOSCharsSupplier;
-import org.babzel.tools.opennlp.model.util.SeqObjectStream;
+import org.babzel.tools.opennlp.model.util.SampleObjectStream;
+import org.babzel.tools.opennlp.model.util.SampleSource;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -33,18 +35,27 @@ import org.springframework.stereotype.Component;
 public class SentenceModelTrainer implements ModelTrainer<SentenceModel, SentenceSample> {
     @NonNull
     private final EOSCharsSupplier eosCharsSupplier;
+    @NonNull
+    private final TrainingParametersFactory parametersFactory;
+
+    @Override
+    public TrainingParameters getTrainingParameters(@NonNull String algorithm, @NonNull String language) {
+        return parametersFactory.createTrainingParameters(ModelType.SENTENCE, algorithm);
+    }
 
     @Override
     @SneakyThrows
-    public Option<SentenceModel> trainModel(@NonNull String algorithm, @NonNull String language, @NonNull Seq<SentenceSample> samples) {
+    public Option<SentenceModel> trainModel(@NonNull String algorithm, @NonNull String language, @NonNull SampleSource<SentenceSample> samples, @NonNull DataIndexerCache indexers) {
         try {
-            var params = TrainingParameters.defaultParams();
-            params.put(TrainingParameters.ALGORITHM_PARAM, algorithm);
-            var model = SentenceDetectorME.train(
-                    language,
-                    new SeqObjectStream<>(samples),
-                    new SentenceDetectorFactory(language, true, null, getEosChars(language)),
-                    params);
+            // the same as SentenceDetectorME.train, apart from indexing of events which is shared
+            var params = getTrainingParameters(algorithm, language);
+            var factory = new SentenceDetectorFactory(language, true, null, getEosChars(language));
+            var manifestInfoEntries = new HashMap<String, String>();
+            var maxentModel = indexers.trainModel(params, manifestInfoEntries, () -> new SDEventStream(
+                    new SampleObjectStream<>(samples),
+                    factory.getSDContextGenerator(),
+                    factory.getEndOfSentenceScanner()));
+            var model = new SentenceModel(language, maxentModel, manifestInfoEntries, factory);
             return Option.some(model);
         } catch (InsufficientTrainingDataException e) {
             return Option.none();
@@ -15,7 +15,6 @@ package org.babzel.tools.opennlp.model.train;
 
 import io.vavr.Tuple;
 import io.vavr.Tuple2;
-import io.vavr.collection.Seq;
 import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
 import lombok.NonNull;
@@ -25,19 +24,20 @@ import opennlp.tools.tokenize.TokenSample;
 import opennlp.tools.tokenize.TokenizerEvaluator;
 import opennlp.tools.tokenize.TokenizerME;
 import opennlp.tools.tokenize.TokenizerModel;
-import org.babzel.tools.opennlp.model.util.SeqObjectStream;
+import org.babzel.tools.opennlp.model.util.SampleObjectStream;
+import org.babzel.tools.opennlp.model.util.SampleSource;
 import org.springframework.stereotype.Component;
 
 @Component
 public class TokenizerModelEvaluator implements ModelEvaluator<TokenizerModel, TokenSample> {
     @Override
     @SneakyThrows
-    public Tuple2<Double, String> evaluateModel(@NonNull TokenizerModel model, @NonNull Seq<TokenSample> samples) {
+    public Tuple2<Double, String> evaluateModel(@NonNull TokenizerModel model, @NonNull SampleSource<TokenSample> samples) {
         var misclassified = new ByteArrayOutputStream();
         var evaluator = new TokenizerEvaluator(
                 new TokenizerME(model),
                 new TokenEvaluationErrorListener(misclassified));
-        evaluator.evaluate(new SeqObjectStream<>(samples));
+        evaluator.evaluate(new SampleObjectStream<>(samples));
         return Tuple.of(evaluator.getFMeasure().getFMeasure(), new String(misclassified.toByteArray(), StandardCharsets.UTF_8));
     }
 }
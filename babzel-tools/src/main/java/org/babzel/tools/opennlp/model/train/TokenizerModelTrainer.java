@@ -13,31 +13,47 @@
  */
 package org.babzel.tools.opennlp.model.train;
 
-import io.vavr.collection.Seq;
 import io.vavr.control.Option;
+import java.util.HashMap;
 import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
+import opennlp.tools.tokenize.TokSpanEventStream;
 import opennlp.tools.tokenize.TokenSample;
 import opennlp.tools.tokenize.TokenizerFactory;
-import opennlp.tools.tokenize.TokenizerME;
 import opennlp.tools.tokenize.TokenizerModel;
 import opennlp.tools.util.InsufficientTrainingDataException;
 import opennlp.tools.util.TrainingParameters;
-import org.babzel.tools.opennlp.model.util.SeqObjectStream;
+import org.babzel.tools.opennlp.model.ModelType;
+import org.babzel.tools.opennlp.model.util.SampleObjectStream;
+import org.babzel.tools.opennlp.model.util.SampleSource;
 import org.springframework.stereotype.Component;
 
 @Component
+@RequiredArgsConstructor
 public class TokenizerModelTrainer implements ModelTrainer<TokenizerModel, TokenSample> {
+    @NonNull
+    private final TrainingParametersFactory parametersFactory;
+
+    @Override
+    public TrainingParameters getTrainingParameters(@NonNull String algorithm, @NonNull String language) {
+        return parametersFactory.createTrainingParameters(ModelType.TOKENIZER, algorithm);
+    }
+
     @Override
     @SneakyThrows
-    public Option<TokenizerModel> trainModel(@NonNull String algorithm, @NonNull String language, @NonNull Seq<TokenSample> samples) {
+    public Option<TokenizerModel> trainModel(@NonNull String algorithm, @NonNull String language, @NonNull SampleSource<TokenSample> samples, @NonNull DataIndexerCache indexers) {
         try {
-            var params = TrainingParameters.defaultParams();
-            params.put(TrainingParameters.ALGORITHM_PARAM, algorithm);
-            var model = TokenizerME.train(
-                    new SeqObjectStream<>(samples),
-                    new TokenizerFactory(language, null, false, null),
-                    params);
+            // the same as TokenizerME.train, apart from indexing of events which is shared
+            var params = getTrainingParameters(algorithm, language);
+            var factory = new TokenizerFactory(language, null, false, null);
+            var manifestInfoEntries = new HashMap<String, String>();
+            var maxentModel = indexers.trainModel(params, manifestInfoEntries, () -> new TokSpanEventStream(
+                    new SampleObjectStream<>(samples),
+                    factory.isUseAlphaNumericOptmization(),
+                    factory.getAlphaNumericPattern(),
+                    factory.getContextGenerator()));
+            var model = new TokenizerModel(maxentModel, manifestInfoEntries, factory);
             return Option.some(model);
         } catch (InsufficientTrainingDataException e) {
             return Option.none();
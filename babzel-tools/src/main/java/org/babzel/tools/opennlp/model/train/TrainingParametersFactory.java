@@ -0,0 +1,56 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.opennlp.model.train;
+
+import io.vavr.control.Try;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import opennlp.tools.util.TrainingParameters;
+import org.babzel.tools.util.ParallelismSupplier;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class TrainingParametersFactory {
+    @NonNull
+    private final TrainingProfileSupplier profileSupplier;
+    @NonNull
+    private final ParallelismSupplier parallelismSupplier;
+
+    public TrainingParameters createTrainingParameters(@NonNull String modelType, @NonNull String algorithm) {
+        // default parameters share processors among concurrent trainings, they are overridden by the profile of model type and algorithm
+        var params = TrainingParameters.defaultParams();
+        params.put(TrainingParameters.ALGORITHM_PARAM, algorithm);
+        params.put(TrainingParameters.THREADS_PARAM, getDefaultThreads());
+        var prefix = String.format("%s.%s.", modelType, algorithm);
+        profileSupplier.getTrainingProfile()
+                .filterKeys(key -> key.startsWith(prefix) && key.length() > prefix.length())
+                .forEach((key, value) -> putParameter(params, key.substring(prefix.length()), value.trim()));
+        return params;
+    }
+
+    private int getDefaultThreads() {
+        return Math.max(1, Runtime.getRuntime().availableProcessors() / Math.max(1, parallelismSupplier.getParallelism()));
+    }
+
+    private void putParameter(TrainingParameters params, String name, String value) {
+        // numbers are kept as numbers, OpenNLP trainers read them as integers
+        var number = Try.of(() -> Integer.parseInt(value));
+        if (number.isSuccess()) {
+            params.put(name, number.get());
+        } else {
+            params.put(name, value);
+        }
+    }
+}
@@ -32,6 +32,7 @@ public class EvalReportPersister {
             int evaluationSampleSize,
             @NonNull String algorithm,
             @NonNull BaseModel model,
+            @NonNull String rejectionDetails,
             @NonNull String misclassifiedDetails,
             @NonNull Path evalReportPath) {
         var evaluationProperties = Vector.of(String.format("Evaluation-Score=%s", evaluationScore),
@@ -39,6 +40,7 @@ public class EvalReportPersister {
                 String.format("Evaluation-Sample-Size=%s", evaluationSampleSize),
                 String.format("Training-Algorithm=%s", algorithm));
         var modelProperties = TreeMap.ofAll(model.getArtifact("manifest.properties")).map(e -> String.format("%s=%s", e._1, e._2));
+        var rejectionTxt = Vector.of(rejectionDetails.split("\\R"));
         var misclassifiedTxt = Vector.of(misclassifiedDetails.split("\\R"));
         var reportTxt = Vector.of("=== EVALUATION INFO ===")
                 .appendAll(evaluationProperties)
@@ -46,6 +48,9 @@ public class EvalReportPersister {
                 .append("=== MODEL PROPERTIES ===")
                 .appendAll(modelProperties)
                 .append("")
+                .append("=== REJECTED SENTENCES ===")
+                .appendAll(rejectionTxt)
+                .append("")
                 .append("=== MISCLASSIFIED DETAILS ===")
                 .appendAll(misclassifiedTxt)
                 .mkString("\n");
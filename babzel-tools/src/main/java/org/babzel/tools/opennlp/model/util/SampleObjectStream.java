@@ -14,26 +14,35 @@
 package org.babzel.tools.opennlp.model.util;
 
 import io.vavr.collection.Iterator;
-import io.vavr.collection.Seq;
+import io.vavr.control.Option;
 import lombok.NonNull;
 import opennlp.tools.util.ObjectStream;
 
-public class SeqObjectStream<T> implements ObjectStream<T> {
-    private final Seq<T> seq;
-    private Iterator<T> it;
+public class SampleObjectStream<T> implements ObjectStream<T> {
+    private final SampleSource<T> samples;
+    private Option<Iterator<T>> it = Option.none();
 
-    public SeqObjectStream(@NonNull Seq<T> seq) {
-        this.seq = seq;
-        reset();
+    public SampleObjectStream(@NonNull SampleSource<T> samples) {
+        this.samples = samples;
     }
 
     @Override
     public T read() {
-        return it.hasNext() ? it.next() : null;
+        // pass is started by the first read, not by reset, so every pass opens exactly one iterator
+        if (it.isEmpty()) {
+            it = Option.some(samples.iterator());
+        }
+        return it.get().hasNext() ? it.get().next() : null;
     }
 
     @Override
     public void reset() {
-        it = seq.iterator();
+        close();
+    }
+
+    @Override
+    public void close() {
+        it.forEach(SampleSource::closeIterator);
+        it = Option.none();
     }
 }
@@ -0,0 +1,48 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.opennlp.model.util;
+
+import io.vavr.collection.Iterator;
+import io.vavr.collection.Seq;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+
+public interface SampleSource<S> {
+    public int size();
+
+    // every call starts a new pass over all samples
+    public Iterator<S> iterator();
+
+    @SneakyThrows
+    public static void closeIterator(@NonNull Iterator<?> it) {
+        // iterators holding resources are closeable, a pass which is not finished releases them when it is abandoned
+        if (it instanceof AutoCloseable) {
+            ((AutoCloseable) it).close();
+        }
+    }
+
+    public static <S> SampleSource<S> of(@NonNull Seq<S> samples) {
+        return new SampleSource<>() {
+            @Override
+            public int size() {
+                return samples.size();
+            }
+
+            @Override
+            public Iterator<S> iterator() {
+                return samples.iterator();
+            }
+        };
+    }
+}
@@ -15,19 +15,87 @@ package org.babzel.tools.opennlp.model.util;
 
 import io.vavr.Tuple;
 import io.vavr.Tuple2;
-import io.vavr.collection.Seq;
-import java.io.Serializable;
+import io.vavr.collection.Iterator;
+import java.util.NoSuchElementException;
 import lombok.NonNull;
 import org.springframework.stereotype.Component;
 
 @Component
 public class SampleSplitter {
-    public <S extends Serializable> Tuple2<Seq<S>, Seq<S>> splitSamples(@NonNull Seq<S> samples) {
+    private static final int EVALUATION_SAMPLE_INTERVAL = 10;
+
+    public <S> Tuple2<SampleSource<S>, SampleSource<S>> splitSamples(@NonNull SampleSource<S> samples) {
         // split samples
         // train samples contains 90% of original samples
         // evaluation samples contains 10% of original samples (every 10th element)
-        return samples.zipWithIndex()
-                .partition(t -> (t._2 + 1) % 10 != 0)
-                .map((zs1, zs2) -> Tuple.of(zs1.map(Tuple2::_1), zs2.map(Tuple2::_1)));
+        // both parts are views of original samples, nothing is copied
+        return Tuple.of(new SplitSampleSource<>(samples, false), new SplitSampleSource<>(samples, true));
+    }
+
+    private static boolean isEvaluationIndex(long index) {
+        return (index + 1) % EVALUATION_SAMPLE_INTERVAL == 0;
+    }
+
+    private static class SplitSampleSource<S> implements SampleSource<S> {
+        private final SampleSource<S> samples;
+        private final boolean evaluation;
+
+        public SplitSampleSource(SampleSource<S> samples, boolean evaluation) {
+            this.samples = samples;
+            this.evaluation = evaluation;
+        }
+
+        @Override
+        public int size() {
+            var evaluationSize = samples.size() / EVALUATION_SAMPLE_INTERVAL;
+            return evaluation ? evaluationSize : samples.size() - evaluationSize;
+        }
+
+        @Override
+        public Iterator<S> iterator() {
+            return new SplitIterator<>(samples.iterator(), evaluation);
+        }
+    }
+
+    private static class SplitIterator<S> implements Iterator<S>, AutoCloseable {
+        // samples are skipped on the fly, only the index of the next sample is kept
+        private final Iterator<S> it;
+        private final boolean evaluation;
+        private long nextIndex;
+        private boolean nextAvailable;
+        private S next;
+
+        public SplitIterator(Iterator<S> it, boolean evaluation) {
+            this.it = it;
+            this.evaluation = evaluation;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!nextAvailable && it.hasNext()) {
+                var sample = it.next();
+                if (isEvaluationIndex(nextIndex++) == evaluation) {
+                    next = sample;
+                    nextAvailable = true;
+                }
+            }
+            return nextAvailable;
+        }
+
+        @Override
+        public S next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            var sample = next;
+            next = null;
+            nextAvailable = false;
+            return sample;
+        }
+
+        @Override
+        public void close() {
+            SampleSource.closeIterator(it);
+        }
     }
 }
@@ -0,0 +1,261 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.opennlp.model.util;
+
+import io.vavr.collection.Iterator;
+import io.vavr.control.Option;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import org.babzel.tools.util.PathUtils;
+
+public class SampleStore<S extends Serializable> implements SampleSource<S>, AutoCloseable {
+    private static final int RESET_INTERVAL = 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private final int size;
+    private final Option<MemoryOutputStream> memorySamples;
+    private final Option<Path> spillPath;
+    private final Set<InputStream> openStreams = ConcurrentHashMap.newKeySet();
+
+    private SampleStore(int size, Option<MemoryOutputStream> memorySamples, Option<Path> spillPath) {
+        this.size = size;
+        this.memorySamples = memorySamples;
+        this.spillPath = spillPath;
+    }
+
+    @SneakyThrows
+    public static <S extends Serializable> SampleStore<S> write(@NonNull Iterator<S> samples, long memoryBudget, @NonNull Path spillPath) {
+        // samples are serialized and compressed as they are iterated
+        // they are kept in memory until the compressed size exceeds the budget, then all of them are moved to the spill file
+        var out = new SpillingOutputStream(memoryBudget, spillPath);
+        var deflater = new Deflater(Deflater.BEST_SPEED);
+        var size = 0;
+        try (var objectOut = new ObjectOutputStream(new DeflaterOutputStream(out, deflater, BUFFER_SIZE))) {
+            for (var sample : samples) {
+                objectOut.writeObject(sample);
+                // written objects are remembered by the stream until it is reset
+                if (++size % RESET_INTERVAL == 0) {
+                    objectOut.reset();
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(spillPath);
+            throw ex;
+        } finally {
+            deflater.end();
+        }
+        return out.isSpilled()
+                ? new SampleStore<>(size, Option.none(), Option.some(spillPath))
+                : new SampleStore<>(size, Option.some(out.getMemoryOut()), Option.none());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public boolean isSpilled() {
+        return spillPath.isDefined();
+    }
+
+    public long getMemorySize() {
+        return memorySamples.map(MemoryOutputStream::getCapacity).getOrElse(0);
+    }
+
+    @Override
+    public Iterator<S> iterator() {
+        // every pass reads its own stream, several passes can run at the same time
+        return size > 0 ? new SampleIterator(openStream()) : Iterator.empty();
+    }
+
+    @Override
+    @SneakyThrows
+    public void close() {
+        // streams of unfinished passes are closed together with the store
+        for (var in : openStreams) {
+            closeStream(in);
+        }
+        if (spillPath.isDefined()) {
+            Files.deleteIfExists(spillPath.get());
+        }
+    }
+
+    @SneakyThrows
+    private ObjectInputStream openStream() {
+        var in = memorySamples.isDefined()
+                ? memorySamples.get().toInputStream()
+                : new BufferedInputStream(Files.newInputStream(spillPath.get()), BUFFER_SIZE);
+        try {
+            var objectIn = new ObjectInputStream(new InflaterInputStream(in));
+            openStreams.add(objectIn);
+            return objectIn;
+        } catch (IOException | RuntimeException ex) {
+            in.close();
+            throw ex;
+        }
+    }
+
+    @SneakyThrows
+    private void closeStream(InputStream in) {
+        openStreams.remove(in);
+        in.close();
+    }
+
+    private class SampleIterator implements Iterator<S>, AutoCloseable {
+        // stream is closed as soon as the last sample is read or the pass is abandoned
+        private final ObjectInputStream in;
+        private int readCount;
+        private boolean closed;
+
+        public SampleIterator(ObjectInputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !closed && readCount < size;
+        }
+
+        @Override
+        @SneakyThrows
+        @SuppressWarnings("unchecked")
+        public S next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            var sample = (S) in.readObject();
+            if (++readCount == size) {
+                close();
+            }
+            return sample;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                closeStream(in);
+            }
+        }
+    }
+
+    private static class MemoryOutputStream extends ByteArrayOutputStream {
+        private final long memoryBudget;
+
+        public MemoryOutputStream(long memoryBudget) {
+            super((int) Math.min(BUFFER_SIZE, Math.max(0, memoryBudget)));
+            this.memoryBudget = Math.min(MAX_ARRAY_SIZE, memoryBudget);
+        }
+
+        public int getCapacity() {
+            return buf.length;
+        }
+
+        public boolean reserve(int len) {
+            // buffer doubles like in ByteArrayOutputStream, but never beyond the budget
+            // so the allocated capacity, not only the written size, stays within the budget
+            var required = (long) count + len;
+            if (required <= buf.length) {
+                return true;
+            }
+            if (required > memoryBudget) {
+                return false;
+            }
+            buf = Arrays.copyOf(buf, (int) Math.min(Math.max(2L * buf.length, required), memoryBudget));
+            return true;
+        }
+
+        public InputStream toInputStream() {
+            // written bytes are shared by all passes, they are never copied
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+    }
+
+    private static class SpillingOutputStream extends OutputStream {
+        private final Path spillPath;
+        private MemoryOutputStream memoryOut;
+        private OutputStream fileOut;
+
+        public SpillingOutputStream(long memoryBudget, Path spillPath) {
+            this.memoryOut = new MemoryOutputStream(memoryBudget);
+            this.spillPath = spillPath;
+        }
+
+        public boolean isSpilled() {
+            return fileOut != null;
+        }
+
+        public MemoryOutputStream getMemoryOut() {
+            return memoryOut;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (!isSpilled() && !memoryOut.reserve(len)) {
+                spill();
+            }
+            if (isSpilled()) {
+                fileOut.write(b, off, len);
+            } else {
+                memoryOut.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (isSpilled()) {
+                fileOut.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (isSpilled()) {
+                fileOut.close();
+            }
+        }
+
+        private void spill() throws IOException {
+            PathUtils.createParentDirectories(spillPath);
+            fileOut = new BufferedOutputStream(Files.newOutputStream(spillPath), BUFFER_SIZE);
+            memoryOut.writeTo(fileOut);
+            memoryOut = null;
+        }
+    }
+}
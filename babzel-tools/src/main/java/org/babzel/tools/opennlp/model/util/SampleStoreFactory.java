@@ -0,0 +1,33 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.opennlp.model.util;
+
+import io.vavr.collection.Iterator;
+import java.io.Serializable;
+import java.nio.file.Path;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class SampleStoreFactory {
+    @NonNull
+    private final SampleMemorySupplier memorySupplier;
+
+    public <S extends Serializable> SampleStore<S> createStore(@NonNull Iterator<S> samples, @NonNull Path spillPath) {
+        // spill file is used only when samples do not fit into the memory budget, it is deleted when the store is closed
+        return SampleStore.write(samples, Math.max(0, memorySupplier.getSampleMemory()), spillPath);
+    }
+}
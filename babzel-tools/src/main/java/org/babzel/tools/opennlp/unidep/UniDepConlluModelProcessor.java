@@ -13,26 +13,45 @@
  */
 package org.babzel.tools.opennlp.unidep;
 
+import io.vavr.Lazy;
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import io.vavr.collection.LinkedHashMap;
 import io.vavr.collection.Seq;
 import io.vavr.collection.Vector;
+import io.vavr.control.Option;
+import io.vavr.control.Try;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.apachecommons.CommonsLog;
 import org.babzel.tools.opennlp.conllu.ConlluLemmatizerModelProcessor;
 import org.babzel.tools.opennlp.conllu.ConlluPOSModelProcessor;
 import org.babzel.tools.opennlp.conllu.ConlluSentenceModelProcessor;
 import org.babzel.tools.opennlp.conllu.ConlluTokenizerModelProcessor;
+import org.babzel.tools.opennlp.conllu.corpus.ConlluCorpusFactory;
 import org.babzel.tools.opennlp.model.ModelAlgorithm;
 import org.babzel.tools.opennlp.unidep.util.UniDepConlluModelFileSupplier;
+import org.babzel.tools.util.LanguageParallelismSupplier;
+import org.babzel.tools.util.ParallelExecutor;
 import org.springframework.stereotype.Component;
 
 @Component
 @RequiredArgsConstructor
+@CommonsLog
 public class UniDepConlluModelProcessor {
     @NonNull
     private final UniDepConlluModelFileSupplier fileSupplier;
     @NonNull
     private final UniDepConlluProcessor conlluTrainFileProcessor;
     @NonNull
+    private final ConlluCorpusFactory corpusFactory;
+    @NonNull
     private final ConlluSentenceModelProcessor sentenceModelProcessor;
     @NonNull
     private final ConlluTokenizerModelProcessor tokenizerModelProcessor;
@@ -40,6 +59,10 @@ public class UniDepConlluModelProcessor {
     private final ConlluPOSModelProcessor posModelProcessor;
     @NonNull
     private final ConlluLemmatizerModelProcessor lemmatizerModelProcessor;
+    @NonNull
+    private final ParallelExecutor executor;
+    @NonNull
+    private final LanguageParallelismSupplier languageParallelismSupplier;
 
     // MAXENT - try it
     // MAXENT_QN - try it
@@ -63,8 +86,50 @@ public class UniDepConlluModelProcessor {
     public static final Seq<String> LEMMATIZER_ALGORITHMS = Vector.of(ModelAlgorithm.MAXENT);
 
     public void processUniDepConlluModel(@NonNull String language) {
+        var conlluFile = prepareConlluFile(language);
+        trainModels(language, conlluFile);
+    }
+
+    public Seq<String> processUniDepConlluModels(@NonNull Seq<String> languages) {
+        // marker files of languages trained by previous runs are removed, only this run reports trained languages
+        languages.forEach(this::deleteTrainedMarker);
+        // conllu files are prepared first, so treebank sizes are known before training starts
+        var conlluFiles = languages.map(language -> Tuple.of(language, fileSupplier.getConlluFile(language)));
+        var prepared = runLanguageStep("Preparing conllu files", languages.mkString(", "), () -> prepareConlluFiles(conlluFiles));
+        if (prepared.isEmpty()) {
+            return languages;
+        }
+        // the largest treebanks take the longest, they are trained first
+        var sortedConlluFiles = conlluFiles.sortBy(Comparator.reverseOrder(), languageFile -> getFileSize(languageFile._2));
+        // languages are limited by training permits and by memory of corpus and samples of the largest language
+        var largestCorpusSize = sortedConlluFiles.headOption().map(languageFile -> getFileSize(languageFile._2)).getOrElse(0L);
+        var languageParallelism = languageParallelismSupplier.getLanguageParallelism(largestCorpusSize);
+        log.info(String.format("Training models for languages: %s, concurrently: %d", sortedConlluFiles.map(Tuple2::_1).mkString(", "), languageParallelism));
+        var trainedLanguages = executor.executeAll(
+                sortedConlluFiles.<Supplier<Option<String>>>map(languageFile -> () -> runLanguageStep("Training models", languageFile._1, () -> {
+                    trainModels(languageFile._1, languageFile._2);
+                    writeTrainedMarker(languageFile._1);
+                    return languageFile._1;
+                })),
+                languageParallelism);
+        // failure of one language does not stop processing of other languages, failed languages are returned
+        return languages.removeAll(trainedLanguages.flatMap(Function.identity()));
+    }
+
+    private Path prepareConlluFile(String language) {
         var treebankFile = fileSupplier.getTreebankFile();
         var conlluFile = fileSupplier.getConlluFile(language);
+        conlluTrainFileProcessor.processUniDepConlluFile(treebankFile, language, conlluFile);
+        return conlluFile;
+    }
+
+    private boolean prepareConlluFiles(Seq<Tuple2<String, Path>> conlluFiles) {
+        var treebankFile = fileSupplier.getTreebankFile();
+        conlluTrainFileProcessor.processUniDepConlluFiles(treebankFile, LinkedHashMap.ofEntries(conlluFiles));
+        return true;
+    }
+
+    private void trainModels(String language, Path conlluFile) {
         var sentenceModelFile = fileSupplier.getSentenceModelFile(language);
         var sentenceReportFile = fileSupplier.getSentenceReportFile(language);
         var tokenizerModelFile = fileSupplier.getTokenizerModelFile(language);
@@ -73,11 +138,39 @@ public class UniDepConlluModelProcessor {
         var posReportFile = fileSupplier.getPOSReportFile(language);
         var lemmatizerModelFile = fileSupplier.getLemmatizerModelFile(language);
         var lemmatizerReportFile = fileSupplier.getLemmatizerReportFile(language);
+        // conllu file is parsed and normalized at most once and shared by all model processors
+        var corpus = Lazy.of(() -> corpusFactory.createCorpus(conlluFile, language));
+        var corpusDigest = Lazy.of(() -> corpusFactory.getCorpusDigest(conlluFile, language));
         // try several algorithms and choose the best model
-        conlluTrainFileProcessor.processUniDepConlluFile(treebankFile, language, conlluFile);
-        sentenceModelProcessor.processConlluModel(conlluFile, TOKENIZER_ALGORITHMS, language, sentenceModelFile, sentenceReportFile);
-        tokenizerModelProcessor.processConlluModel(conlluFile, TOKENIZER_ALGORITHMS, language, tokenizerModelFile, tokenizerReportFile);
-        posModelProcessor.processConlluModel(conlluFile, POS_ALGORITHMS, language, posModelFile, posReportFile);
-        lemmatizerModelProcessor.processConlluModel(conlluFile, LEMMATIZER_ALGORITHMS, language, lemmatizerModelFile, lemmatizerReportFile);
+        // pipelines write distinct files, they are run concurrently when parallelism allows
+        executor.runAll(Vector.<Runnable>of(
+                () -> sentenceModelProcessor.processConlluModel(conlluFile, corpus, corpusDigest, TOKENIZER_ALGORITHMS, language, sentenceModelFile, sentenceReportFile),
+                () -> tokenizerModelProcessor.processConlluModel(conlluFile, corpus, corpusDigest, TOKENIZER_ALGORITHMS, language, tokenizerModelFile, tokenizerReportFile),
+                () -> posModelProcessor.processConlluModel(conlluFile, corpus, corpusDigest, POS_ALGORITHMS, language, posModelFile, posReportFile),
+                () -> lemmatizerModelProcessor.processConlluModel(conlluFile, corpus, corpusDigest, LEMMATIZER_ALGORITHMS, language, lemmatizerModelFile, lemmatizerReportFile)),
+                executor.getParallelism());
+    }
+
+    @SneakyThrows
+    private void deleteTrainedMarker(String language) {
+        Files.deleteIfExists(fileSupplier.getTrainedMarkerFile(language));
+    }
+
+    @SneakyThrows
+    private void writeTrainedMarker(String language) {
+        // marker is written when all models of the language are trained, scripts publish only marked languages
+        var markerFile = fileSupplier.getTrainedMarkerFile(language);
+        Files.createDirectories(markerFile.toAbsolutePath().getParent());
+        Files.write(markerFile, new byte[0]);
+    }
+
+    private <T> Option<T> runLanguageStep(String stepName, String language, Supplier<T> step) {
+        return Try.ofSupplier(step)
+                .onFailure(ex -> log.error(String.format("%s failed, language: '%s'", stepName, language), ex))
+                .toOption();
+    }
+
+    private long getFileSize(Path path) {
+        return Try.of(() -> Files.size(path)).getOrElse(0L);
     }
 }
@@ -13,13 +13,16 @@
  */
 package org.babzel.tools.opennlp.unidep;
 
+import io.vavr.collection.Map;
 import java.net.URL;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.apachecommons.CommonsLog;
 import org.babzel.tools.opennlp.unidep.util.UniDepConlluUncompressor;
 import org.babzel.tools.opennlp.unidep.util.UniDepURLSupplier;
+import org.babzel.tools.util.FileDigester;
 import org.babzel.tools.util.FileDownloader;
 import org.babzel.tools.util.FileUpToDateChecker;
 import org.springframework.stereotype.Component;
@@ -36,8 +39,37 @@ public class UniDepConlluProcessor {
     private final FileDownloader fileDownloader;
     @NonNull
     private final UniDepConlluUncompressor uniDepConlluUncompressor;
+    @NonNull
+    private final FileDigester digester;
 
     public void processUniDepConlluFile(@NonNull Path uniDepTreebankPath, @NonNull String language, @NonNull Path conlluPath) {
+        downloadTreebank(uniDepTreebankPath);
+        if (!isConlluUpToDate(conlluPath, uniDepTreebankPath)) {
+            log.info(String.format("Uncompressing treebank for language: '%s' to conllu file: '%s'", language, conlluPath));
+            uniDepConlluUncompressor.uncompressConlluFile(uniDepTreebankPath, language, conlluPath);
+        } else {
+            log.info(String.format("Skip uncompressing treebank for language: '%s', conllu file: '%s' is up to date", language, conlluPath));
+        }
+    }
+
+    public void processUniDepConlluFiles(@NonNull Path uniDepTreebankPath, @NonNull Map<String, Path> conlluPathsByLanguage) {
+        downloadTreebank(uniDepTreebankPath);
+        var outOfDateConlluPaths = conlluPathsByLanguage.filter((language, conlluPath) -> !isConlluUpToDate(conlluPath, uniDepTreebankPath));
+        conlluPathsByLanguage.filterKeys(language -> !outOfDateConlluPaths.containsKey(language))
+                .forEach((language, conlluPath) -> log.info(String.format("Skip uncompressing treebank for language: '%s', conllu file: '%s' is up to date", language, conlluPath)));
+        if (!outOfDateConlluPaths.isEmpty()) {
+            // treebank is read once for all languages
+            log.info(String.format("Uncompressing treebank for languages: %s", outOfDateConlluPaths.keySet().mkString(", ")));
+            uniDepConlluUncompressor.uncompressConlluFiles(uniDepTreebankPath, outOfDateConlluPaths);
+        }
+    }
+
+    private boolean isConlluUpToDate(Path conlluPath, Path uniDepTreebankPath) {
+        // conllu file is rewritten only when its content changed, its recorded digest is rewritten by every extraction
+        return Files.exists(conlluPath) && fileUpToDateChecker.isUpToDate(digester.getDigestPath(conlluPath), uniDepTreebankPath);
+    }
+
+    private void downloadTreebank(Path uniDepTreebankPath) {
         log.info("Get Universal Dependencies treebank URL");
         URL treebankURL = uniDepURLSupplier.supplyTreebankURL();
         if (!fileUpToDateChecker.isUpToDate(uniDepTreebankPath, treebankURL)) {
@@ -46,11 +78,5 @@ public class UniDepConlluProcessor {
         } else {
             log.info(String.format("Skip downloading treebank from: '%s', treebank file: '%s' is up to date", treebankURL, uniDepTreebankPath));
         }
-        if (!fileUpToDateChecker.isUpToDate(conlluPath, uniDepTreebankPath)) {
-            log.info(String.format("Uncompressing treebank for language: '%s' to conllu file: '%s'", language, conlluPath));
-            uniDepConlluUncompressor.uncompressConlluFile(uniDepTreebankPath, language, conlluPath);
-        } else {
-            log.info(String.format("Skip uncompressing treebank for language: '%s', conllu file: '%s' is up to date", language, conlluPath));
-        }
     }
 }
@@ -68,6 +68,10 @@ public class UniDepConlluModelFileSupplier {
         return getResourceDir(language).resolve(String.format("%s-lemmatizer.txt", language));
     }
 
+    public Path getTrainedMarkerFile(@NonNull String language) {
+        return getResourceDir(language).resolve(String.format("%s.trained", language));
+    }
+
     private Path getRootDir() {
         return rootDirectorySupplier.getRootDirectory();
     }
@@ -13,73 +13,205 @@
  */
 package org.babzel.tools.opennlp.unidep.util;
 
-import io.vavr.Tuple;
-import io.vavr.Tuple2;
-import io.vavr.collection.Seq;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.Map;
 import io.vavr.collection.SortedMap;
 import io.vavr.collection.TreeMap;
-import io.vavr.collection.Vector;
+import io.vavr.control.Option;
 import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
 import java.util.regex.Pattern;
 import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
-import org.apache.commons.compress.utils.IOUtils;
+import org.apache.commons.compress.utils.CloseShieldFilterInputStream;
+import org.babzel.tools.util.FileDigester;
 import org.babzel.tools.util.PathUtils;
 import org.springframework.stereotype.Component;
 
 @Component
+@RequiredArgsConstructor
 public class UniDepConlluUncompressor {
     private static final Pattern CONLLU_FILE_NAME_PATTERN = Pattern.compile(".*/([A-Za-z]+)_.*\\.conllu");
 
-    @SneakyThrows
+    @NonNull
+    private final FileDigester digester;
+
     public void uncompressConlluFile(@NonNull Path uniDepTreebankPath, @NonNull String language, @NonNull Path conlluPath) {
-        SortedMap<String, Seq<String>> conlluTxtByFileName = TreeMap.empty();
+        uncompressConlluFiles(uniDepTreebankPath, HashMap.of(language, conlluPath));
+    }
+
+    @SneakyThrows
+    public void uncompressConlluFiles(@NonNull Path uniDepTreebankPath, @NonNull Map<String, Path> conlluPathsByLanguage) {
+        // the archive is read once for all languages
+        // every matching entry is streamed to its own part file, parts are joined in the order of entry names
+        var conlluPaths = conlluPathsByLanguage.mapKeys(String::toLowerCase);
+        var partPathsByLanguage = conlluPaths.mapValues(conlluPath -> TreeMap.<String, Path>empty());
         try (var in = new BufferedInputStream(Files.newInputStream(uniDepTreebankPath));
                 var gzipIn = new GzipCompressorInputStream(in);
                 var tarIn = new TarArchiveInputStream(gzipIn)) {
             for (var entry = tarIn.getNextTarEntry(); entry != null; entry = tarIn.getNextTarEntry()) {
-                if (isConlluFile(entry, language)) {
-                    conlluTxtByFileName = conlluTxtByFileName.put(entry.getName(), readConnluFile(tarIn));
+                var languageOpt = getConlluFileLanguage(entry).filter(conlluPaths::containsKey);
+                if (languageOpt.isDefined()) {
+                    var language = languageOpt.get();
+                    var partPaths = partPathsByLanguage.get(language).get();
+                    var partPath = getPartPath(conlluPaths.get(language).get(), partPaths.size());
+                    writeConlluPart(entry.getName(), new CloseShieldFilterInputStream(tarIn), partPath);
+                    partPathsByLanguage = partPathsByLanguage.put(language, partPaths.put(entry.getName(), partPath));
                 }
             }
+        } catch (IOException | RuntimeException ex) {
+            partPathsByLanguage.values().flatMap(SortedMap::values).forEach(this::deletePart);
+            throw ex;
         }
-        var conlluTxt = conlluTxtByFileName
-                .map(this::adjustConlluTxt)
-                .values()
-                .foldLeft(Vector.<String>empty(), Vector::appendAll)
-                .mkString("\n");
-        PathUtils.createParentDirectories(conlluPath);
-        Files.writeString(conlluPath, conlluTxt);
+        partPathsByLanguage.forEach((language, partPaths) -> joinConlluParts(partPaths, conlluPaths.get(language).get()));
     }
 
-    private boolean isConlluFile(TarArchiveEntry entry, String language) {
+    private Option<String> getConlluFileLanguage(TarArchiveEntry entry) {
         if (entry.isFile()) {
             var matcher = CONLLU_FILE_NAME_PATTERN.matcher(entry.getName());
             if (matcher.matches()) {
-                return language.equalsIgnoreCase(matcher.group(1));
+                return Option.some(matcher.group(1).toLowerCase());
             }
         }
-        return false;
+        return Option.none();
+    }
+
+    private Path getPartPath(Path conlluPath, int partIndex) {
+        return conlluPath.resolveSibling(String.format("%s.%d.part", conlluPath.getFileName(), partIndex));
     }
 
     @SneakyThrows
-    private Seq<String> readConnluFile(TarArchiveInputStream tarIn) {
-        var bytes = IOUtils.toByteArray(tarIn);
-        var str = new String(bytes, StandardCharsets.UTF_8);
+    private void writeConlluPart(String fileName, InputStream in, Path partPath) {
         // keep only useful lines, remove comments
-        return Vector.of(str.split("\\R"))
-                .filter(line -> line.startsWith("#") && line.contains("text") || !line.startsWith("#"));
+        // lines are written as they are read, the entry is never kept in memory
+        PathUtils.createParentDirectories(partPath);
+        try (var reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+                var writer = Files.newBufferedWriter(partPath, StandardCharsets.UTF_8)) {
+            var lineWriter = new ConlluLineWriter(writer);
+            lineWriter.writeLine("####### " + fileName);
+            forEachLine(reader, lineWriter::acceptLine);
+            lineWriter.finish();
+        }
+    }
+
+    @SneakyThrows
+    private void joinConlluParts(SortedMap<String, Path> partPaths, Path conlluPath) {
+        // digest of the joined content is computed while it is written
+        // conllu file is replaced only when its content changed, so its modification time shows the last real change
+        PathUtils.createParentDirectories(conlluPath);
+        var joinedPath = conlluPath.resolveSibling(conlluPath.getFileName() + ".part");
+        var messageDigest = digester.createMessageDigest();
+        try {
+            try (var out = new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(joinedPath)), messageDigest)) {
+                for (var partPath : partPaths.values().zipWithIndex()) {
+                    if (partPath._2 > 0) {
+                        out.write('\n');
+                    }
+                    Files.copy(partPath._1, out);
+                }
+            }
+            var digest = digester.formatDigest(messageDigest);
+            if (!digester.readRecordedDigest(conlluPath).contains(digest)) {
+                Files.move(joinedPath, conlluPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            // digest is recorded after every extraction, also when the content did not change
+            digester.recordDigest(conlluPath, digest);
+        } finally {
+            deletePart(joinedPath);
+            partPaths.values().forEach(this::deletePart);
+        }
     }
 
-    private Tuple2<String, Seq<String>> adjustConlluTxt(String fileName, Seq<String> lines) {
-        lines = lines.prepend("####### " + fileName);
-        lines = !lines.last().isEmpty() ? lines.append("") : lines;
-        return Tuple.of(fileName, lines);
+    @SneakyThrows
+    private void deletePart(Path partPath) {
+        Files.deleteIfExists(partPath);
+    }
+
+    @SneakyThrows
+    private void forEachLine(Reader reader, LineConsumer consumer) {
+        // lines are separated by any unicode line break sequence, the same as \\R
+        var buffer = new char[64 * 1024];
+        var line = new StringBuilder();
+        var previousCR = false;
+        for (int count = reader.read(buffer); count >= 0; count = reader.read(buffer)) {
+            for (int i = 0; i < count; i++) {
+                char c = buffer[i];
+                if (c == '\n' && previousCR) {
+                    // second character of \r\n sequence
+                    previousCR = false;
+                } else if (isLineBreak(c)) {
+                    consumer.accept(line.toString());
+                    line.setLength(0);
+                    previousCR = c == '\r';
+                } else {
+                    line.append(c);
+                    previousCR = false;
+                }
+            }
+        }
+        consumer.accept(line.toString());
+    }
+
+    private boolean isLineBreak(char c) {
+        return c == '\n' || c == '\u000B' || c == '\u000C' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private interface LineConsumer {
+        public void accept(String line) throws IOException;
+    }
+
+    private static class ConlluLineWriter {
+        private final Writer writer;
+        private boolean firstLine = true;
+        private boolean lastLineEmpty;
+        // empty lines are written only when followed by a non empty line, trailing empty lines are dropped
+        private int pendingEmptyLineCount;
+
+        public ConlluLineWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        public void acceptLine(String line) throws IOException {
+            if (line.isEmpty()) {
+                pendingEmptyLineCount++;
+                return;
+            }
+            for (; pendingEmptyLineCount > 0; pendingEmptyLineCount--) {
+                writeLine("");
+            }
+            if (!line.startsWith("#") || line.contains("text")) {
+                writeLine(line);
+            }
+        }
+
+        public void finish() throws IOException {
+            // every part ends with a single empty line, which separates it from the next part
+            if (!lastLineEmpty) {
+                writeLine("");
+            }
+        }
+
+        public void writeLine(String line) throws IOException {
+            if (!firstLine) {
+                writer.write('\n');
+            }
+            writer.write(line);
+            firstLine = false;
+            lastLineEmpty = line.isEmpty();
+        }
     }
 }
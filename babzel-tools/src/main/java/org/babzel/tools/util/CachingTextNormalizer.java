@@ -0,0 +1,126 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.util;
+
+import io.vavr.control.Option;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.NonNull;
+
+public class CachingTextNormalizer implements TextNormalizer {
+    // long texts (sentences) rarely repeat, only words are cached
+    private static final int MAX_CACHED_TEXT_LENGTH = 64;
+    private static final int SEGMENT_COUNT = 16;
+
+    private final TextNormalizer textNormalizer;
+    private final Segment[] segments;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    public CachingTextNormalizer(@NonNull TextNormalizer textNormalizer, int maxSize) {
+        this.textNormalizer = textNormalizer;
+        // cache is split into independently locked segments, so concurrent languages do not contend on a single lock
+        this.segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(Math.max(1, maxSize / SEGMENT_COUNT));
+        }
+    }
+
+    @Override
+    public String normalizeText(String text, String language) {
+        if (text == null || text.length() > MAX_CACHED_TEXT_LENGTH) {
+            return textNormalizer.normalizeText(text, language);
+        }
+        var key = new CacheKey(language, text);
+        var segment = segments[Math.floorMod(key.hashCode(), SEGMENT_COUNT)];
+        var normalizedText = segment.get(key);
+        if (normalizedText != null) {
+            hitCount.increment();
+            return normalizedText;
+        }
+        missCount.increment();
+        // text is normalized outside of the lock, a text normalized concurrently twice gives the same result
+        normalizedText = textNormalizer.normalizeText(text, language);
+        segment.put(key, normalizedText);
+        return normalizedText;
+    }
+
+    @Override
+    public String getName() {
+        // cache does not change results, it is transparent for up to date checks
+        return textNormalizer.getName();
+    }
+
+    @Override
+    public Option<String> getStatistics() {
+        return Option.some(String.format("cache hits: %d, cache misses: %d", getHitCount(), getMissCount()));
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    private static class CacheKey {
+        private final String language;
+        private final String text;
+        private final int hashCode;
+
+        public CacheKey(String language, String text) {
+            this.language = language;
+            this.text = text;
+            this.hashCode = 31 * String.valueOf(language).hashCode() + text.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof CacheKey)) {
+                return false;
+            }
+            var other = (CacheKey) obj;
+            return hashCode == other.hashCode && text.equals(other.text) && String.valueOf(language).equals(String.valueOf(other.language));
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static class Segment {
+        private final Map<CacheKey, String> entries;
+
+        public Segment(int maxSize) {
+            // access ordered map, the least recently used entry is evicted
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<CacheKey, String> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        public synchronized String get(CacheKey key) {
+            return entries.get(key);
+        }
+
+        public synchronized void put(CacheKey key, String value) {
+            entries.put(key, value);
+        }
+    }
+}
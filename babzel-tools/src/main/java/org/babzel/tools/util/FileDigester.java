@@ -0,0 +1,89 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.util;
+
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import org.springframework.stereotype.Component;
+
+@Component
+public class FileDigester {
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    @SneakyThrows
+    public MessageDigest createMessageDigest() {
+        return MessageDigest.getInstance(DIGEST_ALGORITHM);
+    }
+
+    @SneakyThrows
+    public String digestFile(@NonNull Path path) {
+        var digest = createMessageDigest();
+        try (var in = Files.newInputStream(path)) {
+            var buffer = new byte[64 * 1024];
+            for (var count = in.read(buffer); count >= 0; count = in.read(buffer)) {
+                digest.update(buffer, 0, count);
+            }
+        }
+        return formatDigest(digest);
+    }
+
+    public String digestStrings(@NonNull Seq<String> strings) {
+        var digest = createMessageDigest();
+        for (var string : strings) {
+            // every string is terminated, so different splits of the same characters give different digests
+            digest.update(string.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return formatDigest(digest);
+    }
+
+    public String formatDigest(@NonNull MessageDigest digest) {
+        var bytes = digest.digest();
+        return String.format("%0" + (bytes.length * 2) + "x", new BigInteger(1, bytes));
+    }
+
+    @SneakyThrows
+    public String getFileDigest(@NonNull Path path) {
+        // digest recorded alongside the file is used as long as the file was not modified after it was recorded
+        var digestPath = getDigestPath(path);
+        if (Files.exists(digestPath) && Files.getLastModifiedTime(path).compareTo(Files.getLastModifiedTime(digestPath)) <= 0) {
+            return Files.readString(digestPath).trim();
+        }
+        return digestFile(path);
+    }
+
+    @SneakyThrows
+    public Option<String> readRecordedDigest(@NonNull Path path) {
+        var digestPath = getDigestPath(path);
+        return Files.exists(path) && Files.exists(digestPath)
+                ? Option.some(Files.readString(digestPath).trim())
+                : Option.none();
+    }
+
+    @SneakyThrows
+    public void recordDigest(@NonNull Path path, @NonNull String digest) {
+        Files.writeString(getDigestPath(path), digest);
+    }
+
+    public Path getDigestPath(@NonNull Path path) {
+        return path.resolveSibling(path.getFileName() + ".sha256");
+    }
+}
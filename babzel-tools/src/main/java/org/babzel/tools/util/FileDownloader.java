@@ -16,6 +16,9 @@ package org.babzel.tools.util;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
@@ -29,8 +32,14 @@ public class FileDownloader {
 
     @SneakyThrows
     public void downloadFile(@NonNull URL inputURL, @NonNull Path outputPath) {
-        var bytes = webClient.makeGetRequest(inputURL).getBody().getOrElse(new byte[0]);
         PathUtils.createParentDirectories(outputPath);
-        Files.write(outputPath, bytes);
+        // content is streamed to a partial file, an interrupted download is resumed by the next attempt
+        var partPath = outputPath.resolveSibling(outputPath.getFileName() + ".part");
+        var rangeStart = Files.exists(partPath) ? Files.size(partPath) : 0;
+        webClient.makeGetRequest(inputURL, rangeStart, partPath);
+        // output file is replaced only by a complete download
+        Files.move(partPath, outputPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        // downloaded file is newer than files created from its previous version
+        Files.setLastModifiedTime(outputPath, FileTime.from(Instant.now()));
     }
 }
@@ -70,4 +70,32 @@ public class FileUpToDateChecker {
         }
         return false;
     }
+
+    @SneakyThrows
+    public boolean isUpToDate(@NonNull Path outputPath, @NonNull String inputDigest) {
+        // output is up to date when it was created from inputs with the same digest, modification times do not matter
+        var digestPath = getInputDigestPath(outputPath);
+        if (Files.exists(outputPath) && Files.exists(digestPath)) {
+            return inputDigest.equals(Files.readString(digestPath));
+        }
+        return false;
+    }
+
+    @SneakyThrows
+    public void markUpToDate(@NonNull Path outputPath, @NonNull String inputDigest) {
+        if (Files.exists(outputPath)) {
+            Files.writeString(getInputDigestPath(outputPath), inputDigest);
+        }
+    }
+
+    @SneakyThrows
+    public void deleteOutput(@NonNull Path outputPath) {
+        // output which cannot be created from current inputs is removed together with the digest of its former inputs
+        Files.deleteIfExists(outputPath);
+        Files.deleteIfExists(getInputDigestPath(outputPath));
+    }
+
+    private Path getInputDigestPath(Path outputPath) {
+        return outputPath.resolveSibling(outputPath.getFileName() + ".inputs");
+    }
 }
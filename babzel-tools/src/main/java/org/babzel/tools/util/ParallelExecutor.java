@@ -0,0 +1,121 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.util;
+
+import io.vavr.Lazy;
+import io.vavr.collection.Seq;
+import io.vavr.collection.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ParallelExecutor {
+    private final Lazy<Integer> parallelism;
+    private final Lazy<Semaphore> permits;
+    private final Lazy<ExecutorService> executor;
+
+    public ParallelExecutor(@NonNull ParallelismSupplier parallelismSupplier) {
+        // parallelism is read on first use, it may be configured after the context is created
+        this.parallelism = Lazy.of(() -> Math.max(1, parallelismSupplier.getParallelism()));
+        // permits bound the number of memory intensive tasks running at the same time
+        this.permits = Lazy.of(() -> new Semaphore(getParallelism(), true));
+        // threads are not bounded, tasks waiting for permits or for nested tasks must not block each other
+        this.executor = Lazy.of(() -> Executors.newCachedThreadPool(new WorkerThreadFactory()));
+    }
+
+    public int getParallelism() {
+        return parallelism.get();
+    }
+
+    public <T> Seq<T> executeAll(@NonNull Seq<Supplier<T>> tasks) {
+        return executeAll(tasks, tasks.size());
+    }
+
+    public <T> Seq<T> executeAll(@NonNull Seq<Supplier<T>> tasks, int maxConcurrentTasks) {
+        // tasks are executed concurrently, results are returned in the order of tasks
+        // tasks are started in order, every worker takes the next task as soon as the previous one is finished
+        // only the requested concurrency decides, memory intensive tasks are bounded by permits instead
+        var workerCount = Math.min(tasks.size(), maxConcurrentTasks);
+        if (workerCount <= 1) {
+            return tasks.map(Supplier::get);
+        }
+        var results = new AtomicReferenceArray<T>(tasks.size());
+        var nextTaskIndex = new AtomicInteger();
+        Callable<Integer> worker = () -> {
+            var completedTaskCount = 0;
+            for (var taskIndex = nextTaskIndex.getAndIncrement(); taskIndex < tasks.size(); taskIndex = nextTaskIndex.getAndIncrement()) {
+                results.set(taskIndex, tasks.get(taskIndex).get());
+                completedTaskCount++;
+            }
+            return completedTaskCount;
+        };
+        var workers = Vector.fill(workerCount, () -> executor.get().submit(worker));
+        workers.forEach(this::getResult);
+        return Vector.tabulate(tasks.size(), results::get);
+    }
+
+    public void runAll(@NonNull Seq<Runnable> tasks) {
+        runAll(tasks, tasks.size());
+    }
+
+    public void runAll(@NonNull Seq<Runnable> tasks, int maxConcurrentTasks) {
+        executeAll(tasks.<Supplier<Runnable>>map(task -> () -> {
+            task.run();
+            return task;
+        }), maxConcurrentTasks);
+    }
+
+    @SneakyThrows
+    public <T> T executeWithPermit(@NonNull Supplier<T> task) {
+        var semaphore = permits.get();
+        semaphore.acquire();
+        try {
+            return task.get();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    @SneakyThrows
+    private <T> T getResult(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            var thread = new Thread(runnable, "babzel-worker-" + threadCount.incrementAndGet());
+            // worker threads do not prevent the application from exiting
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.util;
+
+import io.vavr.collection.Iterator;
+import io.vavr.collection.Seq;
+import io.vavr.collection.Traversable;
+import io.vavr.control.Option;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ParallelMapper {
+    public static final int CHUNK_SIZE = 256;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    @NonNull
+    private final ParallelExecutor executor;
+    @NonNull
+    private final ConversionParallelismSupplier parallelismSupplier;
+
+    public <T, R> Seq<R> map(@NonNull Traversable<T> items, @NonNull Function<? super T, ? extends R> mapper) {
+        return this.<T, R>mapLazily(items.iterator(), mapper).toVector();
+    }
+
+    public <T, R> Seq<R> flatMap(@NonNull Traversable<T> items, @NonNull Function<? super T, ? extends Iterable<? extends R>> mapper) {
+        return this.<T, R>flatMapLazily(items.iterator(), mapper).toVector();
+    }
+
+    public <T, R> Iterator<R> mapLazily(@NonNull Iterator<T> items, @NonNull Function<? super T, ? extends R> mapper) {
+        return flatMapLazily(items, item -> Option.some(mapper.apply(item)));
+    }
+
+    public <T, R> Iterator<R> flatMapLazily(@NonNull Iterator<T> items, @NonNull Function<? super T, ? extends Iterable<? extends R>> mapper) {
+        // mapper is called by several threads at the same time, so it must map every item independently of other items
+        // mapped items are returned in the order of input items, regardless of the number of threads
+        var parallelism = Math.max(1, parallelismSupplier.getConversionParallelism());
+        if (parallelism == 1) {
+            return items.flatMap(mapper);
+        }
+        // input is split into chunks which are mapped concurrently
+        // chunks are taken in waves while the result is iterated, so only a bounded part of the input is kept in memory at the same time
+        return items.grouped(CHUNK_SIZE).grouped(parallelism * CHUNKS_PER_THREAD)
+                .flatMap(wave -> executor.executeAll(wave.<Supplier<Seq<R>>>map(chunk -> () -> chunk.flatMap(mapper)), parallelism))
+                .flatMap(Function.identity());
+    }
+}
@@ -13,6 +13,16 @@
  */
 package org.babzel.tools.util;
 
+import io.vavr.control.Option;
+
 public interface TextNormalizer {
     public String normalizeText(String text, String language);
+
+    public default String getName() {
+        return getClass().getName();
+    }
+
+    public default Option<String> getStatistics() {
+        return Option.none();
+    }
 }
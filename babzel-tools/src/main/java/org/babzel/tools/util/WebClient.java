@@ -14,9 +14,14 @@
 package org.babzel.tools.util;
 
 import java.net.URL;
+import java.nio.file.Path;
 
 public interface WebClient {
     public WebResponse makeGetRequest(URL url);
 
+    // streams the body to the output path starting from the given byte offset
+    // partial content is appended to the output path, full content replaces it
+    public WebResponse makeGetRequest(URL url, long rangeStart, Path outputPath);
+
     public WebResponse makeHeadRequest(URL url);
 }
@@ -18,6 +18,7 @@ import java.nio.file.FileSystem;
 import static org.assertj.core.api.Assertions.assertThat;
 import org.babzel.tools.ToolsConfigTest.XToolsConfig;
 import org.babzel.tools.opennlp.unidep.UniDepConlluModelProcessor;
+import org.babzel.tools.util.CachingTextNormalizer;
 import org.babzel.tools.util.ResourceDirectorySupplier;
 import org.babzel.tools.util.RootDirectorySupplier;
 import org.babzel.tools.util.TextNormalizer;
@@ -71,9 +72,12 @@ public class ToolsConfigTest {
 
     @Autowired
     private UniDepConlluModelProcessor processor;
+    @Autowired
+    private TextNormalizer textNormalizer;
 
     @Test
     public void config() {
         assertThat(processor).isNotNull();
+        assertThat(textNormalizer).isInstanceOf(CachingTextNormalizer.class);
     }
 }
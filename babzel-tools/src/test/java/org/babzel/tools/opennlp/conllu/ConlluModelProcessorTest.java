@@ -14,34 +14,60 @@
 package org.babzel.tools.opennlp.conllu;
 
 import com.google.common.jimfs.Jimfs;
+import io.vavr.Lazy;
+import io.vavr.collection.Iterator;
+import io.vavr.collection.Seq;
 import io.vavr.collection.Vector;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import opennlp.tools.util.model.BaseModel;
+import org.babzel.tools.opennlp.conllu.corpus.ConlluCorpusBuilder;
 import org.babzel.tools.opennlp.conllu.parser.ConlluSentence;
-import org.babzel.tools.opennlp.conllu.parser.ConlluSentencesFactory;
+import org.babzel.tools.opennlp.conllu.util.ConlluRejection;
+import org.babzel.tools.opennlp.conllu.util.ConlluRejectionStatistics;
 import org.babzel.tools.opennlp.model.ModelProcessor;
+import org.babzel.tools.opennlp.model.util.SampleStore;
+import org.babzel.tools.opennlp.model.util.SampleStoreFactory;
+import org.babzel.tools.util.FileDigester;
 import org.babzel.tools.util.FileUpToDateChecker;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.babzel.tools.opennlp.conllu.convert.ConlluSamplesConverter;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.babzel.tools.opennlp.conllu.convert.ConlluSamplesConverter;
 
 @ExtendWith(MockitoExtension.class)
 public class ConlluModelProcessorTest {
+    private static final String REJECTION_DETAILS = Vector.of(
+            "Sentences-Total=4",
+            "Sentences-Correct=2",
+            "Rejected-By-R=1",
+            "Rejected-By-T=1",
+            "",
+            "R: s2",
+            "T: t1").mkString("\n");
+
     @Mock
     private FileUpToDateChecker checker;
     @Mock
-    private ConlluSentencesFactory sentencesFactory;
-    @Mock
     private ConlluSamplesConverter<String> converter;
     @Mock
     private ModelProcessor<BaseModel, String> modelProcessor;
+    @Mock
+    private FileDigester digester;
+    @Spy
+    private SampleStoreFactory storeFactory = new SampleStoreFactory(() -> 0);
     @InjectMocks
     private ConlluModelProcessor processor;
 
@@ -51,23 +77,47 @@ public class ConlluModelProcessorTest {
         Path conlluPath = rootPath.resolve("file.conllu");
         Path modelPath = rootPath.resolve("model.bin");
         Path reportPath = rootPath.resolve("report.txt");
-        given(checker.isUpToDate(any(), any(Path.class))).willReturn(false, true);
-        given(sentencesFactory.createSentences(any(), any())).willReturn(Vector.of(
-                new ConlluSentence("s1", Vector.empty()),
-                new ConlluSentence("s2", Vector.empty()),
-                new ConlluSentence("s3", Vector.empty())));
-        given(converter.convert(any(), any())).willReturn(Vector.of("1", "3"));
+        given(modelProcessor.getProcessingInputs(any(), any())).willReturn(Vector.of("i1", "i2"));
+        given(digester.digestStrings(any())).willReturn("input-digest");
+        given(checker.isUpToDate(any(), any(String.class))).willReturn(false, true);
+        var transformerRejections = new ConlluRejectionStatistics();
+        transformerRejections.reject(new ConlluRejection("T", "t1"));
+        var corpus = Lazy.of(() -> new ConlluCorpusBuilder()
+                .add(new ConlluSentence("s1", Vector.empty()))
+                .add(new ConlluSentence("s2", Vector.empty()))
+                .add(new ConlluSentence("s3", Vector.empty()))
+                .build(transformerRejections));
+        given(converter.convertLazily(any(), any(), any())).willAnswer(invocation -> invocation.<Iterator<ConlluSentence>>getArgument(0)
+                .peek(sentence -> {
+                    if (sentence.getText().equals("s2")) {
+                        invocation.<ConlluRejectionStatistics>getArgument(2).reject(new ConlluRejection("R", "s2"));
+                    }
+                })
+                .filter(sentence -> !sentence.getText().equals("s2"))
+                .map(ConlluSentence::getText));
+        var passes = new ArrayList<Seq<String>>();
+        willAnswer(invocation -> {
+            var samples = invocation.<SampleStore<String>>getArgument(0);
+            assertThat(samples.isSpilled()).isTrue();
+            passes.add(samples.iterator().toVector());
+            passes.add(samples.iterator().toVector());
+            return true;
+        }).given(modelProcessor).processModel(any(), any(), any(), any(), any(), any());
 
-        processor.processConlluModel(conlluPath, Vector.of("a", "b"), "lx", modelPath, reportPath);
+        processor.processConlluModel(conlluPath, corpus, Lazy.of(() -> "corpus-digest"), Vector.of("a", "b"), "lx", modelPath, reportPath);
 
-        verify(checker).isUpToDate(modelPath, conlluPath);
-        verify(sentencesFactory).createSentences(conlluPath, "lx");
-        verify(converter).convert(Vector.of(
-                new ConlluSentence("s1", Vector.empty()),
-                new ConlluSentence("s2", Vector.empty()),
-                new ConlluSentence("s3", Vector.empty())), "lx");
-        verify(modelProcessor).processModel(Vector.of("1", "3"), Vector.of("a", "b"), "lx", modelPath, reportPath);
-        verifyNoMoreInteractions(checker, sentencesFactory, converter, modelProcessor);
+        verify(modelProcessor).getProcessingInputs(Vector.of("a", "b"), "lx");
+        verify(digester).digestStrings(Vector.of("corpus-digest", converter.getClass().getName(), "i1", "i2"));
+        verify(checker).isUpToDate(modelPath, "input-digest");
+        verify(converter).convertLazily(argThat(sentences -> sentences instanceof Iterator), eq("lx"), any());
+        verify(storeFactory).createStore(any(), eq(rootPath.resolve("model.bin.samples.part")));
+        verify(modelProcessor).processModel(argThat(samples -> samples.size() == 2), eq(REJECTION_DETAILS), eq(Vector.of("a", "b")), eq("lx"), eq(modelPath), eq(reportPath));
+        // samples are read from the spill file on every pass, the file is deleted after processing
+        assertThat(passes).containsExactly(Vector.of("s1", "s3"), Vector.of("s1", "s3"));
+        assertThat(Files.exists(rootPath.resolve("model.bin.samples.part"))).isFalse();
+        verify(checker).markUpToDate(modelPath, "input-digest");
+        verify(checker).markUpToDate(reportPath, "input-digest");
+        verifyNoMoreInteractions(checker, converter, modelProcessor, digester, storeFactory);
     }
 
     @Test
@@ -76,24 +126,77 @@ public class ConlluModelProcessorTest {
         Path conlluPath = rootPath.resolve("file.conllu");
         Path modelPath = rootPath.resolve("model.bin");
         Path reportPath = rootPath.resolve("report.txt");
-        given(checker.isUpToDate(any(), any(Path.class))).willReturn(true, false);
-        given(sentencesFactory.createSentences(any(), any())).willReturn(Vector.of(
-                new ConlluSentence("s1", Vector.empty()),
-                new ConlluSentence("s2", Vector.empty()),
-                new ConlluSentence("s3", Vector.empty())));
-        given(converter.convert(any(), any())).willReturn(Vector.of("1", "3"));
+        given(modelProcessor.getProcessingInputs(any(), any())).willReturn(Vector.of("i1", "i2"));
+        given(digester.digestStrings(any())).willReturn("input-digest");
+        given(checker.isUpToDate(any(), any(String.class))).willReturn(true, false);
+        var transformerRejections = new ConlluRejectionStatistics();
+        transformerRejections.reject(new ConlluRejection("T", "t1"));
+        var corpus = Lazy.of(() -> new ConlluCorpusBuilder()
+                .add(new ConlluSentence("s1", Vector.empty()))
+                .add(new ConlluSentence("s2", Vector.empty()))
+                .add(new ConlluSentence("s3", Vector.empty()))
+                .build(transformerRejections));
+        given(converter.convertLazily(any(), any(), any())).willAnswer(invocation -> invocation.<Iterator<ConlluSentence>>getArgument(0)
+                .peek(sentence -> {
+                    if (sentence.getText().equals("s2")) {
+                        invocation.<ConlluRejectionStatistics>getArgument(2).reject(new ConlluRejection("R", "s2"));
+                    }
+                })
+                .filter(sentence -> !sentence.getText().equals("s2"))
+                .map(ConlluSentence::getText));
+        var passes = new ArrayList<Seq<String>>();
+        willAnswer(invocation -> {
+            var samples = invocation.<SampleStore<String>>getArgument(0);
+            assertThat(samples.isSpilled()).isTrue();
+            passes.add(samples.iterator().toVector());
+            passes.add(samples.iterator().toVector());
+            return true;
+        }).given(modelProcessor).processModel(any(), any(), any(), any(), any(), any());
+
+        processor.processConlluModel(conlluPath, corpus, Lazy.of(() -> "corpus-digest"), Vector.of("a", "b"), "lx", modelPath, reportPath);
+
+        verify(modelProcessor).getProcessingInputs(Vector.of("a", "b"), "lx");
+        verify(digester).digestStrings(Vector.of("corpus-digest", converter.getClass().getName(), "i1", "i2"));
+        verify(checker).isUpToDate(modelPath, "input-digest");
+        verify(checker).isUpToDate(reportPath, "input-digest");
+        verify(converter).convertLazily(argThat(sentences -> sentences instanceof Iterator), eq("lx"), any());
+        verify(storeFactory).createStore(any(), eq(rootPath.resolve("model.bin.samples.part")));
+        verify(modelProcessor).processModel(argThat(samples -> samples.size() == 2), eq(REJECTION_DETAILS), eq(Vector.of("a", "b")), eq("lx"), eq(modelPath), eq(reportPath));
+        // samples are read from the spill file on every pass, the file is deleted after processing
+        assertThat(passes).containsExactly(Vector.of("s1", "s3"), Vector.of("s1", "s3"));
+        assertThat(Files.exists(rootPath.resolve("model.bin.samples.part"))).isFalse();
+        verify(checker).markUpToDate(modelPath, "input-digest");
+        verify(checker).markUpToDate(reportPath, "input-digest");
+        verifyNoMoreInteractions(checker, converter, modelProcessor, digester, storeFactory);
+    }
+
+    @Test
+    public void processConlluModel_NoModel() {
+        Path rootPath = Jimfs.newFileSystem().getPath("root");
+        Path conlluPath = rootPath.resolve("file.conllu");
+        Path modelPath = rootPath.resolve("model.bin");
+        Path reportPath = rootPath.resolve("report.txt");
+        given(modelProcessor.getProcessingInputs(any(), any())).willReturn(Vector.of("i1", "i2"));
+        given(digester.digestStrings(any())).willReturn("input-digest");
+        given(checker.isUpToDate(any(), any(String.class))).willReturn(false);
+        var corpus = Lazy.of(() -> new ConlluCorpusBuilder()
+                .add(new ConlluSentence("s1", Vector.empty()))
+                .build());
+        given(converter.convertLazily(any(), any(), any())).willAnswer(invocation -> invocation.<Iterator<ConlluSentence>>getArgument(0).map(ConlluSentence::getText));
+        given(modelProcessor.processModel(any(), any(), any(), any(), any(), any())).willReturn(false);
 
-        processor.processConlluModel(conlluPath, Vector.of("a", "b"), "lx", modelPath, reportPath);
+        processor.processConlluModel(conlluPath, corpus, Lazy.of(() -> "corpus-digest"), Vector.of("a", "b"), "lx", modelPath, reportPath);
 
-        verify(checker).isUpToDate(modelPath, conlluPath);
-        verify(checker).isUpToDate(reportPath, conlluPath);
-        verify(sentencesFactory).createSentences(conlluPath, "lx");
-        verify(converter).convert(Vector.of(
-                new ConlluSentence("s1", Vector.empty()),
-                new ConlluSentence("s2", Vector.empty()),
-                new ConlluSentence("s3", Vector.empty())), "lx");
-        verify(modelProcessor).processModel(Vector.of("1", "3"), Vector.of("a", "b"), "lx", modelPath, reportPath);
-        verifyNoMoreInteractions(checker, sentencesFactory, converter, modelProcessor);
+        verify(modelProcessor).getProcessingInputs(Vector.of("a", "b"), "lx");
+        verify(digester).digestStrings(Vector.of("corpus-digest", converter.getClass().getName(), "i1", "i2"));
+        verify(checker).isUpToDate(modelPath, "input-digest");
+        verify(converter).convertLazily(any(), eq("lx"), any());
+        verify(storeFactory).createStore(any(), eq(rootPath.resolve("model.bin.samples.part")));
+        verify(modelProcessor).processModel(any(), any(), eq(Vector.of("a", "b")), eq("lx"), eq(modelPath), eq(reportPath));
+        // no model was trained, files of former inputs are deleted instead of being marked up to date
+        verify(checker).deleteOutput(modelPath);
+        verify(checker).deleteOutput(reportPath);
+        verifyNoMoreInteractions(checker, converter, modelProcessor, digester, storeFactory);
     }
 
     @Test
@@ -102,12 +205,18 @@ public class ConlluModelProcessorTest {
         Path conlluPath = rootPath.resolve("file.conllu");
         Path modelPath = rootPath.resolve("model.bin");
         Path reportPath = rootPath.resolve("report.txt");
-        given(checker.isUpToDate(any(), any(Path.class))).willReturn(true, true);
+        given(modelProcessor.getProcessingInputs(any(), any())).willReturn(Vector.of("i1", "i2"));
+        given(digester.digestStrings(any())).willReturn("input-digest");
+        given(checker.isUpToDate(any(), any(String.class))).willReturn(true, true);
+        var corpus = Lazy.of(() -> new ConlluCorpusBuilder().build());
 
-        processor.processConlluModel(conlluPath, Vector.of("a", "b"), "lx", modelPath, reportPath);
+        processor.processConlluModel(conlluPath, corpus, Lazy.of(() -> "corpus-digest"), Vector.of("a", "b"), "lx", modelPath, reportPath);
 
-        verify(checker).isUpToDate(modelPath, conlluPath);
-        verify(checker).isUpToDate(reportPath, conlluPath);
-        verifyNoMoreInteractions(checker, sentencesFactory, converter, modelProcessor);
+        verify(modelProcessor).getProcessingInputs(Vector.of("a", "b"), "lx");
+        verify(digester).digestStrings(Vector.of("corpus-digest", converter.getClass().getName(), "i1", "i2"));
+        verify(checker).isUpToDate(modelPath, "input-digest");
+        verify(checker).isUpToDate(reportPath, "input-digest");
+        verifyNoMoreInteractions(checker, converter, modelProcessor, digester, storeFactory);
+        assertThat(corpus.isEvaluated()).isFalse();
     }
 }
@@ -13,20 +13,25 @@
  */
 package org.babzel.tools.opennlp.conllu.convert;
 
+import io.vavr.collection.TreeMap;
 import io.vavr.collection.Vector;
+import io.vavr.control.Either;
 import opennlp.tools.sentdetect.SentenceSample;
 import opennlp.tools.util.Span;
 import static org.assertj.core.api.Assertions.assertThat;
 import org.babzel.tools.opennlp.conllu.parser.ConlluSentence;
-import org.babzel.tools.opennlp.conllu.util.ConlluNormalizer;
+import org.babzel.tools.opennlp.conllu.util.ConlluRejection;
+import org.babzel.tools.opennlp.conllu.util.ConlluRejectionStatistics;
 import org.babzel.tools.opennlp.conllu.util.ConlluValidator;
+import org.babzel.tools.util.ParallelExecutor;
+import org.babzel.tools.util.ParallelMapper;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -34,38 +39,37 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
 public class ConlluSentenceSamplesConverterTest {
-    @Mock
-    private ConlluNormalizer normalizer;
     @Mock
     private ConlluValidator validator;
+    @Spy
+    private ParallelMapper mapper = new ParallelMapper(new ParallelExecutor(() -> 4), () -> 4);
     @InjectMocks
     private ConlluSentenceSamplesConverter converter;
 
+    private ConlluRejectionStatistics rejections = new ConlluRejectionStatistics();
+
     @Test
     public void convert() {
         var sentences = Vector.of(
-                new ConlluSentence("1", Vector.empty()),
-                new ConlluSentence("2", Vector.empty()),
-                new ConlluSentence("3", Vector.empty()),
-                new ConlluSentence("4", Vector.empty()),
-                new ConlluSentence("5", Vector.empty()),
-                new ConlluSentence("6", Vector.empty()),
-                new ConlluSentence("7", Vector.empty()),
-                new ConlluSentence("8", Vector.empty()),
-                new ConlluSentence("9", Vector.empty()),
-                new ConlluSentence("10", Vector.empty()),
-                new ConlluSentence("11", Vector.empty()),
-                new ConlluSentence("12", Vector.empty()),
-                new ConlluSentence("13", Vector.empty()));
-        given(normalizer.normalizeSentence(any(), any()))
-                .willAnswer(answer -> new ConlluSentence("n" + answer.getArgument(0, ConlluSentence.class).getText(), Vector.empty()));
-        given(validator.isValidForTokenization(any())).willReturn(true);
+                new ConlluSentence("n1", Vector.empty()),
+                new ConlluSentence("n2", Vector.empty()),
+                new ConlluSentence("n3", Vector.empty()),
+                new ConlluSentence("n4", Vector.empty()),
+                new ConlluSentence("n5", Vector.empty()),
+                new ConlluSentence("n6", Vector.empty()),
+                new ConlluSentence("n7", Vector.empty()),
+                new ConlluSentence("n8", Vector.empty()),
+                new ConlluSentence("n9", Vector.empty()),
+                new ConlluSentence("n10", Vector.empty()),
+                new ConlluSentence("n11", Vector.empty()),
+                new ConlluSentence("n12", Vector.empty()),
+                new ConlluSentence("n13", Vector.empty()));
+        given(validator.validateForTokenization(any())).willAnswer(invocation -> Either.right(invocation.getArgument(0)));
 
-        var sample = converter.convert(sentences, "lx");
+        var sample = converter.convert(sentences, "lx", rejections);
 
-        verify(normalizer, times(13)).normalizeSentence(any(), eq("lx"));
-        verify(validator, times(13)).isValidForTokenization(any());
-        verifyNoMoreInteractions(normalizer, validator);
+        verify(validator, times(13)).validateForTokenization(any());
+        verifyNoMoreInteractions(validator);
         assertThat(sample).isEqualTo(Vector.of(
                 new SentenceSample("n1 n2 n3 n4 n5 n6 n7 n8 n9 n10",
                         new Span(0, 2), new Span(3, 5), new Span(6, 8), new Span(9, 11), new Span(12, 14),
@@ -76,20 +80,37 @@ public class ConlluSentenceSamplesConverterTest {
 
     @Test
     public void convertIncorrect() {
-        var sentence1 = new ConlluSentence("1", Vector.empty());
-        var normSentence1 = new ConlluSentence("n1", Vector.empty());
-        var sentence2 = new ConlluSentence("2", Vector.empty());
-        var normSentence2 = new ConlluSentence("n2", Vector.empty());
-        given(normalizer.normalizeSentence(any(), any())).willReturn(normSentence1, normSentence2);
-        given(validator.isValidForTokenization(any())).willReturn(false);
+        var sentence1 = new ConlluSentence("n1", Vector.empty());
+        var sentence2 = new ConlluSentence("n2", Vector.empty());
+        given(validator.validateForTokenization(any())).willAnswer(invocation -> Either.left(new ConlluRejection("R", invocation.<ConlluSentence>getArgument(0).getText())));
 
-        var samples = converter.convert(Vector.of(sentence1, sentence2), "lx");
+        var samples = converter.convert(Vector.of(sentence1, sentence2), "lx", rejections);
 
-        verify(normalizer).normalizeSentence(sentence1, "lx");
-        verify(normalizer).normalizeSentence(sentence2, "lx");
-        verify(validator).isValidForTokenization(normSentence1);
-        verify(validator).isValidForTokenization(normSentence2);
-        verifyNoMoreInteractions(normalizer, validator);
+        verify(validator).validateForTokenization(sentence1);
+        verify(validator).validateForTokenization(sentence2);
+        verifyNoMoreInteractions(validator);
         assertThat(samples).isEqualTo(Vector.empty());
+        assertThat(rejections.getRejectionCounts()).isEqualTo(TreeMap.of("R", 2));
+        assertThat(rejections.getRejectionSamples()).isEqualTo(TreeMap.of("R", Vector.of("n1", "n2")));
+    }
+
+    @Test
+    public void convertSameAsSequential() {
+        // groups of sentences span chunk boundaries, invalid sentences shift them
+        var sentences = Vector.range(0, 3000).map(i -> new ConlluSentence("n" + i, Vector.empty()));
+        given(validator.validateForTokenization(any())).willAnswer(invocation -> {
+            var sentence = invocation.<ConlluSentence>getArgument(0);
+            return sentence.getText().endsWith("7") ? Either.left(new ConlluRejection("R", sentence.getText())) : Either.right(sentence);
+        });
+        var sequentialConverter = new ConlluSentenceSamplesConverter(validator, new ParallelMapper(new ParallelExecutor(() -> 4), () -> 1));
+
+        var samples = converter.convert(sentences.iterator(), "lx", rejections);
+        var sequentialSamples = sequentialConverter.convert(sentences.iterator(), "lx", new ConlluRejectionStatistics());
+
+        assertThat(samples).hasSize(270);
+        assertThat(rejections.getRejectedCount()).isEqualTo(300);
+        assertThat(rejections.getRejectionSamples()).isEqualTo(TreeMap.of("R", Vector.of("n7", "n17", "n27", "n37", "n47")));
+        assertThat(samples).isEqualTo(sequentialSamples);
+        assertThat(converter.convertLazily(sentences.iterator(), "lx", new ConlluRejectionStatistics()).toVector()).isEqualTo(samples);
     }
 }
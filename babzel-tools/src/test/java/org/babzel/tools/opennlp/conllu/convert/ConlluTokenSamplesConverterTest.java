@@ -13,36 +13,43 @@
  */
 package org.babzel.tools.opennlp.conllu.convert;
 
+import io.vavr.collection.TreeMap;
 import io.vavr.collection.Vector;
+import io.vavr.control.Either;
 import opennlp.tools.tokenize.TokenSample;
 import static org.assertj.core.api.Assertions.assertThat;
 import org.babzel.tools.opennlp.conllu.parser.ConlluSentence;
 import org.babzel.tools.opennlp.conllu.parser.ConlluWordLine;
-import org.babzel.tools.opennlp.conllu.util.ConlluNormalizer;
+import org.babzel.tools.opennlp.conllu.util.ConlluRejection;
+import org.babzel.tools.opennlp.conllu.util.ConlluRejectionStatistics;
 import org.babzel.tools.opennlp.conllu.util.ConlluValidator;
+import org.babzel.tools.util.ParallelExecutor;
+import org.babzel.tools.util.ParallelMapper;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
 public class ConlluTokenSamplesConverterTest {
-    @Mock
-    private ConlluNormalizer normalizer;
     @Mock
     private ConlluValidator validator;
+    @Spy
+    private ParallelMapper mapper = new ParallelMapper(new ParallelExecutor(() -> 4), () -> 4);
     @InjectMocks
     private ConlluTokenSamplesConverter converter;
 
+    private ConlluRejectionStatistics rejections = new ConlluRejectionStatistics();
+
     @Test
     public void convert() {
-        var sentence = new ConlluSentence("", Vector.empty());
-        var normSentence = new ConlluSentence("Some example sentence ten example.", Vector.of(
+        var sentence = new ConlluSentence("Some example sentence ten example.", Vector.of(
                 new ConlluWordLine(1, 2, "Some", Vector.of(
                         new ConlluWordLine(1, "Somt", "l1", "ADJ"),
                         new ConlluWordLine(2, "mex", "l2", "ADV"))),
@@ -54,33 +61,56 @@ public class ConlluTokenSamplesConverterTest {
                 new ConlluWordLine(7, "ten", "l7", "NOUN"),
                 new ConlluWordLine(8, "example", "l8", "VERB"),
                 new ConlluWordLine(9, ".", "l9", "PUNCT")));
-        given(normalizer.normalizeSentence(any(), any())).willReturn(normSentence);
-        given(validator.isValidForTokenization(any())).willReturn(true);
+        given(validator.validateForTokenization(any())).willAnswer(invocation -> Either.right(invocation.getArgument(0)));
 
-        var samples = converter.convert(Vector.of(sentence), "lx");
+        var samples = converter.convert(Vector.of(sentence), "lx", rejections);
 
-        verify(normalizer).normalizeSentence(sentence, "lx");
-        verify(validator).isValidForTokenization(normSentence);
-        verifyNoMoreInteractions(normalizer, validator);
+        verify(validator).validateForTokenization(sentence);
+        verifyNoMoreInteractions(validator);
         assertThat(samples).isEqualTo(Vector.of(TokenSample.parse("Some example sen|ten|ce ten example|.", "|")));
     }
 
     @Test
     public void convertIncorrect() {
-        var sentence1 = new ConlluSentence("1", Vector.empty());
-        var normSentence1 = new ConlluSentence("n1", Vector.empty());
-        var sentence2 = new ConlluSentence("2", Vector.empty());
-        var normSentence2 = new ConlluSentence("n2", Vector.empty());
-        given(normalizer.normalizeSentence(any(), any())).willReturn(normSentence1, normSentence2);
-        given(validator.isValidForTokenization(any())).willReturn(false);
+        var sentence1 = new ConlluSentence("n1", Vector.empty());
+        var sentence2 = new ConlluSentence("n2", Vector.empty());
+        given(validator.validateForTokenization(any())).willAnswer(invocation -> Either.left(new ConlluRejection("R", invocation.<ConlluSentence>getArgument(0).getText())));
 
-        var samples = converter.convert(Vector.of(sentence1, sentence2), "lx");
+        var samples = converter.convert(Vector.of(sentence1, sentence2), "lx", rejections);
 
-        verify(normalizer).normalizeSentence(sentence1, "lx");
-        verify(normalizer).normalizeSentence(sentence2, "lx");
-        verify(validator).isValidForTokenization(normSentence1);
-        verify(validator).isValidForTokenization(normSentence2);
-        verifyNoMoreInteractions(normalizer, validator);
+        verify(validator).validateForTokenization(sentence1);
+        verify(validator).validateForTokenization(sentence2);
+        verifyNoMoreInteractions(validator);
         assertThat(samples).isEqualTo(Vector.empty());
+        assertThat(rejections.getRejectionCounts()).isEqualTo(TreeMap.of("R", 2));
+        assertThat(rejections.getRejectionSamples()).isEqualTo(TreeMap.of("R", Vector.of("n1", "n2")));
+    }
+
+    @Test
+    public void convertLazily() {
+        var sentence = new ConlluSentence("Some example sentence ten example.", Vector.of(
+                new ConlluWordLine(1, 2, "Some", Vector.of(
+                        new ConlluWordLine(1, "Somt", "l1", "ADJ"),
+                        new ConlluWordLine(2, "mex", "l2", "ADV"))),
+                new ConlluWordLine(3, "example", "l3", "VERB"),
+                new ConlluWordLine(4, 6, "sentence", Vector.of(
+                        new ConlluWordLine(4, "sen", "l4", "NOUN"),
+                        new ConlluWordLine(5, "ten", "l5", "PROPN"),
+                        new ConlluWordLine(6, "ce", "l6", "AUX"))),
+                new ConlluWordLine(7, "ten", "l7", "NOUN"),
+                new ConlluWordLine(8, "example", "l8", "VERB"),
+                new ConlluWordLine(9, ".", "l9", "PUNCT")));
+        var incorrectSentence = new ConlluSentence("n1", Vector.empty());
+        var sentences = Vector.of(sentence, incorrectSentence, sentence);
+        given(validator.validateForTokenization(any())).willAnswer(invocation -> invocation.getArgument(0) != incorrectSentence
+                ? Either.right(invocation.getArgument(0))
+                : Either.left(new ConlluRejection("R", "n1")));
+
+        var samples = converter.convertLazily(sentences.iterator(), "lx", rejections);
+
+        // samples are converted while they are iterated, they are the same as converted eagerly
+        verifyNoMoreInteractions(validator);
+        assertThat(samples.toVector()).isEqualTo(converter.convert(sentences, "lx", new ConlluRejectionStatistics())).hasSize(2);
+        assertThat(rejections.getRejectionCounts()).isEqualTo(TreeMap.of("R", 1));
     }
 }
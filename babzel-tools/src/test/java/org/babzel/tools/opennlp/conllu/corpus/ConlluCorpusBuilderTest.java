@@ -0,0 +1,100 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.opennlp.conllu.corpus;
+
+import io.vavr.collection.TreeMap;
+import io.vavr.collection.Vector;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.babzel.tools.opennlp.conllu.parser.ConlluSentence;
+import org.babzel.tools.opennlp.conllu.parser.ConlluSymbolTable;
+import org.babzel.tools.opennlp.conllu.parser.ConlluWordLine;
+import org.babzel.tools.opennlp.conllu.util.ConlluRejection;
+import org.babzel.tools.opennlp.conllu.util.ConlluRejectionStatistics;
+import org.junit.jupiter.api.Test;
+
+public class ConlluCorpusBuilderTest {
+    @Test
+    public void buildCorpus() {
+        var sentence1 = new ConlluSentence("Some example sentence.", Vector.of(
+                new ConlluWordLine(1, 2, "Some", Vector.of(
+                        new ConlluWordLine(1, "So", "l1", "ADJ"),
+                        new ConlluWordLine(2, "me", "l2", "ADV"))),
+                new ConlluWordLine(3, "example", "l3", "VERB"),
+                new ConlluWordLine(4, 6, "sentence", Vector.of(
+                        new ConlluWordLine(4, "sen", "l4", "NOUN"),
+                        new ConlluWordLine(5, "ten", "l5", "PROPN"),
+                        new ConlluWordLine(6, "ce", "l6", "AUX"))),
+                new ConlluWordLine(7, 8, "Compound without sub-words", Vector.empty()),
+                new ConlluWordLine(9, ".", "l9", "PUNCT")));
+        var sentence2 = new ConlluSentence("", Vector.empty());
+        var sentence3 = new ConlluSentence("example.", Vector.of(
+                new ConlluWordLine(1, "example", "l3", "VERB"),
+                new ConlluWordLine(2, ".", "l9", "PUNCT")));
+
+        var corpus = new ConlluCorpusBuilder()
+                .add(sentence1)
+                .add(sentence2)
+                .add(sentence3)
+                .build();
+
+        assertThat(corpus.size()).isEqualTo(3);
+        assertThat(corpus.wordCount()).isEqualTo(12);
+        assertThat(corpus.get(0)).isEqualTo(sentence1);
+        assertThat(corpus.get(1)).isEqualTo(sentence2);
+        assertThat(corpus.get(2)).isEqualTo(sentence3);
+        assertThat(corpus.iterator().toVector()).isEqualTo(Vector.of(sentence1, sentence2, sentence3));
+        // symbols are shared between sentences
+        assertThat(corpus.get(2).getWords().head().getForm()).isSameAs(corpus.get(0).getWords().get(1).getForm());
+    }
+
+    @Test
+    public void buildCorpusWithReferencedSymbols() {
+        var symbols = new ConlluSymbolTable();
+        // raw forms interned by the parser are replaced by normalized forms before they reach the corpus
+        symbols.intern("Raw");
+        symbols.intern("Example");
+        var sentence = new ConlluSentence("raw example", Vector.of(
+                new ConlluWordLine(1, "raw", "raw", "ADJ"),
+                new ConlluWordLine(2, "example", "example", "NOUN")));
+
+        var corpus = new ConlluCorpusBuilder(symbols).add(sentence).build();
+
+        assertThat(corpus.get(0)).isEqualTo(sentence);
+        assertThat(corpus.symbolCount()).isEqualTo(4);
+    }
+
+    @Test
+    public void buildEmptyCorpus() {
+        var corpus = new ConlluCorpusBuilder().build();
+
+        assertThat(corpus.size()).isEqualTo(0);
+        assertThat(corpus.wordCount()).isEqualTo(0);
+        assertThat(corpus.symbolCount()).isEqualTo(0);
+        assertThat(corpus.iterator().toVector()).isEqualTo(Vector.empty());
+        assertThat(corpus.getTransformerRejections().getRejectedCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void buildCorpusWithTransformerRejections() {
+        var rejections = new ConlluRejectionStatistics();
+        rejections.reject(new ConlluRejection("T", "t1"));
+
+        var corpus = new ConlluCorpusBuilder().build(rejections);
+        // every caller gets a copy of rejections
+        corpus.getTransformerRejections().reject(new ConlluRejection("R", "r1"));
+
+        assertThat(corpus.getTransformerRejections().getRejectionCounts()).isEqualTo(TreeMap.of("T", 1));
+        assertThat(corpus.getTransformerRejections().getRejectionSamples()).isEqualTo(TreeMap.of("T", Vector.of("t1")));
+    }
+}
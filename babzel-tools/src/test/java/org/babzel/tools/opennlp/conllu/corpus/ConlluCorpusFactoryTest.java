@@ -0,0 +1,99 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.opennlp.conllu.corpus;
+
+import com.google.common.jimfs.Jimfs;
+import io.vavr.collection.Iterator;
+import io.vavr.collection.TreeMap;
+import io.vavr.collection.Vector;
+import io.vavr.control.Option;
+import java.util.function.Function;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.babzel.tools.opennlp.conllu.parser.ConlluSentence;
+import org.babzel.tools.opennlp.conllu.parser.ConlluSentencesFactory;
+import org.babzel.tools.opennlp.conllu.transformer.ConlluTransformers;
+import org.babzel.tools.opennlp.conllu.util.ConlluNormalizer;
+import org.babzel.tools.opennlp.conllu.util.ConlluRejection;
+import org.babzel.tools.opennlp.conllu.util.ConlluRejectionStatistics;
+import org.babzel.tools.util.FileDigester;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class ConlluCorpusFactoryTest {
+    @Mock
+    private ConlluSentencesFactory sentencesFactory;
+    @Mock
+    private ConlluNormalizer normalizer;
+    @Mock
+    private ConlluTransformers transformers;
+    @Mock
+    private FileDigester digester;
+    @InjectMocks
+    private ConlluCorpusFactory corpusFactory;
+
+    @Test
+    public void createCorpus() {
+        var conlluPath = Jimfs.newFileSystem().getPath("file.conllu");
+        var sentence1 = new ConlluSentence("1", Vector.empty());
+        var sentence2 = new ConlluSentence("2", Vector.empty());
+        var normSentence1 = new ConlluSentence("n1", Vector.empty());
+        var normSentence2 = new ConlluSentence("n2", Vector.empty());
+        given(sentencesFactory.readSentences(any(), any(), any(), any(), any())).willAnswer(invocation -> {
+            invocation.<ConlluRejectionStatistics>getArgument(3).reject(new ConlluRejection("T", "t1"));
+            return invocation.<Function<Iterator<ConlluSentence>, ?>>getArgument(4).apply(Iterator.of(sentence1, sentence2));
+        });
+        given(normalizer.normalizeSentence(any(), any(), any())).willReturn(normSentence1, normSentence2);
+        given(normalizer.getNormalizerStatistics()).willReturn(Option.some("statistics"));
+
+        var corpus = corpusFactory.createCorpus(conlluPath, "lx");
+
+        verify(sentencesFactory).readSentences(eq(conlluPath), eq("lx"), any(), any(), any());
+        verify(normalizer).normalizeSentence(eq(sentence1), eq("lx"), any());
+        verify(normalizer).normalizeSentence(eq(sentence2), eq("lx"), any());
+        verify(normalizer).getNormalizerStatistics();
+        verifyNoMoreInteractions(sentencesFactory, normalizer);
+        assertThat(corpus.size()).isEqualTo(2);
+        assertThat(corpus.iterator().toVector()).isEqualTo(Vector.of(normSentence1, normSentence2));
+        // corpus can be iterated many times
+        assertThat(corpus.iterator().toVector()).isEqualTo(Vector.of(normSentence1, normSentence2));
+        assertThat(corpus.getTransformerRejections().getRejectionCounts()).isEqualTo(TreeMap.of("T", 1));
+    }
+
+    @Test
+    public void getCorpusDigest() {
+        var conlluPath = Jimfs.newFileSystem().getPath("file.conllu");
+        given(digester.getFileDigest(any())).willReturn("file-digest");
+        given(normalizer.getNormalizerName()).willReturn("normalizer");
+        given(transformers.getTransformerNames(any())).willReturn(Vector.of("t1", "t2"));
+        given(digester.digestStrings(any())).willReturn("corpus-digest");
+
+        var corpusDigest = corpusFactory.getCorpusDigest(conlluPath, "lx");
+
+        verify(digester).getFileDigest(conlluPath);
+        verify(normalizer).getNormalizerName();
+        verify(transformers).getTransformerNames("lx");
+        verify(digester).digestStrings(Vector.of("file-digest", "normalizer", "t1", "t2"));
+        verifyNoMoreInteractions(sentencesFactory, normalizer, transformers, digester);
+        assertThat(corpusDigest).isEqualTo("corpus-digest");
+    }
+}
@@ -92,4 +92,34 @@ public class ConlluParserTest {
                                 new ConlluWordLine(6, "ce", "l6", "AUX"))),
                         new ConlluWordLine(7, ".", "l7", "PUNCT"))));
     }
+
+    @Test
+    public void parseSentenceEdgeCases() {
+        Seq<String> lines = Vector.of("# sent_id = 1",
+                "#text=First text",
+                "# text = Second text is ignored",
+                "1-2\t",
+                "1-\tMissing end id",
+                "-2\tMissing start id",
+                "1.1\tw\tl\tNOUN",
+                "2\tw2\tl2\t",
+                "3\tw3\tl3\t\t",
+                "4\tw4\t\tNOUN",
+                "5\tw5\tl5\t\tPRON",
+                "6-7\tw67\t_\t_",
+                "6\tw6\tl6\tVERB\t_\t_\t0\troot\t_\tSpaceAfter=No",
+                "7\tw7\tl7\t_",
+                "8\t\t\tPUNCT");
+
+        ConlluSentence sentence = parser.parse(lines);
+
+        Assertions.assertThat(sentence).isEqualTo(
+                new ConlluSentence("First text", Vector.of(
+                        new ConlluWordLine(4, "w4", "", "NOUN"),
+                        new ConlluWordLine(5, "w5", "l5", ""),
+                        new ConlluWordLine(6, 7, "w67", Vector.of(
+                                new ConlluWordLine(6, "w6", "l6", "VERB"),
+                                new ConlluWordLine(7, "w7", "l7", "_"))),
+                        new ConlluWordLine(8, "", "", "PUNCT"))));
+    }
 }
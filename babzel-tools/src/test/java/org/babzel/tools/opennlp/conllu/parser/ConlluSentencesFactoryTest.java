@@ -14,12 +14,15 @@
 package org.babzel.tools.opennlp.conllu.parser;
 
 import com.google.common.jimfs.Jimfs;
+import io.vavr.collection.Iterator;
 import io.vavr.collection.Seq;
 import io.vavr.collection.Vector;
+import io.vavr.control.Option;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import static org.assertj.core.api.Assertions.assertThat;
 import org.babzel.tools.opennlp.conllu.transformer.ConlluTransformers;
+import org.babzel.tools.opennlp.conllu.util.ConlluRejectionStatistics;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
@@ -38,10 +41,12 @@ public class ConlluSentencesFactoryTest {
     private ConlluTransformers transformers;
     @InjectMocks
     private ConlluSentencesFactory factory;
+    private ConlluRejectionStatistics rejections = new ConlluRejectionStatistics();
 
     @Test
     public void createSentences() throws Exception {
         Path conlluPath = Jimfs.newFileSystem().getPath("file.txt");
+        var symbols = new ConlluSymbolTable();
         Files.writeString(conlluPath, Vector.of(
                 "# t1",
                 "a",
@@ -50,28 +55,50 @@ public class ConlluSentencesFactoryTest {
                 "# t2",
                 "b",
                 "",
-                "# t3").mkString("\n"));
-        given(parser.parse(any())).willReturn(
+                "# t3",
+                "",
+                "").mkString("\n"));
+        given(parser.parse(any(), any())).willReturn(
                 new ConlluSentence("s1", Vector.empty()),
                 new ConlluSentence("s2", Vector.empty()),
                 new ConlluSentence("s3", Vector.empty()));
-        given(transformers.transformSentence(any(), any())).willReturn(
-                new ConlluSentence("s1-t", Vector.empty()),
-                new ConlluSentence("s2-t", Vector.empty()),
-                new ConlluSentence("s3-t", Vector.empty()));
+        given(transformers.transformSentence(any(), any(), any())).willReturn(
+                Option.some(new ConlluSentence("s1-t", Vector.empty())),
+                Option.none(),
+                Option.some(new ConlluSentence("s3-t", Vector.empty())));
 
-        Seq<ConlluSentence> sentences = factory.createSentences(conlluPath, "x");
+        Seq<ConlluSentence> sentences = factory.readSentences(conlluPath, "x", symbols, rejections, Iterator::toVector);
 
-        verify(parser).parse(Vector.of("# t1", "a"));
-        verify(transformers).transformSentence(new ConlluSentence("s1", Vector.empty()), "x");
-        verify(parser).parse(Vector.of("# t2", "b"));
-        verify(transformers).transformSentence(new ConlluSentence("s2", Vector.empty()), "x");
-        verify(parser).parse(Vector.of("# t3"));
-        verify(transformers).transformSentence(new ConlluSentence("s3", Vector.empty()), "x");
+        verify(parser).parse(Vector.of("# t1", "a"), symbols);
+        verify(transformers).transformSentence(new ConlluSentence("s1", Vector.empty()), "x", rejections);
+        verify(parser).parse(Vector.of("# t2", "b"), symbols);
+        verify(transformers).transformSentence(new ConlluSentence("s2", Vector.empty()), "x", rejections);
+        verify(parser).parse(Vector.of("# t3"), symbols);
+        verify(transformers).transformSentence(new ConlluSentence("s3", Vector.empty()), "x", rejections);
         verifyNoMoreInteractions(parser, transformers);
         assertThat(sentences).isEqualTo(Vector.of(
                 new ConlluSentence("s1-t", Vector.empty()),
-                new ConlluSentence("s2-t", Vector.empty()),
                 new ConlluSentence("s3-t", Vector.empty())));
     }
+
+    @Test
+    public void readSentencesLazily() throws Exception {
+        Path conlluPath = Jimfs.newFileSystem().getPath("file.txt");
+        var symbols = new ConlluSymbolTable();
+        Files.writeString(conlluPath, Vector.of(
+                "# t1",
+                "a",
+                "",
+                "# t2",
+                "b").mkString("\r\n"));
+        given(parser.parse(any(), any())).willReturn(new ConlluSentence("s1", Vector.empty()));
+        given(transformers.transformSentence(any(), any(), any())).willReturn(Option.some(new ConlluSentence("s1-t", Vector.empty())));
+
+        ConlluSentence sentence = factory.readSentences(conlluPath, "x", symbols, rejections, Iterator::head);
+
+        verify(parser).parse(Vector.of("# t1", "a"), symbols);
+        verify(transformers).transformSentence(new ConlluSentence("s1", Vector.empty()), "x", rejections);
+        verifyNoMoreInteractions(parser, transformers);
+        assertThat(sentence).isEqualTo(new ConlluSentence("s1-t", Vector.empty()));
+    }
 }
@@ -0,0 +1,53 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.opennlp.conllu.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.babzel.tools.opennlp.conllu.ConlluPOSTag;
+import org.junit.jupiter.api.Test;
+
+public class ConlluSymbolTableTest {
+    @Test
+    public void internSymbols() {
+        var symbols = new ConlluSymbolTable();
+
+        var word = symbols.intern(new String("word"));
+        var wordFromLine = symbols.intern("1\tword\tlemma", 2, 6);
+        var lemmaFromLine = symbols.intern("1\tword\tlemma", 7, 12);
+        var posTag = symbols.intern(new String("NOUN"));
+
+        assertThat(wordFromLine).isEqualTo("word").isSameAs(word);
+        assertThat(lemmaFromLine).isEqualTo("lemma");
+        assertThat(symbols.getId("word")).isEqualTo(symbols.getId("x word", 2, 6));
+        assertThat(symbols.getSymbol(symbols.getId("lemma"))).isSameAs(lemmaFromLine);
+        assertThat(posTag).isSameAs(ConlluPOSTag.NOUN.name());
+        assertThat(symbols.intern("")).isEqualTo("");
+        assertThat(symbols.size()).isEqualTo(ConlluPOSTag.values().length + 3);
+    }
+
+    @Test
+    public void internManySymbols() {
+        var symbols = new ConlluSymbolTable();
+
+        for (int i = 0; i < 10000; i++) {
+            assertThat(symbols.getId("s" + i)).isEqualTo(ConlluPOSTag.values().length + i);
+        }
+
+        for (int i = 0; i < 10000; i++) {
+            assertThat(symbols.getId("s" + i)).isEqualTo(ConlluPOSTag.values().length + i);
+        }
+        assertThat(symbols.size()).isEqualTo(ConlluPOSTag.values().length + 10000);
+        assertThat(symbols.toArray()).hasSize(ConlluPOSTag.values().length + 10000);
+    }
+}
@@ -13,9 +13,13 @@
  */
 package org.babzel.tools.opennlp.conllu.transformer;
 
+import io.vavr.collection.TreeMap;
 import io.vavr.collection.Vector;
+import io.vavr.control.Option;
 import static org.assertj.core.api.Assertions.assertThat;
 import org.babzel.tools.opennlp.conllu.parser.ConlluSentence;
+import org.babzel.tools.opennlp.conllu.parser.ConlluWordLine;
+import org.babzel.tools.opennlp.conllu.util.ConlluRejectionStatistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -49,7 +53,9 @@ public class ConlluTransformersTest {
         given(transformer3.supportsLanguage(any())).willReturn(true);
         given(transformer3.transform(any(), any())).willReturn(new ConlluSentence("s-t3", Vector.of()));
 
-        var actual = transformers.transformSentence(new ConlluSentence("s", Vector.of()), "lx");
+        var rejections = new ConlluRejectionStatistics();
+
+        var actual = transformers.transformSentence(new ConlluSentence("s", Vector.of()), "lx", rejections);
 
         verify(transformer1).supportsLanguage("lx");
         verify(transformer1).transform(new ConlluSentence("s", Vector.of()), "lx");
@@ -57,6 +63,39 @@ public class ConlluTransformersTest {
         verify(transformer3).supportsLanguage("lx");
         verify(transformer3).transform(new ConlluSentence("s-t1", Vector.of()), "lx");
         verifyNoMoreInteractions(transformer1, transformer2, transformer3);
-        assertThat(actual).isEqualTo(new ConlluSentence("s-t3", Vector.of()));
+        assertThat(actual).isEqualTo(Option.some(new ConlluSentence("s-t3", Vector.of())));
+        assertThat(rejections.getRejectedCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void transformSentenceRejected() {
+        var word = new ConlluWordLine(1, "s", "s", "NOUN");
+        given(transformer1.supportsLanguage(any())).willReturn(true);
+        given(transformer1.transform(any(), any())).willReturn(new ConlluSentence("", Vector.of()));
+        var rejections = new ConlluRejectionStatistics();
+
+        var actual = transformers.transformSentence(new ConlluSentence("s", Vector.of(word)), "lx", rejections);
+
+        verify(transformer1).supportsLanguage("lx");
+        verify(transformer1).transform(new ConlluSentence("s", Vector.of(word)), "lx");
+        verifyNoMoreInteractions(transformer1, transformer2, transformer3);
+        assertThat(actual).isEqualTo(Option.none());
+        assertThat(rejections.getRejectionCounts()).isEqualTo(TreeMap.of(transformer1.getClass().getSimpleName(), 1));
+        assertThat(rejections.getRejectionSamples()).isEqualTo(TreeMap.of(transformer1.getClass().getSimpleName(), Vector.of("s")));
+    }
+
+    @Test
+    public void getTransformerNames() {
+        given(transformer1.supportsLanguage(any())).willReturn(true);
+        given(transformer2.supportsLanguage(any())).willReturn(false);
+        given(transformer3.supportsLanguage(any())).willReturn(true);
+
+        var actual = transformers.getTransformerNames("lx");
+
+        verify(transformer1).supportsLanguage("lx");
+        verify(transformer2).supportsLanguage("lx");
+        verify(transformer3).supportsLanguage("lx");
+        verifyNoMoreInteractions(transformer1, transformer2, transformer3);
+        assertThat(actual).isEqualTo(Vector.of(transformer1.getClass().getName(), transformer3.getClass().getName()));
     }
 }
@@ -15,7 +15,9 @@ package org.babzel.tools.opennlp.conllu.util;
 
 import io.vavr.collection.Vector;
 import static org.assertj.core.api.Assertions.assertThat;
+import org.babzel.tools.opennlp.conllu.ConlluPOSTag;
 import org.babzel.tools.opennlp.conllu.parser.ConlluSentence;
+import org.babzel.tools.opennlp.conllu.parser.ConlluSymbolTable;
 import org.babzel.tools.opennlp.conllu.parser.ConlluWordLine;
 import org.babzel.tools.util.TextNormalizer;
 import org.junit.jupiter.api.Test;
@@ -46,7 +48,9 @@ public class ConlluNormalizerTest {
                         new ConlluWordLine(2, "fx2", "lx2", "ADV"))),
                 new ConlluWordLine(3, "fx3", "lx3", "VERB")));
 
-        var actual = normalizer.normalizeSentence(sentence, "lx");
+        var symbols = new ConlluSymbolTable();
+
+        var actual = normalizer.normalizeSentence(sentence, "lx", symbols);
 
         verify(textNormalizer, times(8)).normalizeText(any(), eq("lx"));
         verifyNoMoreInteractions(textNormalizer);
@@ -55,5 +59,8 @@ public class ConlluNormalizerTest {
                         new ConlluWordLine(1, "fX1", "lX1", "ADJ"),
                         new ConlluWordLine(2, "fX2", "lX2", "ADV"))),
                 new ConlluWordLine(3, "fX3", "lX3", "VERB"))));
+        // word fields are interned
+        assertThat(actual.getWords().get(1).getForm()).isSameAs(symbols.intern("fX3"));
+        assertThat(actual.getWords().get(1).getPosTag()).isSameAs(ConlluPOSTag.VERB.name());
     }
 }
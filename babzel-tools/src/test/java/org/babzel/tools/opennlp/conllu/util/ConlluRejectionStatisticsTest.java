@@ -0,0 +1,91 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.opennlp.conllu.util;
+
+import io.vavr.collection.Iterator;
+import io.vavr.collection.TreeMap;
+import io.vavr.collection.Vector;
+import io.vavr.control.Either;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+public class ConlluRejectionStatisticsTest {
+    @Test
+    public void reject() {
+        var statistics = new ConlluRejectionStatistics();
+
+        Vector.range(0, 7).forEach(i -> statistics.reject(new ConlluRejection("R1", "s" + i)));
+        statistics.reject(new ConlluRejection("R0", "x"));
+
+        assertThat(statistics.getRejectedCount()).isEqualTo(8);
+        assertThat(statistics.getRejectionCounts()).isEqualTo(TreeMap.of("R0", 1, "R1", 7));
+        assertThat(statistics.getRejectionSamples()).isEqualTo(TreeMap.of(
+                "R0", Vector.of("x"),
+                "R1", Vector.of("s0", "s1", "s2", "s3", "s4")));
+    }
+
+    @Test
+    public void collectAccepted() {
+        var statistics = new ConlluRejectionStatistics();
+
+        var accepted = statistics.collectAccepted(Vector.of(
+                Either.right("a1"),
+                Either.left(new ConlluRejection("R1", "s1")),
+                Either.right("a2"),
+                Either.left(new ConlluRejection("R2", "s2")),
+                Either.left(new ConlluRejection("R1", "s3"))));
+
+        assertThat(accepted).isEqualTo(Vector.of("a1", "a2"));
+        assertThat(statistics.getRejectionCounts()).isEqualTo(TreeMap.of("R1", 2, "R2", 1));
+        assertThat(statistics.getRejectionSamples()).isEqualTo(TreeMap.of(
+                "R1", Vector.of("s1", "s3"),
+                "R2", Vector.of("s2")));
+    }
+
+    @Test
+    public void collectAcceptedLazily() {
+        var statistics = new ConlluRejectionStatistics();
+
+        var accepted = statistics.collectAccepted(Iterator.<Either<ConlluRejection, String>>of(
+                Either.right("a1"),
+                Either.left(new ConlluRejection("R1", "s1")),
+                Either.right("a2"),
+                Either.left(new ConlluRejection("R2", "s2"))));
+
+        // rejections are recorded while results are iterated
+        assertThat(statistics.getRejectedCount()).isZero();
+        assertThat(accepted.next()).isEqualTo("a1");
+        assertThat(statistics.getRejectedCount()).isZero();
+        assertThat(accepted.toVector()).isEqualTo(Vector.of("a2"));
+        assertThat(statistics.getRejectionCounts()).isEqualTo(TreeMap.of("R1", 1, "R2", 1));
+    }
+
+    @Test
+    public void addAll() {
+        var statistics1 = new ConlluRejectionStatistics();
+        Vector.range(0, 3).forEach(i -> statistics1.reject(new ConlluRejection("R1", "a" + i)));
+        var statistics2 = new ConlluRejectionStatistics();
+        Vector.range(0, 4).forEach(i -> statistics2.reject(new ConlluRejection("R1", "b" + i)));
+        statistics2.reject(new ConlluRejection("R2", "c"));
+
+        statistics1.addAll(statistics2);
+
+        assertThat(statistics1.getRejectionCounts()).isEqualTo(TreeMap.of("R1", 7, "R2", 1));
+        assertThat(statistics1.getRejectionSamples()).isEqualTo(TreeMap.of(
+                "R1", Vector.of("a0", "a1", "a2", "b0", "b1"),
+                "R2", Vector.of("c")));
+        // added statistics are not changed
+        assertThat(statistics2.getRejectionCounts()).isEqualTo(TreeMap.of("R1", 4, "R2", 1));
+    }
+}
@@ -14,12 +14,18 @@
 package org.babzel.tools.opennlp.conllu.util;
 
 import io.vavr.collection.Vector;
+import io.vavr.control.Option;
+import java.util.Random;
 import static org.assertj.core.api.Assertions.assertThat;
 import org.babzel.tools.opennlp.conllu.parser.ConlluSentence;
 import org.babzel.tools.opennlp.conllu.parser.ConlluWordLine;
 import org.junit.jupiter.api.Test;
 
 public class ConlluValidatorHelperTest {
+    private static final Vector<String> FORMS = Vector.of("xyz", "abc", "xyz", "abc", "a", "", " ", "_", "a b");
+    private static final Vector<String> LEMMAS = Vector.of("l1", "l2", "l3", "", "_", "l 2");
+    private static final Vector<String> POS_TAGS = Vector.of("NOUN", "VERB", "ADJ", "", "AAAAA");
+
     private ConlluValidatorHelper validator = new ConlluValidatorHelper();
 
     @Test
@@ -173,4 +179,100 @@ public class ConlluValidatorHelperTest {
                 new ConlluWordLine(4, "abc", "l4", "VERB")));
         assertThat(validator.textEqualsConcatenatedForms(sentence)).isTrue();
     }
+
+    @Test
+    public void validateRejectionReasons() {
+        var sentence = new ConlluSentence("xyz abc", Vector.empty());
+        assertThat(validator.validateForTokenization(sentence)).isEqualTo(Option.some(ConlluRejectionReason.EMPTY));
+
+        // invalid form outranks text mismatch found earlier
+        sentence = new ConlluSentence("xy abc", Vector.of(
+                new ConlluWordLine(1, "xyz", "l1", "NOUN"),
+                new ConlluWordLine(2, 3, "abc", Vector.of(
+                        new ConlluWordLine(2, "_", "l2", "ADJ"),
+                        new ConlluWordLine(3, "c", "l3", "ADV")))));
+        assertThat(validator.validateForTokenization(sentence)).isEqualTo(Option.some(ConlluRejectionReason.INVALID_FORM));
+
+        sentence = new ConlluSentence("xyz abc ", Vector.of(
+                new ConlluWordLine(1, "xyz", "_", "NOUN"),
+                new ConlluWordLine(2, "abc", "l2", "VERB")));
+        assertThat(validator.validateForLemmatization(sentence)).isEqualTo(Option.some(ConlluRejectionReason.TEXT_NOT_EQUAL_TO_FORMS));
+
+        // lemmas and pos tags are not checked for tokenization
+        sentence = new ConlluSentence("xyz abc", Vector.of(
+                new ConlluWordLine(1, "xyz", "l1", "AAAAA"),
+                new ConlluWordLine(2, "abc", "_", "VERB")));
+        assertThat(validator.validateForLemmatization(sentence)).isEqualTo(Option.some(ConlluRejectionReason.INVALID_LEMMA));
+        assertThat(validator.validateForTokenization(sentence)).isEqualTo(Option.none());
+
+        sentence = new ConlluSentence("xyz abc", Vector.of(
+                new ConlluWordLine(1, "xyz", "l1", "NOUN"),
+                new ConlluWordLine(2, 3, "abc", Vector.of(
+                        new ConlluWordLine(2, "ab", "l2", "ADJ"),
+                        new ConlluWordLine(3, "c", "l3", "BBBBBB")))));
+        assertThat(validator.validateForLemmatization(sentence)).isEqualTo(Option.some(ConlluRejectionReason.INVALID_POS_TAG));
+
+        sentence = new ConlluSentence("xyz abc", Vector.of(
+                new ConlluWordLine(1, "xyz", "l1", "NOUN"),
+                new ConlluWordLine(2, 3, "abc", Vector.of(
+                        new ConlluWordLine(2, "ab", "l2", "ADJ"),
+                        new ConlluWordLine(3, "c", "l3", "VERB")))));
+        assertThat(validator.validateForLemmatization(sentence)).isEqualTo(Option.none());
+    }
+
+    @Test
+    public void validateSameAsSeparateRules() {
+        // single pass validation gives the same result as rules checked one by one
+        var random = new Random(17);
+        for (int i = 0; i < 20000; i++) {
+            var sentence = createRandomSentence(random);
+            assertThat(validator.validateForTokenization(sentence)).as("%s", sentence).isEqualTo(validateBySeparateRules(sentence, false));
+            assertThat(validator.validateForLemmatization(sentence)).as("%s", sentence).isEqualTo(validateBySeparateRules(sentence, true));
+        }
+    }
+
+    private Option<ConlluRejectionReason> validateBySeparateRules(ConlluSentence sentence, boolean lemmatization) {
+        if (!validator.notEmpty(sentence)) {
+            return Option.some(ConlluRejectionReason.EMPTY);
+        } else if (!validator.formsValid(sentence)) {
+            return Option.some(ConlluRejectionReason.INVALID_FORM);
+        } else if (!validator.textEqualsConcatenatedForms(sentence)) {
+            return Option.some(ConlluRejectionReason.TEXT_NOT_EQUAL_TO_FORMS);
+        } else if (lemmatization && !validator.lemmasValid(sentence)) {
+            return Option.some(ConlluRejectionReason.INVALID_LEMMA);
+        } else if (lemmatization && !validator.posTagsValid(sentence)) {
+            return Option.some(ConlluRejectionReason.INVALID_POS_TAG);
+        } else {
+            return Option.none();
+        }
+    }
+
+    private ConlluSentence createRandomSentence(Random random) {
+        var words = Vector.range(0, random.nextInt(4)).map(id -> random.nextInt(4) == 0
+                ? new ConlluWordLine(id, id + 1, pick(random, FORMS), Vector.of(createRandomWord(random, id), createRandomWord(random, id + 1)))
+                : createRandomWord(random, id));
+        var text = words.map(ConlluWordLine::getForm).mkString(pick(random, Vector.of(" ", " ", " ", "", "  ")));
+        switch (random.nextInt(6)) {
+            case 0:
+                text = " " + text;
+                break;
+            case 1:
+                text = text + " ";
+                break;
+            case 2:
+                text = text.isEmpty() ? text : text.substring(1);
+                break;
+            default:
+                break;
+        }
+        return new ConlluSentence(text, words);
+    }
+
+    private ConlluWordLine createRandomWord(Random random, int id) {
+        return new ConlluWordLine(id, pick(random, FORMS), pick(random, LEMMAS), pick(random, POS_TAGS));
+    }
+
+    private String pick(Random random, Vector<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
 }
@@ -14,6 +14,8 @@
 package org.babzel.tools.opennlp.conllu.util;
 
 import io.vavr.collection.Vector;
+import io.vavr.control.Either;
+import io.vavr.control.Option;
 import static org.assertj.core.api.Assertions.assertThat;
 import org.babzel.tools.opennlp.conllu.parser.ConlluSentence;
 import org.junit.jupiter.api.Test;
@@ -35,58 +37,55 @@ public class ConlluValidatorTest {
     public void isValidForTokenization() {
         var sentence = new ConlluSentence("", Vector.empty());
 
-        given(helper.notEmpty(any())).willReturn(false);
+        given(helper.validateForTokenization(any())).willReturn(Option.some(ConlluRejectionReason.EMPTY));
         assertThat(validator.isValidForTokenization(sentence)).isFalse();
+        assertThat(validator.getTokenizationRejection(sentence)).isEqualTo(Option.some(ConlluRejectionReason.EMPTY));
 
-        given(helper.notEmpty(any())).willReturn(true);
-        given(helper.formsValid(any())).willReturn(false);
+        given(helper.validateForTokenization(any())).willReturn(Option.some(ConlluRejectionReason.TEXT_NOT_EQUAL_TO_FORMS));
         assertThat(validator.isValidForTokenization(sentence)).isFalse();
+        assertThat(validator.getTokenizationRejection(sentence)).isEqualTo(Option.some(ConlluRejectionReason.TEXT_NOT_EQUAL_TO_FORMS));
 
-        given(helper.notEmpty(any())).willReturn(true);
-        given(helper.formsValid(any())).willReturn(true);
-        given(helper.textEqualsConcatenatedForms(any())).willReturn(false);
-        assertThat(validator.isValidForTokenization(sentence)).isFalse();
-
-        given(helper.notEmpty(any())).willReturn(true);
-        given(helper.formsValid(any())).willReturn(true);
-        given(helper.textEqualsConcatenatedForms(any())).willReturn(true);
+        given(helper.validateForTokenization(any())).willReturn(Option.none());
         assertThat(validator.isValidForTokenization(sentence)).isTrue();
+        assertThat(validator.getTokenizationRejection(sentence)).isEqualTo(Option.none());
     }
 
     @Test
     public void isValidForLemmatization() {
         var sentence = new ConlluSentence("", Vector.empty());
 
-        given(helper.notEmpty(any())).willReturn(false);
+        given(helper.validateForLemmatization(any())).willReturn(Option.some(ConlluRejectionReason.INVALID_FORM));
         assertThat(validator.isValidForLemmatization(sentence)).isFalse();
+        assertThat(validator.getLemmatizationRejection(sentence)).isEqualTo(Option.some(ConlluRejectionReason.INVALID_FORM));
 
-        given(helper.notEmpty(any())).willReturn(true);
-        given(helper.formsValid(any())).willReturn(false);
+        given(helper.validateForLemmatization(any())).willReturn(Option.some(ConlluRejectionReason.INVALID_POS_TAG));
         assertThat(validator.isValidForLemmatization(sentence)).isFalse();
+        assertThat(validator.getLemmatizationRejection(sentence)).isEqualTo(Option.some(ConlluRejectionReason.INVALID_POS_TAG));
 
-        given(helper.notEmpty(any())).willReturn(true);
-        given(helper.formsValid(any())).willReturn(true);
-        given(helper.textEqualsConcatenatedForms(any())).willReturn(false);
-        assertThat(validator.isValidForLemmatization(sentence)).isFalse();
+        given(helper.validateForLemmatization(any())).willReturn(Option.none());
+        assertThat(validator.isValidForLemmatization(sentence)).isTrue();
+        assertThat(validator.getLemmatizationRejection(sentence)).isEqualTo(Option.none());
+    }
 
-        given(helper.notEmpty(any())).willReturn(true);
-        given(helper.formsValid(any())).willReturn(true);
-        given(helper.textEqualsConcatenatedForms(any())).willReturn(true);
-        given(helper.lemmasValid(any())).willReturn(false);
-        assertThat(validator.isValidForLemmatization(sentence)).isFalse();
+    @Test
+    public void validateForTokenization() {
+        var sentence = new ConlluSentence("s", Vector.empty());
 
-        given(helper.notEmpty(any())).willReturn(true);
-        given(helper.formsValid(any())).willReturn(true);
-        given(helper.textEqualsConcatenatedForms(any())).willReturn(true);
-        given(helper.lemmasValid(any())).willReturn(true);
-        given(helper.posTagsValid(any())).willReturn(false);
-        assertThat(validator.isValidForLemmatization(sentence)).isFalse();
+        given(helper.validateForTokenization(any())).willReturn(Option.some(ConlluRejectionReason.EMPTY));
+        assertThat(validator.validateForTokenization(sentence)).isEqualTo(Either.left(new ConlluRejection("EMPTY", "s")));
 
-        given(helper.notEmpty(any())).willReturn(true);
-        given(helper.formsValid(any())).willReturn(true);
-        given(helper.textEqualsConcatenatedForms(any())).willReturn(true);
-        given(helper.lemmasValid(any())).willReturn(true);
-        given(helper.posTagsValid(any())).willReturn(true);
-        assertThat(validator.isValidForLemmatization(sentence)).isTrue();
+        given(helper.validateForTokenization(any())).willReturn(Option.none());
+        assertThat(validator.validateForTokenization(sentence)).isEqualTo(Either.right(sentence));
+    }
+
+    @Test
+    public void validateForLemmatization() {
+        var sentence = new ConlluSentence("s", Vector.empty());
+
+        given(helper.validateForLemmatization(any())).willReturn(Option.some(ConlluRejectionReason.INVALID_LEMMA));
+        assertThat(validator.validateForLemmatization(sentence)).isEqualTo(Either.left(new ConlluRejection("INVALID_LEMMA", "s")));
+
+        given(helper.validateForLemmatization(any())).willReturn(Option.none());
+        assertThat(validator.validateForLemmatization(sentence)).isEqualTo(Either.right(sentence));
     }
 }
@@ -20,18 +20,27 @@ import io.vavr.collection.Seq;
 import io.vavr.collection.Vector;
 import io.vavr.control.Option;
 import java.nio.file.Path;
+import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.model.BaseModel;
+import org.babzel.tools.opennlp.model.train.DataIndexerCache;
 import org.babzel.tools.opennlp.model.train.ModelEvaluator;
 import org.babzel.tools.opennlp.model.train.ModelTrainer;
 import org.babzel.tools.opennlp.model.util.EvalReportPersister;
 import org.babzel.tools.opennlp.model.util.ModelPersister;
+import org.babzel.tools.opennlp.model.util.SampleSource;
 import org.babzel.tools.opennlp.model.util.SampleSplitter;
+import org.babzel.tools.util.ParallelExecutor;
+import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -49,6 +58,10 @@ public class ModelProcessorTest {
     private ModelPersister modelPersister;
     @Mock
     private EvalReportPersister evalReportPersister;
+    @Spy
+    private ParallelExecutor executor = new ParallelExecutor(() -> 3);
+    @Captor
+    private ArgumentCaptor<DataIndexerCache> indexers;
     @InjectMocks
     private ModelProcessor processor;
 
@@ -59,31 +72,39 @@ public class ModelProcessorTest {
         Path rootPath = Jimfs.newFileSystem().getPath("root");
         Path modelPath = rootPath.resolve("model.bin");
         Path reportPath = rootPath.resolve("report.txt");
-        Seq<String> samples = Vector.of("a", "b", "c");
-        Seq<String> trainSamples = Vector.of("a", "b");
-        Seq<String> evalSamples = Vector.of("c");
+        SampleSource<String> samples = SampleSource.of(Vector.of("a", "b", "c"));
+        SampleSource<String> trainSamples = SampleSource.of(Vector.of("a", "b"));
+        SampleSource<String> evalSamples = SampleSource.of(Vector.of("c"));
         given(splitter.<String>splitSamples(any())).willReturn(Tuple.of(trainSamples, evalSamples));
         BaseModel modelA = mock(BaseModel.class);
         BaseModel modelB = mock(BaseModel.class);
         BaseModel modelC = mock(BaseModel.class);
-        given(trainer.trainModel(any(), any(), any())).willReturn(Option.some(modelA), Option.some(modelB), Option.some(modelC));
+        // algorithms are trained concurrently, results depend on arguments only
+        given(trainer.trainModel(eq("a"), any(), any(), any())).willReturn(Option.some(modelA));
+        given(trainer.trainModel(eq("b"), any(), any(), any())).willReturn(Option.some(modelB));
+        given(trainer.trainModel(eq("c"), any(), any(), any())).willReturn(Option.some(modelC));
         Tuple2<Double, String> evalInfoA = Tuple.of(0.1, "ma");
         Tuple2<Double, String> evalInfoB = Tuple.of(0.9, "mb");
         Tuple2<Double, String> evalInfoC = Tuple.of(0.9, "mc");
-        given(evaluator.evaluateModel(any(), any())).willReturn(evalInfoA, evalInfoB, evalInfoC);
+        given(evaluator.evaluateModel(eq(modelA), any())).willReturn(evalInfoA);
+        given(evaluator.evaluateModel(eq(modelB), any())).willReturn(evalInfoB);
+        given(evaluator.evaluateModel(eq(modelC), any())).willReturn(evalInfoC);
 
-        processor.processModel(samples, algorithms, language, modelPath, reportPath);
+        var modelWritten = processor.processModel(samples, "rejections", algorithms, language, modelPath, reportPath);
 
+        assertThat(modelWritten).isTrue();
         verify(splitter).splitSamples(samples);
-        verify(trainer).trainModel("a", language, trainSamples);
+        verify(trainer).trainModel(eq("a"), eq(language), eq(trainSamples), indexers.capture());
         verify(evaluator).evaluateModel(modelA, evalSamples);
-        verify(trainer).trainModel("b", language, trainSamples);
+        verify(trainer).trainModel(eq("b"), eq(language), eq(trainSamples), indexers.capture());
         verify(evaluator).evaluateModel(modelB, evalSamples);
-        verify(trainer).trainModel("c", language, trainSamples);
+        verify(trainer).trainModel(eq("c"), eq(language), eq(trainSamples), indexers.capture());
         verify(evaluator).evaluateModel(modelC, evalSamples);
         verify(modelPersister).writeModel(modelB, modelPath);
-        verify(evalReportPersister).writeEvaluationReport(0.9, 2, 1, "b", modelB, "mb", reportPath);
+        verify(evalReportPersister).writeEvaluationReport(0.9, 2, 1, "b", modelB, "rejections", "mb", reportPath);
         verifyNoMoreInteractions(splitter, trainer, evaluator, modelPersister, evalReportPersister);
+        // all algorithms share indexed events
+        assertThat(indexers.getAllValues()).hasSize(3).containsOnly(indexers.getValue());
     }
 
     @Test
@@ -93,18 +114,38 @@ public class ModelProcessorTest {
         Path rootPath = Jimfs.newFileSystem().getPath("root");
         Path modelPath = rootPath.resolve("model.bin");
         Path reportPath = rootPath.resolve("report.txt");
-        Seq<String> samples = Vector.of("a", "b", "c");
-        Seq<String> trainSamples = Vector.of("a", "b");
-        Seq<String> evalSamples = Vector.of("c");
+        SampleSource<String> samples = SampleSource.of(Vector.of("a", "b", "c"));
+        SampleSource<String> trainSamples = SampleSource.of(Vector.of("a", "b"));
+        SampleSource<String> evalSamples = SampleSource.of(Vector.of("c"));
         given(splitter.<String>splitSamples(any())).willReturn(Tuple.of(trainSamples, evalSamples));
-        given(trainer.trainModel(any(), any(), any())).willReturn(Option.none());
+        given(trainer.trainModel(any(), any(), any(), any())).willReturn(Option.none());
 
-        processor.processModel(samples, algorithms, language, modelPath, reportPath);
+        var modelWritten = processor.processModel(samples, "rejections", algorithms, language, modelPath, reportPath);
 
+        assertThat(modelWritten).isFalse();
         verify(splitter).splitSamples(samples);
-        verify(trainer).trainModel("a", language, trainSamples);
-        verify(trainer).trainModel("b", language, trainSamples);
-        verify(trainer).trainModel("c", language, trainSamples);
+        verify(trainer).trainModel(eq("a"), eq(language), eq(trainSamples), indexers.capture());
+        verify(trainer).trainModel(eq("b"), eq(language), eq(trainSamples), indexers.capture());
+        verify(trainer).trainModel(eq("c"), eq(language), eq(trainSamples), indexers.capture());
         verifyNoMoreInteractions(splitter, trainer, evaluator, modelPersister, evalReportPersister);
     }
+
+    @Test
+    public void getProcessingInputs() {
+        var params = new TrainingParameters();
+        params.put(TrainingParameters.ALGORITHM_PARAM, "a");
+        params.put(TrainingParameters.CUTOFF_PARAM, 5);
+        params.put(TrainingParameters.THREADS_PARAM, 8);
+        given(trainer.getTrainingParameters(any(), any())).willReturn(params);
+
+        var inputs = processor.getProcessingInputs(Vector.of("a"), "lx");
+
+        verify(trainer).getTrainingParameters("a", "lx");
+        verifyNoMoreInteractions(splitter, trainer, evaluator, modelPersister, evalReportPersister);
+        assertThat(inputs).isEqualTo(Vector.of(
+                splitter.getClass().getName(),
+                trainer.getClass().getName(),
+                evaluator.getClass().getName(),
+                "Algorithm=a, Cutoff=5"));
+    }
 }
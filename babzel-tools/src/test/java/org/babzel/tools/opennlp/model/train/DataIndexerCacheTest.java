@@ -0,0 +1,98 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.opennlp.model.train;
+
+import io.vavr.collection.Vector;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import opennlp.tools.ml.AbstractTrainer;
+import opennlp.tools.ml.EventTrainer;
+import opennlp.tools.ml.TrainerFactory;
+import opennlp.tools.ml.model.Event;
+import opennlp.tools.util.ObjectStreamUtils;
+import opennlp.tools.util.TrainingParameters;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.babzel.tools.opennlp.model.ModelAlgorithm;
+import org.junit.jupiter.api.Test;
+
+public class DataIndexerCacheTest {
+    private final Vector<Event> events = Vector.range(0, 60).map(i -> new Event(
+            i % 3 == 0 ? "o1" : "o2",
+            new String[] {"f" + i % 3, "g" + i % 2}));
+
+    @Test
+    public void trainModelSharedIndexing() throws Exception {
+        var cache = new DataIndexerCache();
+        var indexingCount = new AtomicInteger();
+
+        var eventHashes = new HashSet<String>();
+        for (var algorithm : Vector.of(ModelAlgorithm.MAXENT, ModelAlgorithm.MAXENT_QN, ModelAlgorithm.PERCEPTRON, ModelAlgorithm.NAIVE_BAYES)) {
+            var manifestInfoEntries = new HashMap<String, String>();
+            var model = cache.trainModel(createParams(algorithm), manifestInfoEntries, () -> {
+                indexingCount.incrementAndGet();
+                return ObjectStreamUtils.createObjectStream(events.toJavaList());
+            });
+            assertThat(model.getNumOutcomes()).isEqualTo(2);
+            eventHashes.add(manifestInfoEntries.get("Training-Eventhash"));
+        }
+
+        // maxent algorithms share sorted and merged events, perceptron and naive bayes share unmerged ones
+        assertThat(indexingCount.get()).isEqualTo(2);
+        assertThat(eventHashes).hasSize(1).doesNotContainNull();
+    }
+
+    @Test
+    public void trainModelDifferentCutoff() throws Exception {
+        var cache = new DataIndexerCache();
+        var indexingCount = new AtomicInteger();
+        var params = createParams(ModelAlgorithm.MAXENT);
+        params.put(AbstractTrainer.CUTOFF_PARAM, 1);
+
+        cache.trainModel(createParams(ModelAlgorithm.MAXENT), new HashMap<>(), () -> {
+            indexingCount.incrementAndGet();
+            return ObjectStreamUtils.createObjectStream(events.toJavaList());
+        });
+        cache.trainModel(params, new HashMap<>(), () -> {
+            indexingCount.incrementAndGet();
+            return ObjectStreamUtils.createObjectStream(events.toJavaList());
+        });
+
+        assertThat(indexingCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void trainModelSameAsEventTrainer() throws Exception {
+        // model and manifest are the same as trained directly from events
+        for (var algorithm : Vector.of(ModelAlgorithm.MAXENT, ModelAlgorithm.MAXENT_QN, ModelAlgorithm.PERCEPTRON, ModelAlgorithm.NAIVE_BAYES)) {
+            var manifestInfoEntries = new HashMap<String, String>();
+            var model = new DataIndexerCache().trainModel(createParams(algorithm), manifestInfoEntries, () -> ObjectStreamUtils.createObjectStream(events.toJavaList()));
+            var expectedManifestInfoEntries = new HashMap<String, String>();
+            EventTrainer trainer = TrainerFactory.getEventTrainer(createParams(algorithm), expectedManifestInfoEntries);
+            var expectedModel = trainer.train(ObjectStreamUtils.createObjectStream(events.toJavaList()));
+
+            assertThat(manifestInfoEntries).isEqualTo(expectedManifestInfoEntries);
+            for (var event : events) {
+                assertThat(model.eval(event.getContext())).containsExactly(expectedModel.eval(event.getContext()));
+            }
+        }
+    }
+
+    private TrainingParameters createParams(String algorithm) {
+        var params = TrainingParameters.defaultParams();
+        params.put(TrainingParameters.ALGORITHM_PARAM, algorithm);
+        params.put(TrainingParameters.ITERATIONS_PARAM, 10);
+        return params;
+    }
+}
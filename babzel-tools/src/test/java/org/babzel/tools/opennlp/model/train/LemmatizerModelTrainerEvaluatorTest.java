@@ -13,6 +13,7 @@
  */
 package org.babzel.tools.opennlp.model.train;
 
+import io.vavr.collection.HashMap;
 import io.vavr.collection.Seq;
 import io.vavr.collection.Vector;
 import java.util.List;
@@ -20,10 +21,11 @@ import opennlp.tools.lemmatizer.LemmaSample;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import org.babzel.tools.opennlp.model.ModelAlgorithm;
+import org.babzel.tools.opennlp.model.util.SampleSource;
 import org.junit.jupiter.api.Test;
 
 public class LemmatizerModelTrainerEvaluatorTest {
-    private LemmatizerModelTrainer trainer = new LemmatizerModelTrainer();
+    private LemmatizerModelTrainer trainer = new LemmatizerModelTrainer(new TrainingParametersFactory(() -> HashMap.empty(), () -> 1));
     private LemmatizerModelEvaluator evaluator = new LemmatizerModelEvaluator();
 
     @Test
@@ -37,22 +39,22 @@ public class LemmatizerModelTrainerEvaluatorTest {
                 new LemmaSample(List.of("es", "ex"), List.of("N", "V"), List.of("e", "e")),
                 new LemmaSample(List.of("fs", "fx"), List.of("N", "V"), List.of("f", "f")));
 
-        var modelOpt = trainer.trainModel(ModelAlgorithm.PERCEPTRON, "lx", trainSamples);
+        var modelOpt = trainer.trainModel(ModelAlgorithm.PERCEPTRON, "lx", SampleSource.of(trainSamples));
         assertThat(modelOpt).isNotEmpty();
 
-        var evalInfo = evaluator.evaluateModel(modelOpt.get(), evalSamples);
+        var evalInfo = evaluator.evaluateModel(modelOpt.get(), SampleSource.of(evalSamples));
         assertThat(evalInfo._1).isGreaterThanOrEqualTo(0.0).isLessThanOrEqualTo(1.0);
     }
 
     @Test
     public void trainNoData() {
-        var modelOpt = trainer.trainModel(ModelAlgorithm.NAIVE_BAYES, "lx", Vector.of());
+        var modelOpt = trainer.trainModel(ModelAlgorithm.NAIVE_BAYES, "lx", SampleSource.of(Vector.of()));
 
         assertThat(modelOpt).isEmpty();
     }
 
     @Test
     public void trainIncorrectAlgorithm() {
-        assertThatThrownBy(() -> trainer.trainModel("dummy", "lx", Vector.of()));
+        assertThatThrownBy(() -> trainer.trainModel("dummy", "lx", SampleSource.of(Vector.of())));
     }
 }
@@ -0,0 +1,167 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.opennlp.model.train;
+
+import io.vavr.CheckedFunction2;
+import io.vavr.Tuple;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.Map;
+import io.vavr.collection.Seq;
+import io.vavr.collection.Vector;
+import io.vavr.control.Try;
+import java.io.Serializable;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import opennlp.tools.lemmatizer.LemmaSample;
+import opennlp.tools.lemmatizer.LemmatizerFactory;
+import opennlp.tools.lemmatizer.LemmatizerME;
+import opennlp.tools.postag.POSSample;
+import opennlp.tools.postag.POSTaggerFactory;
+import opennlp.tools.postag.POSTaggerME;
+import opennlp.tools.sentdetect.SentenceDetectorFactory;
+import opennlp.tools.sentdetect.SentenceDetectorME;
+import opennlp.tools.sentdetect.SentenceSample;
+import opennlp.tools.tokenize.TokenSample;
+import opennlp.tools.tokenize.TokenizerFactory;
+import opennlp.tools.tokenize.TokenizerME;
+import opennlp.tools.util.Span;
+import opennlp.tools.util.TrainingParameters;
+import opennlp.tools.util.model.BaseModel;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.babzel.tools.opennlp.model.ModelAlgorithm;
+import org.babzel.tools.opennlp.model.ModelType;
+import org.babzel.tools.opennlp.model.util.EOSCharsSupplier;
+import org.babzel.tools.opennlp.model.util.SampleObjectStream;
+import org.babzel.tools.opennlp.model.util.SampleSource;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class ModelTrainerSharedIndexingTest {
+    private static final Seq<String> EVENT_ALGORITHMS = Vector.of(ModelAlgorithm.MAXENT, ModelAlgorithm.MAXENT_QN, ModelAlgorithm.PERCEPTRON, ModelAlgorithm.NAIVE_BAYES);
+
+    public static Stream<TrainerCase<?, ?>> trainerCases() {
+        var eosCharsSupplier = mock(EOSCharsSupplier.class);
+        given(eosCharsSupplier.getEOSChars("lx")).willReturn(Vector.of('#', '@'));
+        return Stream.of(
+                new TrainerCase<>(
+                        ModelType.SENTENCE, "sent.model", EVENT_ALGORITHMS,
+                        Vector.range(0, 60).map(i -> createSentenceSample(String.format("w%d m#%d x%d#", i % 7, i % 4, i % 5), String.format("y%d r%d@", i % 3, i))),
+                        parametersFactory -> new SentenceModelTrainer(eosCharsSupplier, parametersFactory),
+                        (samples, params) -> SentenceDetectorME.train("lx", samples, new SentenceDetectorFactory("lx", true, null, new char[] {'#', '@'}), params)),
+                new TrainerCase<>(
+                        ModelType.TOKENIZER, "token.model", EVENT_ALGORITHMS,
+                        Vector.range(0, 60).map(i -> createTokenSample(String.format("n%d v%d|.|%d r%d", i % 7, i % 5, i % 3, i))),
+                        TokenizerModelTrainer::new,
+                        (samples, params) -> TokenizerME.train(samples, new TokenizerFactory("lx", null, false, null), params)),
+                new TrainerCase<>(
+                        ModelType.POS, "pos.model", EVENT_ALGORITHMS.append(ModelAlgorithm.PERCEPTRON_SEQUENCE),
+                        Vector.range(0, 60).map(i -> createPOSSample(String.format("nnn%d_NOUN vvv%d_VERB rrr%d_ADJ ._PUNCT", i % 7, i % 5, i))),
+                        POSModelTrainer::new,
+                        (samples, params) -> POSTaggerME.train("lx", samples, params, new POSTaggerFactory())),
+                new TrainerCase<>(
+                        ModelType.LEMMATIZER, "lemmatizer.model", EVENT_ALGORITHMS.append(ModelAlgorithm.PERCEPTRON_SEQUENCE),
+                        Vector.range(0, 60).map(i -> new LemmaSample(List.of("as" + i % 7, "bx" + i, "."), List.of("N", "V", "P"), List.of("a" + i % 7, "b" + i, "."))),
+                        LemmatizerModelTrainer::new,
+                        (samples, params) -> LemmatizerME.train("lx", samples, params, new LemmatizerFactory())));
+    }
+
+    @ParameterizedTest
+    @MethodSource("trainerCases")
+    public void trainSameAsOpenNLP(TrainerCase<?, ?> trainerCase) {
+        trainerCase.assertSameAsOpenNLP(HashMap.empty());
+    }
+
+    @ParameterizedTest
+    @MethodSource("trainerCases")
+    public void trainSameAsOpenNLPDifferentCutoff(TrainerCase<?, ?> trainerCase) {
+        // maxent and maxent qn sort and merge events, perceptron and naive bayes do not, cutoffs split both pairs
+        var profile = HashMap.of(
+                trainerCase.modelType + "." + ModelAlgorithm.MAXENT_QN + ".Cutoff", "1",
+                trainerCase.modelType + "." + ModelAlgorithm.PERCEPTRON + ".Cutoff", "1");
+
+        trainerCase.assertSameAsOpenNLP(profile);
+        // cutoff changes models of these samples, indexed events shared across cutoffs would give different models
+        assertThat(trainerCase.trainOpenNLP(ModelAlgorithm.MAXENT_QN, profile)).isNotEqualTo(trainerCase.trainOpenNLP(ModelAlgorithm.MAXENT_QN, HashMap.empty()));
+        assertThat(trainerCase.trainOpenNLP(ModelAlgorithm.PERCEPTRON, profile)).isNotEqualTo(trainerCase.trainOpenNLP(ModelAlgorithm.PERCEPTRON, HashMap.empty()));
+    }
+
+    private static SentenceSample createSentenceSample(String sentence1, String sentence2) {
+        var text = sentence1 + " " + sentence2;
+        return new SentenceSample(text, new Span(0, sentence1.length()), new Span(sentence1.length() + 1, text.length()));
+    }
+
+    @SneakyThrows
+    private static TokenSample createTokenSample(String s) {
+        return TokenSample.parse(s, "|");
+    }
+
+    @SneakyThrows
+    private static POSSample createPOSSample(String s) {
+        return POSSample.parse(s);
+    }
+
+    @RequiredArgsConstructor
+    private static class TrainerCase<M extends BaseModel, S extends Serializable> {
+        private final String modelType;
+        private final String modelEntry;
+        private final Seq<String> algorithms;
+        private final Seq<S> samples;
+        private final Function<TrainingParametersFactory, ModelTrainer<M, S>> trainerFactory;
+        private final CheckedFunction2<SampleObjectStream<S>, TrainingParameters, M> openNLPTrainer;
+
+        public void assertSameAsOpenNLP(Map<String, String> profile) {
+            // all algorithms share one cache, every model is the same as trained separately by OpenNLP
+            var trainer = createTrainer(profile);
+            var indexers = new DataIndexerCache();
+            for (var algorithm : algorithms) {
+                var expectedModel = Try.of(() -> trainOpenNLP(trainer, algorithm));
+                if (expectedModel.isFailure()) {
+                    // algorithms which OpenNLP fails to train fail the same way
+                    assertThatThrownBy(() -> trainer.trainModel(algorithm, "lx", SampleSource.of(samples), indexers)).isInstanceOf(expectedModel.getCause().getClass());
+                    continue;
+                }
+                var model = trainer.trainModel(algorithm, "lx", SampleSource.of(samples), indexers).get();
+
+                assertThat(model.getManifestProperty("Training-Eventhash")).isEqualTo(expectedModel.get().getManifestProperty("Training-Eventhash"));
+                assertThat((Object) model.getArtifact(modelEntry)).isNotNull().isEqualTo(expectedModel.get().getArtifact(modelEntry));
+            }
+        }
+
+        public Object trainOpenNLP(String algorithm, Map<String, String> profile) {
+            return trainOpenNLP(createTrainer(profile), algorithm).getArtifact(modelEntry);
+        }
+
+        @SneakyThrows
+        private M trainOpenNLP(ModelTrainer<M, S> trainer, String algorithm) {
+            return openNLPTrainer.apply(new SampleObjectStream<>(SampleSource.of(samples)), trainer.getTrainingParameters(algorithm, "lx"));
+        }
+
+        private ModelTrainer<M, S> createTrainer(Map<String, String> profile) {
+            // single threaded training gives the same model every time
+            var threadsProfile = algorithms.toMap(algorithm -> Tuple.of(modelType + "." + algorithm + ".Threads", "1"));
+            return trainerFactory.apply(new TrainingParametersFactory(() -> threadsProfile.merge(profile), () -> 1));
+        }
+
+        @Override
+        public String toString() {
+            return modelType;
+        }
+    }
+}
@@ -13,16 +13,18 @@
  */
 package org.babzel.tools.opennlp.model.train;
 
+import io.vavr.collection.HashMap;
 import io.vavr.collection.Seq;
 import io.vavr.collection.Vector;
 import opennlp.tools.postag.POSSample;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import org.babzel.tools.opennlp.model.ModelAlgorithm;
+import org.babzel.tools.opennlp.model.util.SampleSource;
 import org.junit.jupiter.api.Test;
 
 public class POSModelTrainerEvaluatorTest {
-    private POSModelTrainer trainer = new POSModelTrainer();
+    private POSModelTrainer trainer = new POSModelTrainer(new TrainingParametersFactory(() -> HashMap.empty(), () -> 1));
     private POSModelEvaluator evaluator = new POSModelEvaluator();
 
     @Test
@@ -36,22 +38,22 @@ public class POSModelTrainerEvaluatorTest {
                 POSSample.parse("nnn2_NOUN vvv2_VERB ._PUNCT"),
                 POSSample.parse("nnn5_NOUN vvv5_VERB ._PUNCT"));
 
-        var modelOpt = trainer.trainModel(ModelAlgorithm.MAXENT, "lx", trainSamples);
+        var modelOpt = trainer.trainModel(ModelAlgorithm.MAXENT, "lx", SampleSource.of(trainSamples));
         assertThat(modelOpt).isNotEmpty();
 
-        var evalInfo = evaluator.evaluateModel(modelOpt.get(), evalSamples);
+        var evalInfo = evaluator.evaluateModel(modelOpt.get(), SampleSource.of(evalSamples));
         assertThat(evalInfo._1).isGreaterThanOrEqualTo(0.0).isLessThanOrEqualTo(1.0);
     }
 
     @Test
     public void trainEvaluateNoData() {
-        var modelOpt = trainer.trainModel(ModelAlgorithm.MAXENT_QN, "lx", Vector.of());
+        var modelOpt = trainer.trainModel(ModelAlgorithm.MAXENT_QN, "lx", SampleSource.of(Vector.of()));
 
         assertThat(modelOpt).isEmpty();
     }
 
     @Test
     public void trainIncorrectAlgorithm() {
-        assertThatThrownBy(() -> trainer.trainModel("dummy", "lx", Vector.of()));
+        assertThatThrownBy(() -> trainer.trainModel("dummy", "lx", SampleSource.of(Vector.of())));
     }
 }
@@ -13,6 +13,7 @@
  */
 package org.babzel.tools.opennlp.model.train;
 
+import io.vavr.collection.HashMap;
 import io.vavr.collection.Seq;
 import io.vavr.collection.Vector;
 import opennlp.tools.sentdetect.SentenceSample;
@@ -22,18 +23,22 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import org.babzel.tools.opennlp.model.ModelAlgorithm;
 import org.babzel.tools.opennlp.model.util.EOSCharsSupplier;
 import org.junit.jupiter.api.BeforeEach;
+import org.babzel.tools.opennlp.model.util.SampleSource;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
 public class SentenceModelTrainerEvaluatorTest {
     @Mock
     private EOSCharsSupplier eosCharsSupplier;
+    @Spy
+    private TrainingParametersFactory parametersFactory = new TrainingParametersFactory(() -> HashMap.empty(), () -> 1);
     @InjectMocks
     private SentenceModelTrainer trainer;
     @InjectMocks
@@ -58,23 +63,23 @@ public class SentenceModelTrainerEvaluatorTest {
                 createSample("h1 h2#"),
                 createSample("i1 i2$"));
 
-        var modelOpt = trainer.trainModel(ModelAlgorithm.MAXENT_QN, "lx", trainSamples);
+        var modelOpt = trainer.trainModel(ModelAlgorithm.MAXENT_QN, "lx", SampleSource.of(trainSamples));
         assertThat(modelOpt).isNotEmpty();
 
-        var evalInfo = evaluator.evaluateModel(modelOpt.get(), evalSamples);
+        var evalInfo = evaluator.evaluateModel(modelOpt.get(), SampleSource.of(evalSamples));
         assertThat(evalInfo._1).isGreaterThanOrEqualTo(0.0).isLessThanOrEqualTo(1.0);
     }
 
     @Test
     public void trainEvaluateNoData() {
-        var modelOpt = trainer.trainModel(ModelAlgorithm.NAIVE_BAYES, "lx", Vector.of());
+        var modelOpt = trainer.trainModel(ModelAlgorithm.NAIVE_BAYES, "lx", SampleSource.of(Vector.of()));
 
         assertThat(modelOpt).isEmpty();
     }
 
     @Test
     public void trainIncorrectAlgorithm() {
-        assertThatThrownBy(() -> trainer.trainModel("dummy", "lx", Vector.of()));
+        assertThatThrownBy(() -> trainer.trainModel("dummy", "lx", SampleSource.of(Vector.of())));
     }
 
     private SentenceSample createSample(String s) {
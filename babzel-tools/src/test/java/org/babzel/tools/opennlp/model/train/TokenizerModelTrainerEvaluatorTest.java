@@ -13,16 +13,18 @@
  */
 package org.babzel.tools.opennlp.model.train;
 
+import io.vavr.collection.HashMap;
 import io.vavr.collection.Seq;
 import io.vavr.collection.Vector;
 import opennlp.tools.tokenize.TokenSample;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import org.babzel.tools.opennlp.model.ModelAlgorithm;
+import org.babzel.tools.opennlp.model.util.SampleSource;
 import org.junit.jupiter.api.Test;
 
 public class TokenizerModelTrainerEvaluatorTest {
-    private TokenizerModelTrainer trainer = new TokenizerModelTrainer();
+    private TokenizerModelTrainer trainer = new TokenizerModelTrainer(new TrainingParametersFactory(() -> HashMap.empty(), () -> 1));
     private TokenizerModelEvaluator evaluator = new TokenizerModelEvaluator();
 
     @Test
@@ -36,22 +38,22 @@ public class TokenizerModelTrainerEvaluatorTest {
                 TokenSample.parse("e1 e2|.", "|"),
                 TokenSample.parse("f1 f2|.", "|"));
 
-        var modelOpt = trainer.trainModel(ModelAlgorithm.MAXENT, "lx", trainSamples);
+        var modelOpt = trainer.trainModel(ModelAlgorithm.MAXENT, "lx", SampleSource.of(trainSamples));
         assertThat(modelOpt).isNotEmpty();
 
-        var evalInfo = evaluator.evaluateModel(modelOpt.get(), evalSamples);
+        var evalInfo = evaluator.evaluateModel(modelOpt.get(), SampleSource.of(evalSamples));
         assertThat(evalInfo._1).isGreaterThanOrEqualTo(0.0).isLessThanOrEqualTo(1.0);
     }
 
     @Test
     public void trainEvaluateNoData() {
-        var modelOpt = trainer.trainModel(ModelAlgorithm.PERCEPTRON, "lx", Vector.of());
+        var modelOpt = trainer.trainModel(ModelAlgorithm.PERCEPTRON, "lx", SampleSource.of(Vector.of()));
 
         assertThat(modelOpt).isEmpty();
     }
 
     @Test
     public void trainIncorrectAlgorithm() {
-        assertThatThrownBy(() -> trainer.trainModel("dummy", "lx", Vector.of()));
+        assertThatThrownBy(() -> trainer.trainModel("dummy", "lx", SampleSource.of(Vector.of())));
     }
 }
@@ -0,0 +1,67 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.opennlp.model.train;
+
+import io.vavr.collection.HashMap;
+import opennlp.tools.util.TrainingParameters;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.babzel.tools.opennlp.model.ModelAlgorithm;
+import org.babzel.tools.opennlp.model.ModelType;
+import org.junit.jupiter.api.Test;
+
+public class TrainingParametersFactoryTest {
+    @Test
+    public void createTrainingParameters_Defaults() {
+        var factory = new TrainingParametersFactory(() -> HashMap.empty(), () -> 1);
+
+        var params = factory.createTrainingParameters(ModelType.TOKENIZER, ModelAlgorithm.MAXENT_QN);
+
+        assertThat(params.algorithm()).isEqualTo(ModelAlgorithm.MAXENT_QN);
+        assertThat(params.getIntParameter(TrainingParameters.THREADS_PARAM, 0)).isEqualTo(Runtime.getRuntime().availableProcessors());
+        assertThat(params.getIntParameter(TrainingParameters.ITERATIONS_PARAM, 0)).isEqualTo(100);
+        assertThat(params.getIntParameter(TrainingParameters.CUTOFF_PARAM, -1)).isEqualTo(5);
+    }
+
+    @Test
+    public void createTrainingParameters_ConcurrentTrainings() {
+        var processors = Runtime.getRuntime().availableProcessors();
+        var factory = new TrainingParametersFactory(() -> HashMap.empty(), () -> 2);
+        var oversubscribedFactory = new TrainingParametersFactory(() -> HashMap.empty(), () -> processors + 1);
+
+        var params = factory.createTrainingParameters(ModelType.POS, ModelAlgorithm.MAXENT);
+        var oversubscribedParams = oversubscribedFactory.createTrainingParameters(ModelType.POS, ModelAlgorithm.MAXENT);
+
+        // processors are shared by concurrent trainings, every training uses at least one thread
+        assertThat(params.getIntParameter(TrainingParameters.THREADS_PARAM, 0)).isEqualTo(Math.max(1, processors / 2));
+        assertThat(oversubscribedParams.getIntParameter(TrainingParameters.THREADS_PARAM, 0)).isEqualTo(1);
+    }
+
+    @Test
+    public void createTrainingParameters_Profile() {
+        var factory = new TrainingParametersFactory(() -> HashMap.of(
+                "tokenizer.MAXENT_QN.Threads", "16",
+                "tokenizer.MAXENT_QN.Iterations", " 300 ",
+                "tokenizer.MAXENT_QN.DataIndexer", "OnePass",
+                "tokenizer.MAXENT.Cutoff", "1",
+                "pos.MAXENT_QN.Cutoff", "2"), () -> 1);
+
+        var params = factory.createTrainingParameters(ModelType.TOKENIZER, ModelAlgorithm.MAXENT_QN);
+
+        // only entries of the model type and the algorithm are applied
+        assertThat(params.getIntParameter(TrainingParameters.THREADS_PARAM, 0)).isEqualTo(16);
+        assertThat(params.getIntParameter(TrainingParameters.ITERATIONS_PARAM, 0)).isEqualTo(300);
+        assertThat(params.getIntParameter(TrainingParameters.CUTOFF_PARAM, -1)).isEqualTo(5);
+        assertThat(params.getStringParameter("DataIndexer", "")).isEqualTo("OnePass");
+    }
+}
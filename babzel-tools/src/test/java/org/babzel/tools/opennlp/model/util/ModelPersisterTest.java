@@ -14,6 +14,7 @@
 package org.babzel.tools.opennlp.model.util;
 
 import com.google.common.jimfs.Jimfs;
+import io.vavr.collection.HashMap;
 import io.vavr.collection.Seq;
 import io.vavr.collection.Vector;
 import java.nio.file.Path;
@@ -22,6 +23,7 @@ import opennlp.tools.tokenize.TokenizerModel;
 import static org.assertj.core.api.Assertions.assertThat;
 import org.babzel.tools.opennlp.model.ModelAlgorithm;
 import org.babzel.tools.opennlp.model.train.TokenizerModelTrainer;
+import org.babzel.tools.opennlp.model.train.TrainingParametersFactory;
 import org.junit.jupiter.api.Test;
 
 public class ModelPersisterTest {
@@ -33,8 +35,8 @@ public class ModelPersisterTest {
                 TokenSample.parse("a1 a2|.", "|"),
                 TokenSample.parse("b1 b2|.", "|"),
                 TokenSample.parse("c1 c2|.", "|"));
-        TokenizerModelTrainer trainer = new TokenizerModelTrainer();
-        TokenizerModel trainedModel = trainer.trainModel(ModelAlgorithm.MAXENT, "lx", samples).get();
+        TokenizerModelTrainer trainer = new TokenizerModelTrainer(new TrainingParametersFactory(() -> HashMap.empty(), () -> 1));
+        TokenizerModel trainedModel = trainer.trainModel(ModelAlgorithm.MAXENT, "lx", SampleSource.of(samples)).get();
         Path modelPath = Jimfs.newFileSystem().getPath("model.bin");
 
         persister.writeModel(trainedModel, modelPath);
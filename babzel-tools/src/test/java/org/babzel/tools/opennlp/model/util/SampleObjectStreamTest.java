@@ -0,0 +1,96 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.opennlp.model.util;
+
+import io.vavr.collection.Iterator;
+import io.vavr.collection.Vector;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+public class SampleObjectStreamTest {
+    private final AtomicInteger openCount = new AtomicInteger();
+    private final AtomicInteger closeCount = new AtomicInteger();
+
+    @Test
+    public void readPasses() {
+        var stream = new SampleObjectStream<>(createSource(Vector.of("a", "b", "c")));
+
+        // iterator is opened by the first read, reset closes it and the next read starts a new pass
+        assertThat(openCount.get()).isZero();
+        assertThat(stream.read()).isEqualTo("a");
+        assertThat(stream.read()).isEqualTo("b");
+        stream.reset();
+        stream.reset();
+        assertThat(openCount.get()).isEqualTo(1);
+        assertThat(closeCount.get()).isEqualTo(1);
+        assertThat(stream.read()).isEqualTo("a");
+        assertThat(stream.read()).isEqualTo("b");
+        assertThat(stream.read()).isEqualTo("c");
+        assertThat(stream.read()).isNull();
+        stream.close();
+        assertThat(openCount.get()).isEqualTo(2);
+        assertThat(closeCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void readSplitPasses() {
+        var splittedSamples = new SampleSplitter().splitSamples(createSource(Vector.range(0, 20).map(String::valueOf)));
+        var stream = new SampleObjectStream<>(splittedSamples._2);
+
+        // closing the view of samples closes the iterator of the original samples
+        assertThat(stream.read()).isEqualTo("9");
+        stream.reset();
+        assertThat(openCount.get()).isEqualTo(1);
+        assertThat(closeCount.get()).isEqualTo(1);
+    }
+
+    private SampleSource<String> createSource(Vector<String> samples) {
+        return new SampleSource<>() {
+            @Override
+            public int size() {
+                return samples.size();
+            }
+
+            @Override
+            public Iterator<String> iterator() {
+                openCount.incrementAndGet();
+                return new CloseableIterator(samples.iterator());
+            }
+        };
+    }
+
+    private class CloseableIterator implements Iterator<String>, AutoCloseable {
+        private final Iterator<String> it;
+
+        public CloseableIterator(Iterator<String> it) {
+            this.it = it;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return it.hasNext();
+        }
+
+        @Override
+        public String next() {
+            return it.next();
+        }
+
+        @Override
+        public void close() {
+            closeCount.incrementAndGet();
+        }
+    }
+}
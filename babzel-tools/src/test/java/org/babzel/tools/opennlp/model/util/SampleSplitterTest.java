@@ -13,9 +13,10 @@
  */
 package org.babzel.tools.opennlp.model.util;
 
-import io.vavr.Tuple2;
+import io.vavr.collection.Iterator;
 import io.vavr.collection.Seq;
 import io.vavr.collection.Vector;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -26,9 +27,49 @@ public class SampleSplitterTest {
     public void splitSamples() {
         Seq<Integer> samples = Vector.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21);
 
-        Tuple2<Seq<Integer>, Seq<Integer>> splittedSamples = splitter.splitSamples(samples);
+        var splittedSamples = splitter.splitSamples(SampleSource.of(samples));
 
-        Assertions.assertThat(splittedSamples._1).isEqualTo(Vector.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 11, 12, 13, 14, 15, 16, 17, 18, 19, 21));
-        Assertions.assertThat(splittedSamples._2).isEqualTo(Vector.of(10, 20));
+        Assertions.assertThat(splittedSamples._1.iterator().toVector()).isEqualTo(Vector.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 11, 12, 13, 14, 15, 16, 17, 18, 19, 21));
+        Assertions.assertThat(splittedSamples._1.size()).isEqualTo(19);
+        Assertions.assertThat(splittedSamples._2.iterator().toVector()).isEqualTo(Vector.of(10, 20));
+        Assertions.assertThat(splittedSamples._2.size()).isEqualTo(2);
+        // every iteration is a new pass over samples
+        Assertions.assertThat(splittedSamples._2.iterator().toVector()).isEqualTo(Vector.of(10, 20));
+    }
+
+    @Test
+    public void splitSamplesEmpty() {
+        var splittedSamples = splitter.splitSamples(SampleSource.of(Vector.empty()));
+
+        Assertions.assertThat(splittedSamples._1.iterator().hasNext()).isFalse();
+        Assertions.assertThat(splittedSamples._1.size()).isEqualTo(0);
+        Assertions.assertThat(splittedSamples._2.iterator().hasNext()).isFalse();
+        Assertions.assertThat(splittedSamples._2.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void splitSamplesLazily() {
+        // samples are read from the original source only when they are iterated
+        var readCount = new AtomicInteger();
+        var samples = new SampleSource<Integer>() {
+            @Override
+            public int size() {
+                return 100;
+            }
+
+            @Override
+            public Iterator<Integer> iterator() {
+                return Iterator.range(0, 100).peek(sample -> readCount.incrementAndGet());
+            }
+        };
+
+        var splittedSamples = splitter.splitSamples(samples);
+        var evalIterator = splittedSamples._2.iterator();
+
+        Assertions.assertThat(readCount.get()).isEqualTo(0);
+        Assertions.assertThat(evalIterator.next()).isEqualTo(9);
+        Assertions.assertThat(readCount.get()).isEqualTo(10);
+        Assertions.assertThat(splittedSamples._1.iterator().take(3).toVector()).isEqualTo(Vector.of(0, 1, 2));
+        Assertions.assertThat(readCount.get()).isEqualTo(13);
     }
 }
@@ -0,0 +1,36 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.opennlp.model.util;
+
+import com.google.common.jimfs.Jimfs;
+import io.vavr.collection.Vector;
+import java.nio.file.Path;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+public class SampleStoreFactoryTest {
+    @Test
+    public void createStore() {
+        Path spillPath = Jimfs.newFileSystem().getPath("root", "model.bin.samples.part");
+        var samples = Vector.range(0, 1000).map(i -> "sample" + i);
+
+        try (var memoryStore = new SampleStoreFactory(() -> 1024 * 1024).createStore(samples.iterator(), spillPath);
+                var spilledStore = new SampleStoreFactory(() -> 1024).createStore(samples.iterator(), spillPath)) {
+            assertThat(memoryStore.isSpilled()).isFalse();
+            assertThat(memoryStore.iterator().toVector()).isEqualTo(samples);
+            assertThat(spilledStore.isSpilled()).isTrue();
+            assertThat(spilledStore.iterator().toVector()).isEqualTo(samples);
+        }
+    }
+}
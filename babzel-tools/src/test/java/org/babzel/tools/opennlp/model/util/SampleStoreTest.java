@@ -0,0 +1,229 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.opennlp.model.util;
+
+import com.google.common.jimfs.Jimfs;
+import io.vavr.collection.Iterator;
+import io.vavr.collection.Vector;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import opennlp.tools.ml.TrainerFactory;
+import opennlp.tools.postag.POSSample;
+import opennlp.tools.postag.POSSampleSequenceStream;
+import opennlp.tools.util.FilterObjectStream;
+import opennlp.tools.util.TrainingParameters;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.babzel.tools.opennlp.model.ModelAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class SampleStoreTest {
+    @Test
+    public void keepInMemory() {
+        Path spillPath = Jimfs.newFileSystem().getPath("root", "model.bin.samples.part");
+        var samples = Vector.range(0, 5000).map(i -> "sample" + i);
+
+        try (var store = SampleStore.write(samples.iterator(), 1024 * 1024, spillPath)) {
+            assertThat(store.isSpilled()).isFalse();
+            assertThat(Files.exists(spillPath)).isFalse();
+            assertThat(store.size()).isEqualTo(5000);
+            assertThat(store.iterator().toVector()).isEqualTo(samples);
+            assertThat(store.iterator().toVector()).isEqualTo(samples);
+        }
+    }
+
+    @Test
+    public void keepWithinBudget() {
+        Path spillPath = Jimfs.newFileSystem().getPath("root", "model.bin.samples.part");
+        var random = new Random(1);
+        var letters = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+        var samples = Vector.range(0, 2000).map(i -> Iterator.range(0, 100).map(j -> letters.charAt(random.nextInt(letters.length()))).mkString());
+        var memoryBudget = 3 * 64 * 1024 + 1000;
+
+        try (var store = SampleStore.write(samples.iterator(), memoryBudget, spillPath)) {
+            // compressed samples need more than two buffer doublings, the allocated buffer still fits into the budget
+            assertThat(store.isSpilled()).isFalse();
+            assertThat(store.getMemorySize()).isGreaterThan(2 * 64 * 1024).isLessThanOrEqualTo(memoryBudget);
+            assertThat(store.iterator().toVector()).isEqualTo(samples);
+        }
+    }
+
+    @Test
+    public void spillToFile() {
+        Path spillPath = Jimfs.newFileSystem().getPath("root", "model.bin.samples.part");
+        var samples = Vector.range(0, 5000).map(i -> new POSSample(new String[] {"w" + i, "."}, new String[] {"NOUN", "PUNCT"}));
+
+        var store = SampleStore.write(samples.iterator(), 100, spillPath);
+
+        assertThat(store.isSpilled()).isTrue();
+        assertThat(store.getMemorySize()).isZero();
+        assertThat(Files.exists(spillPath)).isTrue();
+        assertThat(store.size()).isEqualTo(5000);
+        assertThat(store.iterator().toVector()).isEqualTo(samples);
+        assertThat(store.iterator().toVector()).isEqualTo(samples);
+        store.close();
+        assertThat(Files.exists(spillPath)).isFalse();
+    }
+
+    @Test
+    public void concurrentPasses() {
+        Path spillPath = Jimfs.newFileSystem().getPath("root", "model.bin.samples.part");
+        var samples = Vector.range(0, 3000).map(i -> "sample" + i);
+
+        try (var store = SampleStore.write(samples.iterator(), 0, spillPath)) {
+            var it1 = store.iterator();
+            var it2 = store.iterator();
+
+            // passes are independent of each other
+            assertThat(it1.take(1000).toVector()).isEqualTo(samples.take(1000));
+            assertThat(it2.toVector()).isEqualTo(samples);
+            assertThat(it1.toVector()).isEqualTo(samples.drop(1000));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1024 * 1024, 0})
+    public void trainingPasses(long memoryBudget) throws Exception {
+        Path spillPath = Jimfs.newFileSystem().getPath("root", "model.bin.samples.part");
+        var samples = Vector.range(0, 200).map(i -> new POSSample(new String[] {"n" + i % 7, "v" + i % 5, "."}, new String[] {"NOUN", "VERB", "PUNCT"}));
+
+        try (var store = SampleStore.write(samples.iterator(), memoryBudget, spillPath)) {
+            assertThat(store.isSpilled()).isEqualTo(memoryBudget == 0);
+
+            // every pass deserializes its own samples with the same content
+            var firstPass = store.iterator().toVector();
+            var secondPass = store.iterator().toVector();
+            assertThat(firstPass).isEqualTo(samples);
+            assertThat(secondPass).isEqualTo(samples);
+            samples.zip(firstPass).zip(secondPass).forEach(t -> {
+                assertThat(t._1._2).isNotSameAs(t._1._1);
+                assertThat(t._2).isNotSameAs(t._1._2);
+            });
+
+            // every pass of a multi-pass trainer over the sample stream opens exactly one store iterator
+            var iteratorCount = new AtomicInteger();
+            var countingSource = new SampleSource<POSSample>() {
+                @Override
+                public int size() {
+                    return store.size();
+                }
+
+                @Override
+                public Iterator<POSSample> iterator() {
+                    iteratorCount.incrementAndGet();
+                    return store.iterator();
+                }
+            };
+            var passCounter = new PassCountingStream<>(new SampleObjectStream<>(countingSource));
+            var params = TrainingParameters.defaultParams();
+            params.put(TrainingParameters.ALGORITHM_PARAM, ModelAlgorithm.PERCEPTRON_SEQUENCE);
+            params.put(TrainingParameters.ITERATIONS_PARAM, 5);
+            params.put(TrainingParameters.CUTOFF_PARAM, 0);
+
+            TrainerFactory.getEventModelSequenceTrainer(params, new HashMap<>()).train(new POSSampleSequenceStream(passCounter));
+
+            assertThat(passCounter.getPassCount()).isGreaterThan(5);
+            assertThat(iteratorCount.get()).isEqualTo(passCounter.getPassCount());
+        }
+    }
+
+    @Test
+    public void closeUnfinishedPass() {
+        Path spillPath = Jimfs.newFileSystem().getPath("root", "model.bin.samples.part");
+        var samples = Vector.range(0, 3000).map(i -> "sample" + i);
+        var store = SampleStore.write(samples.iterator(), 0, spillPath);
+        var it = store.iterator();
+        assertThat(it.next()).isEqualTo("sample0");
+
+        store.close();
+
+        assertThat(Files.exists(spillPath)).isFalse();
+    }
+
+    @Test
+    public void closeAbandonedPass() {
+        Path spillPath = Jimfs.newFileSystem().getPath("root", "model.bin.samples.part");
+        var samples = Vector.range(0, 3000).map(i -> "sample" + i);
+
+        try (var store = SampleStore.write(samples.iterator(), 0, spillPath)) {
+            var it = store.iterator();
+            assertThat(it.next()).isEqualTo("sample0");
+
+            SampleSource.closeIterator(it);
+
+            // closed pass does not read anymore, other passes are not affected
+            assertThat(it.hasNext()).isFalse();
+            assertThat(store.iterator().toVector()).isEqualTo(samples);
+        }
+    }
+
+    @Test
+    public void empty() {
+        Path spillPath = Jimfs.newFileSystem().getPath("root", "model.bin.samples.part");
+
+        try (var store = SampleStore.<String>write(Iterator.empty(), 0, spillPath)) {
+            assertThat(store.size()).isZero();
+            assertThat(store.iterator().hasNext()).isFalse();
+        }
+    }
+
+    @Test
+    public void writeFailure() {
+        Path spillPath = Jimfs.newFileSystem().getPath("root", "model.bin.samples.part");
+        var samples = Iterator.range(0, 3000).map(i -> {
+            if (i == 2000) {
+                throw new IllegalStateException("failed");
+            }
+            return "sample" + i;
+        });
+
+        assertThatThrownBy(() -> SampleStore.write(samples, 0, spillPath)).isInstanceOf(IllegalStateException.class).hasMessage("failed");
+        assertThat(Files.exists(spillPath)).isFalse();
+    }
+
+    private static class PassCountingStream<T> extends FilterObjectStream<T, T> {
+        // a pass is counted when the first sample is read after the start or a reset
+        private int passCount;
+        private boolean passStarted;
+
+        public PassCountingStream(SampleObjectStream<T> samples) {
+            super(samples);
+        }
+
+        public int getPassCount() {
+            return passCount;
+        }
+
+        @Override
+        public T read() throws IOException {
+            if (!passStarted) {
+                passCount++;
+                passStarted = true;
+            }
+            return samples.read();
+        }
+
+        @Override
+        public void reset() throws IOException {
+            passStarted = false;
+            super.reset();
+        }
+    }
+}
@@ -14,19 +14,34 @@
 package org.babzel.tools.opennlp.unidep;
 
 import com.google.common.jimfs.Jimfs;
+import io.vavr.Lazy;
+import io.vavr.collection.LinkedHashMap;
 import io.vavr.collection.Vector;
+import java.nio.file.Files;
 import org.babzel.tools.opennlp.conllu.ConlluLemmatizerModelProcessor;
 import org.babzel.tools.opennlp.conllu.ConlluPOSModelProcessor;
 import org.babzel.tools.opennlp.conllu.ConlluSentenceModelProcessor;
 import org.babzel.tools.opennlp.conllu.ConlluTokenizerModelProcessor;
+import org.babzel.tools.opennlp.conllu.corpus.ConlluCorpus;
+import org.babzel.tools.opennlp.conllu.corpus.ConlluCorpusFactory;
 import org.babzel.tools.opennlp.model.ModelAlgorithm;
 import org.babzel.tools.opennlp.unidep.util.UniDepConlluModelFileSupplier;
+import org.babzel.tools.util.LanguageParallelismSupplier;
+import org.babzel.tools.util.ParallelExecutor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -38,6 +53,8 @@ public class UniDepConlluModelProcessorTest {
     @Mock
     private UniDepConlluProcessor conlluTrainFileProcessor;
     @Mock
+    private ConlluCorpusFactory corpusFactory;
+    @Mock
     private ConlluSentenceModelProcessor sentenceModelProcessor;
     @Mock
     private ConlluTokenizerModelProcessor tokenizerModelProcessor;
@@ -45,6 +62,14 @@ public class UniDepConlluModelProcessorTest {
     private ConlluPOSModelProcessor posModelProcessor;
     @Mock
     private ConlluLemmatizerModelProcessor lemmatizerModelProcessor;
+    @Spy
+    private ParallelExecutor executor = new ParallelExecutor(() -> 4);
+    @Mock
+    private LanguageParallelismSupplier languageParallelismSupplier;
+    @Captor
+    private ArgumentCaptor<Lazy<ConlluCorpus>> corpusCaptor;
+    @Captor
+    private ArgumentCaptor<Lazy<String>> corpusDigestCaptor;
     @InjectMocks
     private UniDepConlluModelProcessor processor;
 
@@ -88,10 +113,86 @@ public class UniDepConlluModelProcessorTest {
         verify(fileSupplier).getLemmatizerModelFile("lx");
         verify(fileSupplier).getLemmatizerReportFile("lx");
         verify(conlluTrainFileProcessor).processUniDepConlluFile(treebankPath, "lx", conlluPath);
-        verify(sentenceModelProcessor).processConlluModel(conlluPath, tokenizerAlgorithms, "lx", sentenceModelPath, sentenceReportPath);
-        verify(tokenizerModelProcessor).processConlluModel(conlluPath, tokenizerAlgorithms, "lx", tokenizerModelPath, tokenizerReportPath);
-        verify(posModelProcessor).processConlluModel(conlluPath, posAlgorithms, "lx", posModelPath, posReportPath);
-        verify(lemmatizerModelProcessor).processConlluModel(conlluPath, lemmatizerAlgorithms, "lx", lemmatizerModelPath, lemmatizerReportPath);
-        verifyNoMoreInteractions(fileSupplier, conlluTrainFileProcessor, sentenceModelProcessor, tokenizerModelProcessor, posModelProcessor, lemmatizerModelProcessor);
+        verify(sentenceModelProcessor).processConlluModel(eq(conlluPath), corpusCaptor.capture(), corpusDigestCaptor.capture(), eq(tokenizerAlgorithms), eq("lx"), eq(sentenceModelPath), eq(sentenceReportPath));
+        verify(tokenizerModelProcessor).processConlluModel(eq(conlluPath), corpusCaptor.capture(), corpusDigestCaptor.capture(), eq(tokenizerAlgorithms), eq("lx"), eq(tokenizerModelPath), eq(tokenizerReportPath));
+        verify(posModelProcessor).processConlluModel(eq(conlluPath), corpusCaptor.capture(), corpusDigestCaptor.capture(), eq(posAlgorithms), eq("lx"), eq(posModelPath), eq(posReportPath));
+        verify(lemmatizerModelProcessor).processConlluModel(eq(conlluPath), corpusCaptor.capture(), corpusDigestCaptor.capture(), eq(lemmatizerAlgorithms), eq("lx"), eq(lemmatizerModelPath), eq(lemmatizerReportPath));
+        verifyNoMoreInteractions(fileSupplier, conlluTrainFileProcessor, corpusFactory, sentenceModelProcessor, tokenizerModelProcessor, posModelProcessor, lemmatizerModelProcessor);
+        // the same lazily read corpus is shared by all model processors
+        assertThat(corpusCaptor.getAllValues()).hasSize(4);
+        assertThat(corpusCaptor.getAllValues()).allMatch(corpus -> corpus == corpusCaptor.getValue());
+        assertThat(corpusCaptor.getValue().isEvaluated()).isFalse();
+        assertThat(corpusDigestCaptor.getAllValues()).hasSize(4);
+        assertThat(corpusDigestCaptor.getAllValues()).allMatch(corpusDigest -> corpusDigest == corpusDigestCaptor.getValue());
+        assertThat(corpusDigestCaptor.getValue().isEvaluated()).isFalse();
+    }
+
+    @Test
+    public void processUniDepConlluModels() throws Exception {
+        var rootPath = Jimfs.newFileSystem().getPath("");
+        var treebankPath = rootPath.resolve("t.tgz");
+        given(fileSupplier.getTreebankFile()).willReturn(treebankPath);
+        var lxConlluPath = rootPath.resolve("lx.conllu");
+        var lyConlluPath = rootPath.resolve("ly.conllu");
+        var lzConlluPath = rootPath.resolve("lz.conllu");
+        Files.writeString(lxConlluPath, "small");
+        Files.writeString(lyConlluPath, "medium");
+        Files.writeString(lzConlluPath, "the largest");
+        given(fileSupplier.getConlluFile("lx")).willReturn(lxConlluPath);
+        given(fileSupplier.getConlluFile("ly")).willReturn(lyConlluPath);
+        given(fileSupplier.getConlluFile("lz")).willReturn(lzConlluPath);
+        var lxMarkerPath = rootPath.resolve("lx-res").resolve("lx.trained");
+        var lyMarkerPath = rootPath.resolve("ly-res").resolve("ly.trained");
+        var lzMarkerPath = rootPath.resolve("lz-res").resolve("lz.trained");
+        Files.createDirectories(lyMarkerPath.getParent());
+        Files.write(lyMarkerPath, new byte[0]);
+        given(fileSupplier.getTrainedMarkerFile("lx")).willReturn(lxMarkerPath);
+        given(fileSupplier.getTrainedMarkerFile("ly")).willReturn(lyMarkerPath);
+        given(fileSupplier.getTrainedMarkerFile("lz")).willReturn(lzMarkerPath);
+        // other languages call the same method with different arguments
+        lenient().doThrow(new IllegalStateException("failure")).when(lemmatizerModelProcessor).processConlluModel(any(), any(), any(), any(), eq("ly"), any(), any());
+        // single language at a time, so the order of training is deterministic
+        given(languageParallelismSupplier.getLanguageParallelism(any(Long.class))).willReturn(1);
+        var sequentialProcessor = new UniDepConlluModelProcessor(fileSupplier, conlluTrainFileProcessor, corpusFactory,
+                sentenceModelProcessor, tokenizerModelProcessor, posModelProcessor, lemmatizerModelProcessor, new ParallelExecutor(() -> 1), languageParallelismSupplier);
+
+        var failedLanguages = sequentialProcessor.processUniDepConlluModels(Vector.of("lx", "ly", "lz"));
+
+        assertThat(failedLanguages).isEqualTo(Vector.of("ly"));
+        // only languages trained by this run are marked, the marker of a previous run is removed
+        assertThat(lxMarkerPath).exists();
+        assertThat(lyMarkerPath).doesNotExist();
+        assertThat(lzMarkerPath).exists();
+        verify(conlluTrainFileProcessor).processUniDepConlluFiles(treebankPath, LinkedHashMap.of("lx", lxConlluPath, "ly", lyConlluPath, "lz", lzConlluPath));
+        // memory of concurrent languages is estimated by the largest conllu file
+        verify(languageParallelismSupplier).getLanguageParallelism(Files.size(lzConlluPath));
+        // the largest treebank is trained first
+        var inOrder = inOrder(sentenceModelProcessor);
+        inOrder.verify(sentenceModelProcessor).processConlluModel(eq(lzConlluPath), any(), any(), any(), eq("lz"), any(), any());
+        inOrder.verify(sentenceModelProcessor).processConlluModel(eq(lyConlluPath), any(), any(), any(), eq("ly"), any(), any());
+        inOrder.verify(sentenceModelProcessor).processConlluModel(eq(lxConlluPath), any(), any(), any(), eq("lx"), any(), any());
+        verify(lemmatizerModelProcessor).processConlluModel(eq(lzConlluPath), any(), any(), any(), eq("lz"), any(), any());
+        verify(lemmatizerModelProcessor).processConlluModel(eq(lyConlluPath), any(), any(), any(), eq("ly"), any(), any());
+        verify(lemmatizerModelProcessor).processConlluModel(eq(lxConlluPath), any(), any(), any(), eq("lx"), any(), any());
+        verifyNoMoreInteractions(conlluTrainFileProcessor, corpusFactory, sentenceModelProcessor, lemmatizerModelProcessor, languageParallelismSupplier);
+    }
+
+    @Test
+    public void processUniDepConlluModels_PreparationFailed() throws Exception {
+        var rootPath = Jimfs.newFileSystem().getPath("");
+        var treebankPath = rootPath.resolve("t.tgz");
+        given(fileSupplier.getTreebankFile()).willReturn(treebankPath);
+        var lxConlluPath = rootPath.resolve("lx.conllu");
+        var lyConlluPath = rootPath.resolve("ly.conllu");
+        given(fileSupplier.getConlluFile("lx")).willReturn(lxConlluPath);
+        given(fileSupplier.getConlluFile("ly")).willReturn(lyConlluPath);
+        given(fileSupplier.getTrainedMarkerFile(any())).willAnswer(invocation -> rootPath.resolve(invocation.getArgument(0) + ".trained"));
+        willThrow(new IllegalStateException("failure")).given(conlluTrainFileProcessor).processUniDepConlluFiles(any(), any());
+
+        var failedLanguages = processor.processUniDepConlluModels(Vector.of("lx", "ly"));
+
+        assertThat(failedLanguages).isEqualTo(Vector.of("lx", "ly"));
+        verify(conlluTrainFileProcessor).processUniDepConlluFiles(treebankPath, LinkedHashMap.of("lx", lxConlluPath, "ly", lyConlluPath));
+        verifyNoMoreInteractions(conlluTrainFileProcessor, corpusFactory, sentenceModelProcessor, tokenizerModelProcessor, posModelProcessor, lemmatizerModelProcessor, languageParallelismSupplier);
     }
 }
@@ -16,8 +16,11 @@ package org.babzel.tools.opennlp.unidep;
 import org.babzel.tools.opennlp.unidep.util.UniDepURLSupplier;
 import org.babzel.tools.opennlp.unidep.util.UniDepConlluUncompressor;
 import com.google.common.jimfs.Jimfs;
+import io.vavr.collection.LinkedHashMap;
 import java.net.URL;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import org.babzel.tools.util.FileDigester;
 import org.babzel.tools.util.FileDownloader;
 import org.babzel.tools.util.FileUpToDateChecker;
 import org.junit.jupiter.api.Test;
@@ -26,6 +29,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -40,6 +44,8 @@ public class UniDepConlluProcessorTest {
     private FileDownloader fileDownloader;
     @Mock
     private UniDepConlluUncompressor uniDepConlluUncompressor;
+    @Spy
+    private FileDigester digester = new FileDigester();
     @InjectMocks
     private UniDepConlluProcessor processor;
 
@@ -48,6 +54,8 @@ public class UniDepConlluProcessorTest {
         Path rootPath = Jimfs.newFileSystem().getPath("root");
         Path treebankPath = rootPath.resolve("t.tgz");
         Path conlluPath = rootPath.resolve("f.conllu");
+        Files.createDirectories(rootPath);
+        Files.writeString(conlluPath, "conllu");
         URL treebankURL = new URL("http://ud.org/treebank.tgz");
         given(uniDepURLSupplier.supplyTreebankURL()).willReturn(treebankURL);
         given(checker.isUpToDate(any(), any(URL.class))).willReturn(false);
@@ -58,7 +66,7 @@ public class UniDepConlluProcessorTest {
         verify(uniDepURLSupplier).supplyTreebankURL();
         verify(checker).isUpToDate(treebankPath, treebankURL);
         verify(fileDownloader).downloadFile(treebankURL, treebankPath);
-        verify(checker).isUpToDate(conlluPath, treebankPath);
+        verify(checker).isUpToDate(digester.getDigestPath(conlluPath), treebankPath);
         verify(uniDepConlluUncompressor).uncompressConlluFile(treebankPath, "lx", conlluPath);
         verifyNoMoreInteractions(checker, uniDepURLSupplier, fileDownloader, uniDepConlluUncompressor);
     }
@@ -68,6 +76,8 @@ public class UniDepConlluProcessorTest {
         Path rootPath = Jimfs.newFileSystem().getPath("root");
         Path treebankPath = rootPath.resolve("t.tgz");
         Path conlluPath = rootPath.resolve("f.conllu");
+        Files.createDirectories(rootPath);
+        Files.writeString(conlluPath, "conllu");
         URL treebankURL = new URL("http://ud.org/treebank.tgz");
         given(uniDepURLSupplier.supplyTreebankURL()).willReturn(treebankURL);
         given(checker.isUpToDate(any(), any(URL.class))).willReturn(true);
@@ -77,7 +87,7 @@ public class UniDepConlluProcessorTest {
 
         verify(uniDepURLSupplier).supplyTreebankURL();
         verify(checker).isUpToDate(treebankPath, treebankURL);
-        verify(checker).isUpToDate(conlluPath, treebankPath);
+        verify(checker).isUpToDate(digester.getDigestPath(conlluPath), treebankPath);
         verify(uniDepConlluUncompressor).uncompressConlluFile(treebankPath, "lx", conlluPath);
         verifyNoMoreInteractions(checker, uniDepURLSupplier, fileDownloader, uniDepConlluUncompressor);
     }
@@ -87,6 +97,8 @@ public class UniDepConlluProcessorTest {
         Path rootPath = Jimfs.newFileSystem().getPath("root");
         Path treebankPath = rootPath.resolve("t.tgz");
         Path conlluPath = rootPath.resolve("f.conllu");
+        Files.createDirectories(rootPath);
+        Files.writeString(conlluPath, "conllu");
         URL treebankURL = new URL("http://ud.org/treebank.tgz");
         given(uniDepURLSupplier.supplyTreebankURL()).willReturn(treebankURL);
         given(checker.isUpToDate(any(), any(URL.class))).willReturn(true);
@@ -96,7 +108,72 @@ public class UniDepConlluProcessorTest {
 
         verify(uniDepURLSupplier).supplyTreebankURL();
         verify(checker).isUpToDate(treebankPath, treebankURL);
-        verify(checker).isUpToDate(conlluPath, treebankPath);
+        verify(checker).isUpToDate(digester.getDigestPath(conlluPath), treebankPath);
+        verifyNoMoreInteractions(checker, uniDepURLSupplier, fileDownloader, uniDepConlluUncompressor);
+    }
+
+    @Test
+    public void processUniDepConlluFiles_SomeConlluOutOfDate() throws Exception {
+        Path rootPath = Jimfs.newFileSystem().getPath("root");
+        Path treebankPath = rootPath.resolve("t.tgz");
+        Path lxConlluPath = rootPath.resolve("lx.conllu");
+        Path lyConlluPath = rootPath.resolve("ly.conllu");
+        Path lzConlluPath = rootPath.resolve("lz.conllu");
+        Files.createDirectories(rootPath);
+        Files.writeString(lxConlluPath, "conllu");
+        Files.writeString(lyConlluPath, "conllu");
+        Files.writeString(lzConlluPath, "conllu");
+        URL treebankURL = new URL("http://ud.org/treebank.tgz");
+        given(uniDepURLSupplier.supplyTreebankURL()).willReturn(treebankURL);
+        given(checker.isUpToDate(any(), any(URL.class))).willReturn(true);
+        given(checker.isUpToDate(any(), any(Path.class))).willReturn(false, true, false);
+
+        processor.processUniDepConlluFiles(treebankPath, LinkedHashMap.of("lx", lxConlluPath, "ly", lyConlluPath, "lz", lzConlluPath));
+
+        verify(uniDepURLSupplier).supplyTreebankURL();
+        verify(checker).isUpToDate(treebankPath, treebankURL);
+        verify(checker).isUpToDate(digester.getDigestPath(lxConlluPath), treebankPath);
+        verify(checker).isUpToDate(digester.getDigestPath(lyConlluPath), treebankPath);
+        verify(checker).isUpToDate(digester.getDigestPath(lzConlluPath), treebankPath);
+        verify(uniDepConlluUncompressor).uncompressConlluFiles(treebankPath, LinkedHashMap.of("lx", lxConlluPath, "lz", lzConlluPath));
+        verifyNoMoreInteractions(checker, uniDepURLSupplier, fileDownloader, uniDepConlluUncompressor);
+    }
+
+    @Test
+    public void processUniDepConlluFiles_AllConlluUpToDate() throws Exception {
+        Path rootPath = Jimfs.newFileSystem().getPath("root");
+        Path treebankPath = rootPath.resolve("t.tgz");
+        Path lxConlluPath = rootPath.resolve("lx.conllu");
+        Files.createDirectories(rootPath);
+        Files.writeString(lxConlluPath, "conllu");
+        URL treebankURL = new URL("http://ud.org/treebank.tgz");
+        given(uniDepURLSupplier.supplyTreebankURL()).willReturn(treebankURL);
+        given(checker.isUpToDate(any(), any(URL.class))).willReturn(false);
+        given(checker.isUpToDate(any(), any(Path.class))).willReturn(true);
+
+        processor.processUniDepConlluFiles(treebankPath, LinkedHashMap.of("lx", lxConlluPath));
+
+        verify(uniDepURLSupplier).supplyTreebankURL();
+        verify(checker).isUpToDate(treebankPath, treebankURL);
+        verify(fileDownloader).downloadFile(treebankURL, treebankPath);
+        verify(checker).isUpToDate(digester.getDigestPath(lxConlluPath), treebankPath);
+        verifyNoMoreInteractions(checker, uniDepURLSupplier, fileDownloader, uniDepConlluUncompressor);
+    }
+
+    @Test
+    public void processUniDepConlluFile_ConlluDoesNotExist() throws Exception {
+        Path rootPath = Jimfs.newFileSystem().getPath("root");
+        Path treebankPath = rootPath.resolve("t.tgz");
+        Path conlluPath = rootPath.resolve("f.conllu");
+        URL treebankURL = new URL("http://ud.org/treebank.tgz");
+        given(uniDepURLSupplier.supplyTreebankURL()).willReturn(treebankURL);
+        given(checker.isUpToDate(any(), any(URL.class))).willReturn(true);
+
+        processor.processUniDepConlluFile(treebankPath, "lx", conlluPath);
+
+        verify(uniDepURLSupplier).supplyTreebankURL();
+        verify(checker).isUpToDate(treebankPath, treebankURL);
+        verify(uniDepConlluUncompressor).uncompressConlluFile(treebankPath, "lx", conlluPath);
         verifyNoMoreInteractions(checker, uniDepURLSupplier, fileDownloader, uniDepConlluUncompressor);
     }
 }
@@ -51,5 +51,6 @@ public class UniDepConlluModelFileSupplierTest {
         assertThat(supplier.getPOSReportFile("lx")).isEqualTo(resPath.resolve("lx-pos-tagger.txt"));
         assertThat(supplier.getLemmatizerModelFile("lx")).isEqualTo(resPath.resolve("lx-lemmatizer.onlpm"));
         assertThat(supplier.getLemmatizerReportFile("lx")).isEqualTo(resPath.resolve("lx-lemmatizer.txt"));
+        assertThat(supplier.getTrainedMarkerFile("lx")).isEqualTo(resPath.resolve("lx.trained"));
     }
 }
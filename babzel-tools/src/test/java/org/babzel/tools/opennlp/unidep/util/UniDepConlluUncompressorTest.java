@@ -14,16 +14,24 @@
 package org.babzel.tools.opennlp.unidep.util;
 
 import com.google.common.jimfs.Jimfs;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.Map;
 import io.vavr.collection.Vector;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
 import org.assertj.core.api.Assertions;
+import org.babzel.tools.util.FileDigester;
 import org.junit.jupiter.api.Test;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.util.FileCopyUtils;
 
 public class UniDepConlluUncompressorTest {
-    private UniDepConlluUncompressor uncompressor = new UniDepConlluUncompressor();
+    private UniDepConlluUncompressor uncompressor = new UniDepConlluUncompressor(new FileDigester());
 
     @Test
     public void uncompressConlluFile() throws Exception {
@@ -54,4 +62,120 @@ public class UniDepConlluUncompressorTest {
                 "5",
                 "").mkString("\n"));
     }
+
+    @Test
+    public void uncompressConlluFiles() throws Exception {
+        Path rootPath = Jimfs.newFileSystem().getPath("");
+        Path treebankPath = rootPath.resolve("treebank.tgz");
+        Path lxConlluPath = rootPath.resolve("lx").resolve("lx.conllu");
+        Path lyConlluPath = rootPath.resolve("ly").resolve("ly.conllu");
+        Path lzConlluPath = rootPath.resolve("lz").resolve("lz.conllu");
+        Files.write(treebankPath, FileCopyUtils.copyToByteArray(new ClassPathResource("treebank.tgz", getClass()).getInputStream()));
+
+        uncompressor.uncompressConlluFiles(treebankPath, HashMap.of("LX", lxConlluPath, "ly", lyConlluPath, "lz", lzConlluPath));
+
+        Assertions.assertThat(lxConlluPath).content().startsWith("####### lx-abc/lx_abc-test.conllu").endsWith("5\n");
+        Assertions.assertThat(lyConlluPath).content().isEqualTo(Vector.of(
+                "####### ly-abc/ly_abc-test.conllu",
+                "# text = ly xyz",
+                "1",
+                "",
+                "####### ly-abc/ly_abc-train.conllu",
+                "# text = ly xyz",
+                "2",
+                "",
+                "# text = ly xyz",
+                "3",
+                "",
+                "####### ly-xyz/ly_xyz-train.conllu",
+                "# text = ly xyz",
+                "4",
+                "",
+                "# text = ly xyz",
+                "5",
+                "").mkString("\n"));
+        // language missing in treebank
+        Assertions.assertThat(lzConlluPath).content().isEmpty();
+        // temporary part files are removed, content digest is recorded
+        try (var files = Files.list(lxConlluPath.getParent())) {
+            Assertions.assertThat(files).containsExactlyInAnyOrder(lxConlluPath, lxConlluPath.resolveSibling("lx.conllu.sha256"));
+        }
+    }
+
+    @Test
+    public void uncompressConlluFileLineBreaksAndComments() throws Exception {
+        Path rootPath = Jimfs.newFileSystem().getPath("");
+        Path treebankPath = rootPath.resolve("treebank.tgz");
+        Path conlluPath = rootPath.resolve("lx.conllu");
+        writeTreebank(treebankPath, HashMap.of(
+                "lx-b/lx_b-train.conllu", "\r\n# sent_id = 1\r\n# text = a\r\n1\ta\u2028b\r\n\r\n\r\n# text = c\r2\n\n# comment\n\n",
+                "lx-a/lx_a-test.conllu", "# text = d\n3\n# comment",
+                "lx-c/lx_c-dev.conllu", "\n\n"));
+
+        uncompressor.uncompressConlluFile(treebankPath, "lx", conlluPath);
+
+        Assertions.assertThat(conlluPath).content().isEqualTo(Vector.of(
+                "####### lx-a/lx_a-test.conllu",
+                "# text = d",
+                "3",
+                "",
+                "####### lx-b/lx_b-train.conllu",
+                "",
+                "# text = a",
+                "1\ta",
+                "b",
+                "",
+                "",
+                "# text = c",
+                "2",
+                "",
+                "####### lx-c/lx_c-dev.conllu",
+                "").mkString("\n"));
+    }
+
+    @Test
+    public void uncompressConlluFileUnchangedContent() throws Exception {
+        Path rootPath = Jimfs.newFileSystem().getPath("");
+        Path treebankPath = rootPath.resolve("treebank.tgz");
+        Path conlluPath = rootPath.resolve("lx.conllu");
+        Path digestPath = rootPath.resolve("lx.conllu.sha256");
+        writeTreebank(treebankPath, HashMap.of("lx-a/lx_a-test.conllu", "# text = a\n1\n"));
+        uncompressor.uncompressConlluFile(treebankPath, "lx", conlluPath);
+        Files.setLastModifiedTime(conlluPath, FileTime.fromMillis(111));
+        Files.setLastModifiedTime(digestPath, FileTime.fromMillis(111));
+
+        // the same content, conllu file is not rewritten, digest is recorded again
+        writeTreebank(treebankPath, HashMap.of("lx-a/lx_a-test.conllu", "# sent_id = 1\n# text = a\n1\n"));
+        uncompressor.uncompressConlluFile(treebankPath, "lx", conlluPath);
+
+        Assertions.assertThat(Files.getLastModifiedTime(conlluPath)).isEqualTo(FileTime.fromMillis(111));
+        Assertions.assertThat(Files.getLastModifiedTime(digestPath)).isNotEqualTo(FileTime.fromMillis(111));
+        Assertions.assertThat(digestPath).content().isEqualTo(new FileDigester().digestFile(conlluPath));
+
+        // changed content, conllu file is replaced
+        writeTreebank(treebankPath, HashMap.of("lx-a/lx_a-test.conllu", "# text = b\n1\n"));
+        uncompressor.uncompressConlluFile(treebankPath, "lx", conlluPath);
+
+        Assertions.assertThat(conlluPath).content().isEqualTo("####### lx-a/lx_a-test.conllu\n# text = b\n1\n");
+        Assertions.assertThat(Files.getLastModifiedTime(conlluPath)).isNotEqualTo(FileTime.fromMillis(111));
+        Assertions.assertThat(digestPath).content().isEqualTo(new FileDigester().digestFile(conlluPath));
+        try (var files = Files.list(rootPath.toAbsolutePath())) {
+            Assertions.assertThat(files.map(path -> path.getFileName().toString())).containsExactlyInAnyOrder("treebank.tgz", "lx.conllu", "lx.conllu.sha256");
+        }
+    }
+
+    private void writeTreebank(Path treebankPath, Map<String, String> conlluTxtByFileName) throws Exception {
+        try (var out = Files.newOutputStream(treebankPath);
+                var gzipOut = new GzipCompressorOutputStream(out);
+                var tarOut = new TarArchiveOutputStream(gzipOut)) {
+            for (var conlluTxt : conlluTxtByFileName) {
+                var bytes = conlluTxt._2.getBytes(StandardCharsets.UTF_8);
+                var entry = new TarArchiveEntry(conlluTxt._1);
+                entry.setSize(bytes.length);
+                tarOut.putArchiveEntry(entry);
+                tarOut.write(bytes);
+                tarOut.closeArchiveEntry();
+            }
+        }
+    }
 }
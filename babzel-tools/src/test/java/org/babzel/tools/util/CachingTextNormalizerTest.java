@@ -0,0 +1,106 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.util;
+
+import io.vavr.collection.Vector;
+import io.vavr.control.Option;
+import java.util.function.Supplier;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingTextNormalizerTest {
+    @Mock
+    private TextNormalizer textNormalizer;
+
+    @Test
+    public void normalizeText() {
+        given(textNormalizer.normalizeText(any(), any())).willAnswer(invocation -> invocation.<String>getArgument(0).toLowerCase() + "-" + invocation.getArgument(1));
+        var normalizer = new CachingTextNormalizer(textNormalizer, 1000);
+
+        assertThat(normalizer.normalizeText("Word", "lx")).isEqualTo("word-lx");
+        assertThat(normalizer.normalizeText("Word", "lx")).isEqualTo("word-lx");
+        assertThat(normalizer.normalizeText("Word", "ly")).isEqualTo("word-ly");
+        assertThat(normalizer.normalizeText("Word", "lx")).isEqualTo("word-lx");
+
+        verify(textNormalizer).normalizeText("Word", "lx");
+        verify(textNormalizer).normalizeText("Word", "ly");
+        verifyNoMoreInteractions(textNormalizer);
+        assertThat(normalizer.getHitCount()).isEqualTo(2);
+        assertThat(normalizer.getMissCount()).isEqualTo(2);
+        assertThat(normalizer.getStatistics()).isEqualTo(Option.some("cache hits: 2, cache misses: 2"));
+    }
+
+    @Test
+    public void normalizeText_LongTextNotCached() {
+        var text = "Some long sentence which is longer than any word and which is not worth caching at all.";
+        given(textNormalizer.normalizeText(any(), any())).willReturn("normalized");
+        var normalizer = new CachingTextNormalizer(textNormalizer, 1000);
+
+        assertThat(normalizer.normalizeText(text, "lx")).isEqualTo("normalized");
+        assertThat(normalizer.normalizeText(text, "lx")).isEqualTo("normalized");
+
+        verify(textNormalizer, times(2)).normalizeText(text, "lx");
+        verifyNoMoreInteractions(textNormalizer);
+        assertThat(normalizer.getHitCount()).isEqualTo(0);
+        assertThat(normalizer.getMissCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void normalizeText_LeastRecentlyUsedEvicted() {
+        given(textNormalizer.normalizeText(any(), any())).willAnswer(invocation -> invocation.getArgument(0));
+        var normalizer = new CachingTextNormalizer(textNormalizer, 160);
+
+        // cache is bounded, words used once are evicted, a frequently used word stays cached
+        for (int i = 0; i < 10000; i++) {
+            normalizer.normalizeText("w" + i, "lx");
+            normalizer.normalizeText("frequent", "lx");
+        }
+        normalizer.normalizeText("w0", "lx");
+
+        verify(textNormalizer).normalizeText("frequent", "lx");
+        verify(textNormalizer, times(2)).normalizeText("w0", "lx");
+        assertThat(normalizer.getHitCount()).isEqualTo(9999);
+        assertThat(normalizer.getMissCount()).isEqualTo(10002);
+    }
+
+    @Test
+    public void normalizeText_Concurrently() {
+        given(textNormalizer.normalizeText(any(), any())).willAnswer(invocation -> invocation.<String>getArgument(0).toUpperCase());
+        var normalizer = new CachingTextNormalizer(textNormalizer, 100);
+        var executor = new ParallelExecutor(() -> 4);
+
+        var results = executor.executeAll(Vector.<Supplier<Boolean>>fill(4, () -> () -> Vector.range(0, 10000)
+                .forAll(i -> normalizer.normalizeText("w" + i % 300, "lx").equals("W" + i % 300))));
+
+        assertThat(results).containsOnly(true);
+        assertThat(normalizer.getHitCount() + normalizer.getMissCount()).isEqualTo(40000);
+    }
+
+    @Test
+    public void getName() {
+        given(textNormalizer.getName()).willReturn("normalizer");
+        var normalizer = new CachingTextNormalizer(textNormalizer, 100);
+
+        assertThat(normalizer.getName()).isEqualTo("normalizer");
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.util;
+
+import com.google.common.jimfs.Jimfs;
+import io.vavr.collection.Vector;
+import io.vavr.control.Option;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+public class FileDigesterTest {
+    private final FileDigester digester = new FileDigester();
+
+    @Test
+    public void digestFile() throws Exception {
+        var path = Jimfs.newFileSystem().getPath("file.txt");
+        Files.writeString(path, "abc");
+
+        assertThat(digester.digestFile(path)).isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+    }
+
+    @Test
+    public void digestStrings() {
+        var digest = digester.digestStrings(Vector.of("ab", "c"));
+
+        assertThat(digest).hasSize(64);
+        assertThat(digester.digestStrings(Vector.of("ab", "c"))).isEqualTo(digest);
+        assertThat(digester.digestStrings(Vector.of("a", "bc"))).isNotEqualTo(digest);
+        assertThat(digester.digestStrings(Vector.of("ab", "c", ""))).isNotEqualTo(digest);
+    }
+
+    @Test
+    public void recordDigest() throws Exception {
+        var path = Jimfs.newFileSystem().getPath("file.txt");
+        Files.writeString(path, "abc");
+        Files.setLastModifiedTime(path, FileTime.fromMillis(111));
+
+        assertThat(digester.readRecordedDigest(path)).isEqualTo(Option.none());
+        digester.recordDigest(path, "recorded");
+        Files.setLastModifiedTime(digester.getDigestPath(path), FileTime.fromMillis(222));
+
+        assertThat(digester.getDigestPath(path)).isEqualTo(path.resolveSibling("file.txt.sha256"));
+        assertThat(digester.readRecordedDigest(path)).isEqualTo(Option.some("recorded"));
+        // recorded digest is used as long as the file is not modified later
+        assertThat(digester.getFileDigest(path)).isEqualTo("recorded");
+        Files.setLastModifiedTime(path, FileTime.fromMillis(333));
+        assertThat(digester.getFileDigest(path)).isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+    }
+}
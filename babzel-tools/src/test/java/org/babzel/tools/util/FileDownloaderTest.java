@@ -14,13 +14,29 @@
 package org.babzel.tools.util;
 
 import com.google.common.jimfs.Jimfs;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
 import io.vavr.collection.HashMap;
 import io.vavr.control.Option;
+import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.concurrent.CopyOnWriteArrayList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import org.babzel.tools.ToolsConfig;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.BDDMockito.given;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -30,6 +46,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
 public class FileDownloaderTest {
+    private static final String CONTENT = "###content###";
+    private static final ZonedDateTime LAST_MODIFIED = ZonedDateTime.of(2022, 5, 15, 10, 30, 0, 0, ZoneOffset.UTC);
+
     @Mock
     private WebClient webClient;
     @InjectMocks
@@ -37,16 +56,113 @@ public class FileDownloaderTest {
 
     @Test
     public void downloadFile() throws Exception {
-        given(webClient.makeGetRequest(any())).willReturn(new WebResponse(
-                new URL("http://host/path"),
-                HashMap.empty(),
-                Option.some("###content###".getBytes())));
+        given(webClient.makeGetRequest(any(), anyLong(), any())).willAnswer(invocation -> {
+            Files.writeString(invocation.getArgument(2), CONTENT);
+            return new WebResponse(new URL("http://host/path"), HashMap.empty(), Option.none());
+        });
         var outputPath = Jimfs.newFileSystem().getPath("some", "dir", "file.txt");
 
         downloader.downloadFile(new URL("http://host/p/file.txt"), outputPath);
 
-        verify(webClient).makeGetRequest(new URL("http://host/p/file.txt"));
+        verify(webClient).makeGetRequest(new URL("http://host/p/file.txt"), 0, outputPath.resolveSibling("file.txt.part"));
         verifyNoMoreInteractions(webClient);
-        assertThat(outputPath).content().isEqualTo("###content###");
+        assertThat(outputPath).content().isEqualTo(CONTENT);
+        assertThat(outputPath.resolveSibling("file.txt.part")).doesNotExist();
+    }
+
+    @Test
+    public void downloadFile_ResumePartialDownload() throws Exception {
+        given(webClient.makeGetRequest(any(), anyLong(), any())).willAnswer(invocation -> {
+            Files.writeString(invocation.getArgument(2), "tent###", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+            return new WebResponse(new URL("http://host/path"), HashMap.empty(), Option.none());
+        });
+        var outputPath = Jimfs.newFileSystem().getPath("some", "dir", "file.txt");
+        Files.createDirectories(outputPath.getParent());
+        Files.writeString(outputPath.resolveSibling("file.txt.part"), "###con");
+
+        downloader.downloadFile(new URL("http://host/p/file.txt"), outputPath);
+
+        verify(webClient).makeGetRequest(new URL("http://host/p/file.txt"), 6, outputPath.resolveSibling("file.txt.part"));
+        verifyNoMoreInteractions(webClient);
+        assertThat(outputPath).content().isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void downloadFile_FailedDownload() throws Exception {
+        given(webClient.makeGetRequest(any(), anyLong(), any())).willAnswer(invocation -> {
+            Files.writeString(invocation.getArgument(2), "###con");
+            throw new IllegalStateException("connection lost");
+        });
+        var outputPath = Jimfs.newFileSystem().getPath("some", "dir", "file.txt");
+        Files.createDirectories(outputPath.getParent());
+        Files.writeString(outputPath, "old");
+
+        var result = catchThrowable(() -> downloader.downloadFile(new URL("http://host/p/file.txt"), outputPath));
+
+        assertThat(result).hasMessage("connection lost");
+        // previous complete download is kept, partial download is kept for resuming
+        assertThat(outputPath).content().isEqualTo("old");
+        assertThat(outputPath.resolveSibling("file.txt.part")).content().isEqualTo("###con");
+    }
+
+    @Test
+    public void downloadFile_HttpServer() throws Exception {
+        var requests = new CopyOnWriteArrayList<String>();
+        var server = startServer(requests);
+        try {
+            var downloader = new FileDownloader(new ToolsConfig().webClient());
+            var url = new URL(String.format("http://localhost:%d/file.txt", server.getAddress().getPort()));
+            var outputPath = Jimfs.newFileSystem().getPath("some", "dir", "file.txt");
+            var partPath = outputPath.resolveSibling("file.txt.part");
+
+            // full download
+            downloader.downloadFile(url, outputPath);
+            assertThat(outputPath).content().isEqualTo(CONTENT);
+
+            // partial download of unchanged resource is resumed
+            Files.writeString(partPath, "###con");
+            Files.setLastModifiedTime(partPath, FileTime.from(LAST_MODIFIED.toInstant()));
+            downloader.downloadFile(url, outputPath);
+            assertThat(outputPath).content().isEqualTo(CONTENT);
+
+            // partial download of modified resource is restarted
+            Files.writeString(partPath, "###old");
+            downloader.downloadFile(url, outputPath);
+            assertThat(outputPath).content().isEqualTo(CONTENT);
+            assertThat(partPath).doesNotExist();
+
+            assertThat(requests).containsExactly("full", "partial", "full");
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private HttpServer startServer(CopyOnWriteArrayList<String> requests) throws Exception {
+        var server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/file.txt", exchange -> {
+            var content = CONTENT.getBytes(StandardCharsets.UTF_8);
+            var lastModified = DateTimeFormatter.RFC_1123_DATE_TIME.format(LAST_MODIFIED);
+            var range = exchange.getRequestHeaders().getFirst("Range");
+            var ifRange = exchange.getRequestHeaders().getFirst("If-Range");
+            exchange.getResponseHeaders().add("Last-Modified", lastModified);
+            if (range != null && lastModified.equals(ifRange)) {
+                requests.add("partial");
+                var rangeStart = Integer.parseInt(range.substring("bytes=".length(), range.length() - 1));
+                exchange.getResponseHeaders().add("Content-Range", String.format("bytes %d-%d/%d", rangeStart, content.length - 1, content.length));
+                sendResponse(exchange, 206, Arrays.copyOfRange(content, rangeStart, content.length));
+            } else {
+                requests.add("full");
+                sendResponse(exchange, 200, content);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private void sendResponse(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length);
+        try (var out = exchange.getResponseBody()) {
+            out.write(body);
+        }
     }
 }
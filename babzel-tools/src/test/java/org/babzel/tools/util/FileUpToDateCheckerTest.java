@@ -179,4 +179,68 @@ public class FileUpToDateCheckerTest {
 
         assertThat(isUpToDate).isEqualTo(true);
     }
+
+    @Test
+    public void digestDependent_OutputPathDoesNotExist() throws Exception {
+        Path rootPath = Jimfs.newFileSystem().getPath("");
+        Path outputPath = rootPath.resolve("output.txt");
+
+        checker.markUpToDate(outputPath, "digest");
+        boolean isUpToDate = checker.isUpToDate(outputPath, "digest");
+
+        assertThat(isUpToDate).isEqualTo(false);
+    }
+
+    @Test
+    public void digestDependent_NotMarked() throws Exception {
+        Path rootPath = Jimfs.newFileSystem().getPath("");
+        Path outputPath = rootPath.resolve("output.txt");
+        Files.writeString(outputPath, "output");
+
+        boolean isUpToDate = checker.isUpToDate(outputPath, "digest");
+
+        assertThat(isUpToDate).isEqualTo(false);
+    }
+
+    @Test
+    public void digestDependent_DigestChanged() throws Exception {
+        Path rootPath = Jimfs.newFileSystem().getPath("");
+        Path outputPath = rootPath.resolve("output.txt");
+        Files.writeString(outputPath, "output");
+
+        checker.markUpToDate(outputPath, "digest");
+        boolean isUpToDate = checker.isUpToDate(outputPath, "other-digest");
+
+        assertThat(isUpToDate).isEqualTo(false);
+    }
+
+    @Test
+    public void digestDependent_UpToDate() throws Exception {
+        Path rootPath = Jimfs.newFileSystem().getPath("");
+        Path outputPath = rootPath.resolve("output.txt");
+        Files.writeString(outputPath, "output");
+
+        checker.markUpToDate(outputPath, "digest");
+        // modification time does not matter
+        Files.setLastModifiedTime(outputPath, FileTime.fromMillis(111));
+        boolean isUpToDate = checker.isUpToDate(outputPath, "digest");
+
+        assertThat(isUpToDate).isEqualTo(true);
+        assertThat(rootPath.resolve("output.txt.inputs")).content().isEqualTo("digest");
+    }
+
+    @Test
+    public void digestDependent_Deleted() throws Exception {
+        Path rootPath = Jimfs.newFileSystem().getPath("");
+        Path outputPath = rootPath.resolve("output.txt");
+        Files.writeString(outputPath, "output");
+        checker.markUpToDate(outputPath, "digest");
+
+        checker.deleteOutput(outputPath);
+        checker.deleteOutput(outputPath);
+
+        assertThat(outputPath).doesNotExist();
+        assertThat(rootPath.resolve("output.txt.inputs")).doesNotExist();
+        assertThat(checker.isUpToDate(outputPath, "digest")).isEqualTo(false);
+    }
 }
@@ -0,0 +1,129 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.util;
+
+import io.vavr.collection.Vector;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+public class ParallelExecutorTest {
+    @Test
+    public void executeAllConcurrently() {
+        var executor = new ParallelExecutor(() -> 3);
+        // every task waits until all tasks are started, it succeeds only when tasks run concurrently
+        var started = new CountDownLatch(3);
+        Supplier<String> task1 = () -> awaitAll(started, "r1");
+        Supplier<String> task2 = () -> awaitAll(started, "r2");
+        Supplier<String> task3 = () -> awaitAll(started, "r3");
+
+        var results = executor.executeAll(Vector.of(task1, task2, task3));
+
+        assertThat(executor.getParallelism()).isEqualTo(3);
+        assertThat(results).isEqualTo(Vector.of("r1", "r2", "r3"));
+    }
+
+    @Test
+    public void executeAllSequentially() {
+        var executor = new ParallelExecutor(() -> 1);
+        var thread = Thread.currentThread();
+        Supplier<Boolean> task = () -> Thread.currentThread() == thread;
+
+        var results = executor.executeAll(Vector.of(task, task), 1);
+
+        assertThat(executor.getParallelism()).isEqualTo(1);
+        assertThat(results).isEqualTo(Vector.of(true, true));
+    }
+
+    @Test
+    public void executeAllConcurrentlyWithSinglePermit() {
+        var executor = new ParallelExecutor(() -> 1);
+        var thread = Thread.currentThread();
+        Supplier<Boolean> task = () -> Thread.currentThread() == thread;
+
+        var results = executor.executeAll(Vector.of(task, task), 2);
+
+        assertThat(executor.getParallelism()).isEqualTo(1);
+        assertThat(results).isEqualTo(Vector.of(false, false));
+    }
+
+    @Test
+    public void executeAllBounded() {
+        var executor = new ParallelExecutor(() -> 4);
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        var tasks = Vector.range(0, 8).<Supplier<Integer>>map(index -> () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep();
+            running.decrementAndGet();
+            return index;
+        });
+
+        var results = executor.executeAll(tasks, 2);
+
+        assertThat(results).isEqualTo(Vector.range(0, 8));
+        assertThat(maxRunning.get()).isBetween(1, 2);
+    }
+
+    @Test
+    public void executeAllFailure() {
+        var executor = new ParallelExecutor(() -> 2);
+        Supplier<String> task1 = () -> "r1";
+        Supplier<String> task2 = () -> {
+            throw new IllegalStateException("failure");
+        };
+
+        assertThatThrownBy(() -> executor.executeAll(Vector.of(task1, task2)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("failure");
+    }
+
+    @Test
+    public void executeWithPermit() {
+        var executor = new ParallelExecutor(() -> 2);
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        Supplier<Integer> task = () -> executor.executeWithPermit(() -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep();
+            return running.decrementAndGet();
+        });
+
+        executor.executeAll(Vector.fill(6, () -> task));
+
+        assertThat(maxRunning.get()).isBetween(1, 2);
+    }
+
+    private String awaitAll(CountDownLatch started, String result) {
+        started.countDown();
+        try {
+            assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return result;
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.babzel.tools.util;
+
+import io.vavr.collection.Iterator;
+import io.vavr.collection.Vector;
+import io.vavr.control.Option;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+public class ParallelMapperTest {
+    @Test
+    public void flatMapConcurrently() {
+        var mapper = new ParallelMapper(new ParallelExecutor(() -> 4), () -> 4);
+        var items = Vector.range(0, 10 * ParallelMapper.CHUNK_SIZE + 7);
+        Set<String> threadNames = ConcurrentHashMap.newKeySet();
+
+        var results = mapper.flatMap(items.iterator(), item -> {
+            threadNames.add(Thread.currentThread().getName());
+            return item % 3 == 0 ? Option.none() : Vector.of(item, -item);
+        });
+
+        assertThat(results).isEqualTo(items.filter(item -> item % 3 != 0).flatMap(item -> Vector.of(item, -item)));
+        assertThat(threadNames).allMatch(threadName -> threadName.startsWith("babzel-worker-"));
+    }
+
+    @Test
+    public void flatMapConcurrentlyWithSinglePermit() {
+        var mapper = new ParallelMapper(new ParallelExecutor(() -> 1), () -> 4);
+        var items = Vector.range(0, 10 * ParallelMapper.CHUNK_SIZE);
+        var callerThread = Thread.currentThread();
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+        var results = mapper.map(items, item -> {
+            threads.add(Thread.currentThread());
+            return item + 1;
+        });
+
+        // conversion threads do not depend on the number of concurrent trainings
+        assertThat(results).isEqualTo(items.map(item -> item + 1));
+        assertThat(threads).doesNotContain(callerThread).allMatch(thread -> thread.getName().startsWith("babzel-worker-"));
+    }
+
+    @Test
+    public void flatMapSequentially() {
+        var mapper = new ParallelMapper(new ParallelExecutor(() -> 4), () -> 1);
+        var items = Vector.range(0, 3 * ParallelMapper.CHUNK_SIZE);
+        var callerThread = Thread.currentThread();
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+        var results = mapper.flatMap(items, item -> {
+            threads.add(Thread.currentThread());
+            return Option.some(item * 2);
+        });
+
+        assertThat(results).isEqualTo(items.map(item -> item * 2));
+        assertThat(threads).containsExactly(callerThread);
+    }
+
+    @Test
+    public void flatMapSameAsSequential() {
+        var parallelMapper = new ParallelMapper(new ParallelExecutor(() -> 8), () -> 8);
+        var sequentialMapper = new ParallelMapper(new ParallelExecutor(() -> 8), () -> 1);
+        var items = Vector.range(0, 100 * ParallelMapper.CHUNK_SIZE + 13);
+
+        var parallelResults = parallelMapper.flatMap(items, item -> Vector.fill(item % 4, () -> item));
+        var sequentialResults = sequentialMapper.flatMap(items, item -> Vector.fill(item % 4, () -> item));
+
+        assertThat(parallelResults).isEqualTo(sequentialResults);
+    }
+
+    @Test
+    public void map() {
+        var mapper = new ParallelMapper(new ParallelExecutor(() -> 4), () -> 4);
+        var items = Vector.range(0, 2 * ParallelMapper.CHUNK_SIZE + 1);
+
+        var results = mapper.map(items, item -> "v" + item);
+
+        assertThat(results).isEqualTo(items.map(item -> "v" + item));
+    }
+
+    @Test
+    public void flatMapLazily() {
+        var mapper = new ParallelMapper(new ParallelExecutor(() -> 4), () -> 4);
+        var items = Vector.range(0, 100 * ParallelMapper.CHUNK_SIZE + 13);
+        var consumedCount = new AtomicInteger();
+
+        var results = mapper.flatMapLazily(items.iterator().peek(item -> consumedCount.incrementAndGet()), item -> Vector.of(item, -item));
+
+        // input is consumed by waves of chunks while results are iterated, a wave is read ahead at most
+        assertThat(results.next()).isEqualTo(0);
+        assertThat(consumedCount.get()).isLessThanOrEqualTo(3 * 4 * 4 * ParallelMapper.CHUNK_SIZE);
+        assertThat(results.toVector()).isEqualTo(items.flatMap(item -> Vector.of(item, -item)).tail());
+        assertThat(consumedCount.get()).isEqualTo(items.size());
+    }
+
+    @Test
+    public void mapLazilySequentially() {
+        var mapper = new ParallelMapper(new ParallelExecutor(() -> 4), () -> 1);
+        var items = Vector.range(0, 3 * ParallelMapper.CHUNK_SIZE);
+        var consumedCount = new AtomicInteger();
+
+        var results = mapper.mapLazily(items.iterator().peek(item -> consumedCount.incrementAndGet()), item -> item * 2);
+
+        assertThat(results.next()).isEqualTo(0);
+        assertThat(consumedCount.get()).isEqualTo(1);
+        assertThat(results.toVector()).isEqualTo(items.tail().map(item -> item * 2));
+    }
+
+    @Test
+    public void flatMapEmpty() {
+        var mapper = new ParallelMapper(new ParallelExecutor(() -> 4), () -> 4);
+
+        var results = mapper.flatMap(Iterator.<Integer>empty(), Option::some);
+
+        assertThat(results).isEmpty();
+    }
+
+    @Test
+    public void flatMapFailure() {
+        var mapper = new ParallelMapper(new ParallelExecutor(() -> 4), () -> 4);
+        var items = Vector.range(0, 5 * ParallelMapper.CHUNK_SIZE);
+
+        assertThatThrownBy(() -> mapper.flatMap(items, item -> {
+            if (item == 3 * ParallelMapper.CHUNK_SIZE) {
+                throw new IllegalStateException("failed");
+            }
+            return Option.some(item);
+        })).isInstanceOf(IllegalStateException.class).hasMessage("failed");
+    }
+}